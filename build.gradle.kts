@@ -9,6 +9,8 @@ plugins {
     id("jacoco")
     id("org.jetbrains.kotlinx.binary-compatibility-validator") version "0.9.0"
     id("org.jlleitschuh.gradle.ktlint") version "10.3.0"
+    // Only applied when the build is run with -Pjmh; see below.
+    id("me.champeau.jmh") version "0.7.2" apply false
 
     // TODO: Configure and use this
     id("com.diffplug.spotless") version "6.11.0"
@@ -30,6 +32,35 @@ val isCI: Boolean = System.getenv("CI") == "true"
 val githubRepositoryUrl = "https://github.com/amazon-ion/ion-element-kotlin/"
 val isReleaseVersion: Boolean = !version.toString().endsWith("SNAPSHOT")
 
+// A generator of large, reproducible corpora of Ion data, which is used by the tests and benchmarks. Write a corpus to
+// a file with `./gradlew generateCorpus --args="--output <file> --size 1G"`.
+val corpus: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+val corpusImplementation: Configuration by configurations.getting {
+    extendsFrom(configurations.implementation.get())
+}
+
+// Benchmarks of the heap memory used by elements, which use JOL. Run them with `./gradlew footprint`, and record a new
+// baseline with `./gradlew footprint -PupdateFootprint`.
+val footprint: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + corpus.output
+    runtimeClasspath += sourceSets.main.get().output + corpus.output
+}
+
+sourceSets {
+    test {
+        compileClasspath += corpus.output
+        runtimeClasspath += corpus.output
+    }
+}
+
+val footprintImplementation: Configuration by configurations.getting {
+    extendsFrom(configurations.implementation.get())
+}
+
 dependencies {
     api("com.amazon.ion:ion-java:[1.4.0,)")
     compileOnly("com.amazon.ion:ion-java:1.4.0")
@@ -43,12 +74,32 @@ dependencies {
     // Use the Kotlin JUnit 5 integration.
     testImplementation("org.jetbrains.kotlin:kotlin-test-junit5")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    footprintImplementation("org.openjdk.jol:jol-core:0.17")
 }
 
 kotlin {
     explicitApi()
 }
 
+// The JMH benchmarks in src/jmh are not part of the regular build. Run them with `./gradlew jmh -Pjmh`, or a subset of
+// them with `./gradlew jmh -Pjmh -PjmhIncludes=<regex>`.
+if (project.hasProperty("jmh")) {
+    apply(plugin = "me.champeau.jmh")
+
+    sourceSets.named("jmh") {
+        compileClasspath += corpus.output
+        runtimeClasspath += corpus.output
+    }
+
+    configure<me.champeau.jmh.JmhParametersExtension> {
+        jmhVersion.set("1.37")
+        resultFormat.set("JSON")
+        resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+        (project.findProperty("jmhIncludes") as String?)?.let { includes.set(listOf(it)) }
+    }
+}
+
 java {
     sourceCompatibility = JavaVersion.VERSION_1_8
     targetCompatibility = JavaVersion.VERSION_1_8
@@ -95,6 +146,24 @@ tasks {
         finalizedBy(jacocoTestReport)
     }
 
+    register<JavaExec>("generateCorpus") {
+        group = "application"
+        description = "Writes a corpus of generated Ion data to a file. Run with --args=\"\" for usage."
+        classpath = corpus.runtimeClasspath
+        mainClass.set("com.amazon.ionelement.corpus.GenerateCorpus")
+    }
+
+    register<JavaExec>("footprint") {
+        group = "verification"
+        description = "Measures the heap memory used by loaded elements, and fails if it has grown since the baseline."
+        classpath = footprint.runtimeClasspath
+        mainClass.set("com.amazon.ionelement.footprint.FootprintBenchmark")
+        args = listOfNotNull(
+            file("src/footprint/resources/footprint-baseline.properties").path,
+            "--update".takeIf { project.hasProperty("updateFootprint") }
+        )
+    }
+
     jacocoTestReport {
         dependsOn(test)
         reports {
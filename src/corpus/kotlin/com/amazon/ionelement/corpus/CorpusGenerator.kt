@@ -0,0 +1,141 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.corpus
+
+import com.amazon.ion.Decimal
+import com.amazon.ion.IonWriter
+import com.amazon.ion.Timestamp
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.api.ElementType.*
+import java.math.BigDecimal
+import java.util.Random
+
+/**
+ * Generates a stream of Ion values described by [options]. The same [options] and [seed] always generate the same
+ * values, so a corpus can be regenerated (or generated on the fly by a benchmark) instead of being stored.
+ *
+ * Values are generated one at a time by [next], so corpora of any size can be written (see [writeTo]) without holding
+ * them in memory. Instances are not thread-safe.
+ */
+public class CorpusGenerator(public val options: CorpusOptions, public val seed: Long) {
+    private val random = Random(seed)
+
+    private val scalarTypes = options.scalarWeights.filterValues { it > 0 }.keys.toList()
+    private val cumulativeWeights = scalarTypes.map { options.scalarWeights.getValue(it) }.runningTotal()
+
+    // Most records use one of the first few shapes, and most words are among the first few in the vocabulary, as in
+    // most production data.
+    private val shapeIndexes = Distribution.geometric(options.recordShapes / 8.0, maxOf(options.recordShapes - 1, 0))
+    private val wordIndexes = Distribution.geometric(options.vocabularySize / 16.0, options.vocabularySize - 1)
+
+    private val vocabulary: List<String> = List(options.vocabularySize) { i -> randomWord(i) }
+
+    /** The types of the fields of each record shape. A type of null means any container type. */
+    private val shapes: List<List<Pair<String, ElementType?>>> = List(options.recordShapes) { randomShape() }
+
+    /** Returns the next value. */
+    public fun next(): AnyElement {
+        val maxDepth = options.depth.sample(random)
+        return if (options.records) nextRecord(maxDepth) else nextValue(0, maxDepth)
+    }
+
+    /** Writes values to [writer] until [count] values have been written. */
+    public fun writeTo(writer: IonWriter, count: Long) {
+        for (i in 0 until count) next().writeTo(writer)
+    }
+
+    private fun nextRecord(maxDepth: Int): AnyElement {
+        val shape = if (shapes.isEmpty()) randomShape() else shapes[shapeIndexes.sample(random)]
+        return annotate(
+            ionStructOf(
+                shape.map { (name, type) ->
+                    val value = when {
+                        type == null -> nextContainer(1, maxOf(maxDepth, 1))
+                        random.nextDouble() < NULL_FIELD_CHANCE -> ionNull(type).asAnyElement()
+                        else -> annotate(nextScalar(type))
+                    }
+                    field(name, value)
+                }
+            ).asAnyElement()
+        )
+    }
+
+    private fun nextValue(depth: Int, maxDepth: Int): AnyElement =
+        if (depth < maxDepth && random.nextDouble() < options.containerChance) {
+            nextContainer(depth, maxDepth)
+        } else {
+            annotate(nextScalar(nextScalarType()))
+        }
+
+    private fun nextContainer(depth: Int, maxDepth: Int): AnyElement {
+        val size = options.containerSize.sample(random)
+        val container = when (options.containerTypes[random.nextInt(options.containerTypes.size)]) {
+            LIST -> ionListOf(List(size) { nextValue(depth + 1, maxDepth) })
+            SEXP -> ionSexpOf(List(size) { nextValue(depth + 1, maxDepth) })
+            else -> ionStructOf(List(size) { field(nextWord(), nextValue(depth + 1, maxDepth)) })
+        }
+        return annotate(container.asAnyElement())
+    }
+
+    private fun nextScalar(type: ElementType): AnyElement = when (type) {
+        NULL -> ionNull(ElementType.values()[random.nextInt(ElementType.values().size)])
+        BOOL -> ionBool(random.nextBoolean())
+        // Spread the magnitudes of integers and decimals evenly, from single digits to the limits of a long.
+        INT -> ionInt(random.nextLong() shr random.nextInt(64))
+        FLOAT -> ionFloat(random.nextGaussian() * Math.pow(10.0, random.nextInt(13) - 6.0))
+        DECIMAL -> ionDecimal(Decimal.valueOf(BigDecimal.valueOf(random.nextLong() shr random.nextInt(64), random.nextInt(7))))
+        TIMESTAMP -> ionTimestamp(Timestamp.forMillis(MIN_TIMESTAMP_MILLIS + (random.nextLong() ushr 1) % TIMESTAMP_RANGE_MILLIS, 0))
+        SYMBOL -> ionSymbol(nextWord())
+        STRING -> ionString(randomText(options.stringLength.sample(random)))
+        BLOB -> ionBlob(ByteArray(options.lobSize.sample(random)).also { random.nextBytes(it) })
+        CLOB -> ionClob(ByteArray(options.lobSize.sample(random)) { CHARACTERS[random.nextInt(CHARACTERS.length)].code.toByte() })
+        else -> error("Not a scalar type: $type")
+    }.asAnyElement()
+
+    private fun nextScalarType(): ElementType {
+        val n = random.nextInt(cumulativeWeights.last())
+        return scalarTypes[cumulativeWeights.indexOfFirst { n < it }]
+    }
+
+    private fun annotate(element: AnyElement): AnyElement =
+        if (random.nextDouble() < options.annotationChance) {
+            element.withAnnotations(List(options.annotationCount.sample(random)) { nextWord() }).asAnyElement()
+        } else {
+            element
+        }
+
+    private fun nextWord(): String = vocabulary[wordIndexes.sample(random)]
+
+    private fun randomShape(): List<Pair<String, ElementType?>> {
+        val used = BooleanArray(vocabulary.size)
+        return List(minOf(options.recordFields.sample(random), vocabulary.size)) {
+            // Field names are distinct, so if a word has already been used, use the next one that has not.
+            var index = wordIndexes.sample(random)
+            while (used[index]) index = (index + 1) % vocabulary.size
+            used[index] = true
+            vocabulary[index] to if (random.nextDouble() < options.containerChance) null else nextScalarType()
+        }
+    }
+
+    private fun randomWord(index: Int): String = randomText(3 + random.nextInt(10)).filter { it != ' ' } + index
+
+    private fun randomText(length: Int): String {
+        val chars = CharArray(length) { CHARACTERS[random.nextInt(CHARACTERS.length)] }
+        return String(chars)
+    }
+
+    private fun List<Int>.runningTotal(): List<Int> {
+        var total = 0
+        return map {
+            total += it
+            total
+        }
+    }
+
+    private companion object {
+        private const val CHARACTERS = "_    abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789"
+        private const val NULL_FIELD_CHANCE = 0.05
+        private val MIN_TIMESTAMP_MILLIS = Timestamp.forDay(2000, 1, 1).millis
+        private val TIMESTAMP_RANGE_MILLIS = Timestamp.forDay(2040, 1, 1).millis - MIN_TIMESTAMP_MILLIS
+    }
+}
@@ -0,0 +1,135 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.corpus
+
+import com.amazon.ionelement.api.ElementType
+import com.amazon.ionelement.api.ElementType.*
+
+/**
+ * Describes the data that a [CorpusGenerator] generates. Each option that is a [Distribution] is sampled separately
+ * for every value (or every record, as documented).
+ *
+ * The predefined [PROFILES] resemble common kinds of production data, and can be adjusted using [copy].
+ */
+public data class CorpusOptions(
+    /**
+     * Whether the top-level values are records—structs with one of a limited set of shapes, like the rows of a table
+     * or the messages of a service—rather than arbitrary values.
+     */
+    public val records: Boolean = true,
+    /** The number of fields in each record shape. */
+    public val recordFields: Distribution = Distribution.uniform(5, 30),
+    /**
+     * The number of distinct record shapes. Records use some shapes much more often than others. If this is 0, every
+     * record has a shape of its own.
+     */
+    public val recordShapes: Int = 50,
+    /** The maximum depth of containers, sampled once for each top-level value. */
+    public val depth: Distribution = Distribution.geometric(1.0, 10),
+    /** The chance that a value is a container, if the maximum depth has not been reached. */
+    public val containerChance: Double = 0.2,
+    /** The types of containers that are generated, which are equally likely. */
+    public val containerTypes: List<ElementType> = listOf(LIST, SEXP, STRUCT),
+    /** The number of elements in each list or sexp, and of fields in each struct that is not a record. */
+    public val containerSize: Distribution = Distribution.geometric(4.0, 1000),
+    /**
+     * The relative frequency of each type of scalar. [ElementType.NULL] stands for nulls of every type. Types that
+     * are not included are never generated.
+     */
+    public val scalarWeights: Map<ElementType, Int> = mapOf(
+        NULL to 1, BOOL to 2, INT to 6, FLOAT to 2, DECIMAL to 3, TIMESTAMP to 2, SYMBOL to 4, STRING to 6, BLOB to 1
+    ),
+    /** The number of characters in each string. */
+    public val stringLength: Distribution = Distribution.logNormal(12, 1.0, 100_000),
+    /** The number of bytes in each blob and clob. */
+    public val lobSize: Distribution = Distribution.logNormal(256, 1.5, 16 shl 20),
+    /** The number of distinct symbols, field names, and annotations that are used. */
+    public val vocabularySize: Int = 1000,
+    /** The chance that a value has annotations. */
+    public val annotationChance: Double = 0.05,
+    /** The number of annotations on each value that has annotations. */
+    public val annotationCount: Distribution = Distribution.uniform(1, 2),
+) {
+    init {
+        require(containerChance in 0.0..1.0) { "containerChance must be between 0 and 1: $containerChance" }
+        require(annotationChance in 0.0..1.0) { "annotationChance must be between 0 and 1: $annotationChance" }
+        require(recordShapes >= 0) { "recordShapes must not be negative: $recordShapes" }
+        require(containerTypes.isNotEmpty() && containerTypes.all { it.isContainer }) {
+            "containerTypes must have at least one container type: $containerTypes"
+        }
+        require(vocabularySize > 0) { "vocabularySize must be positive: $vocabularySize" }
+        require(scalarWeights.keys.none { it.isContainer } && scalarWeights.values.all { it >= 0 } && scalarWeights.values.sum() > 0) {
+            "scalarWeights must have positive weights for scalar types: $scalarWeights"
+        }
+    }
+
+    public companion object {
+        /** Records of typical width, with a little nesting. */
+        @JvmField
+        public val RECORDS: CorpusOptions = CorpusOptions()
+
+        /** Records with hundreds of fields, and only a few shapes. */
+        @JvmField
+        public val WIDE: CorpusOptions = CorpusOptions(recordFields = Distribution.uniform(200, 1000), recordShapes = 5)
+
+        /** Small records with chains of containers nested 20 to 200 levels deep. */
+        @JvmField
+        public val DEEP: CorpusOptions = CorpusOptions(
+            recordFields = Distribution.uniform(1, 4),
+            depth = Distribution.uniform(20, 200),
+            containerChance = 1.0,
+            // Each container has a single element, so that the number of elements does not grow exponentially with depth.
+            containerSize = Distribution.fixed(1),
+        )
+
+        /** Records that mostly hold large blobs and clobs. */
+        @JvmField
+        public val LOBS: CorpusOptions = CorpusOptions(
+            recordFields = Distribution.uniform(2, 8),
+            containerChance = 0.0,
+            scalarWeights = mapOf(INT to 2, STRING to 2, TIMESTAMP to 1, BLOB to 4, CLOB to 1),
+            lobSize = Distribution.logNormal(16 shl 10, 1.0, 16 shl 20),
+        )
+
+        /** Records in which most values have several annotations. */
+        @JvmField
+        public val ANNOTATED: CorpusOptions = CorpusOptions(annotationChance = 0.8, annotationCount = Distribution.uniform(1, 5))
+
+        /** Records that hold long lists of numbers, like series of measurements. */
+        @JvmField
+        public val SERIES: CorpusOptions = CorpusOptions(
+            recordFields = Distribution.uniform(1, 4),
+            depth = Distribution.fixed(1),
+            containerChance = 1.0,
+            containerTypes = listOf(LIST),
+            containerSize = Distribution.uniform(50, 500),
+            scalarWeights = mapOf(INT to 1, FLOAT to 1),
+        )
+
+        /** Arbitrary small values of every type, nested up to 4 levels deep, with many nulls and short lobs. */
+        @JvmField
+        public val RANDOM: CorpusOptions = CorpusOptions(
+            records = false,
+            depth = Distribution.fixed(4),
+            containerChance = 0.6,
+            containerSize = Distribution.uniform(0, 10),
+            scalarWeights = mapOf(NULL to 1, BOOL to 1, INT to 1, SYMBOL to 1, STRING to 1, TIMESTAMP to 1, BLOB to 1, CLOB to 1),
+            stringLength = Distribution.uniform(0, 24),
+            lobSize = Distribution.uniform(0, 64),
+            annotationChance = 0.1,
+            annotationCount = Distribution.uniform(0, 4),
+        )
+
+        /** The predefined options, by name. */
+        @JvmField
+        public val PROFILES: Map<String, CorpusOptions> = linkedMapOf(
+            "records" to RECORDS,
+            "wide" to WIDE,
+            "deep" to DEEP,
+            "lobs" to LOBS,
+            "annotated" to ANNOTATED,
+            "series" to SERIES,
+            "random" to RANDOM,
+        )
+    }
+}
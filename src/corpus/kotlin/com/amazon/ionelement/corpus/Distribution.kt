@@ -0,0 +1,108 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.corpus
+
+import java.util.Random
+import kotlin.math.exp
+import kotlin.math.ln
+import kotlin.math.roundToLong
+
+/**
+ * A distribution of non-negative integers, which a [CorpusGenerator] samples for counts and sizes.
+ *
+ * Distributions can be written as text (see [parse]), and their [toString] is the same text, so that the options that
+ * generated a corpus can be recorded and reused.
+ */
+public abstract class Distribution {
+    /** Returns the next value from this distribution, using [random]. */
+    public abstract fun sample(random: Random): Int
+
+    private class Fixed(private val value: Int) : Distribution() {
+        override fun sample(random: Random): Int = value
+        override fun toString(): String = "$value"
+    }
+
+    private class Uniform(private val min: Int, private val max: Int) : Distribution() {
+        override fun sample(random: Random): Int = min + random.nextInt(max - min + 1)
+        override fun toString(): String = "$min..$max"
+    }
+
+    private class Geometric(private val mean: Double, private val max: Int) : Distribution() {
+        // The number of failures before the first success, when each trial succeeds with probability 1 / (mean + 1).
+        private val logFailure = ln(mean / (mean + 1))
+
+        override fun sample(random: Random): Int =
+            if (mean == 0.0) 0 else minOf(max.toLong(), (ln(1 - random.nextDouble()) / logFailure).toLong()).toInt()
+
+        override fun toString(): String = "geometric:$mean:$max"
+    }
+
+    private class LogNormal(private val median: Int, private val sigma: Double, private val max: Int) : Distribution() {
+        override fun sample(random: Random): Int =
+            minOf(max.toLong(), (median * exp(sigma * random.nextGaussian())).roundToLong()).toInt()
+
+        override fun toString(): String = "lognormal:$median:$sigma:$max"
+    }
+
+    public companion object {
+        /** Always [value]. */
+        @JvmStatic
+        public fun fixed(value: Int): Distribution {
+            require(value >= 0) { "Value must not be negative: $value" }
+            return Fixed(value)
+        }
+
+        /** Every integer from [min] to [max] (inclusive) is equally likely. */
+        @JvmStatic
+        public fun uniform(min: Int, max: Int): Distribution {
+            require(min in 0..max) { "Invalid range: $min..$max" }
+            return Uniform(min, max)
+        }
+
+        /**
+         * Small values are the most likely, and each larger value is less likely than the one before, with an average
+         * of [mean]. Values are limited to [max].
+         */
+        @JvmStatic
+        public fun geometric(mean: Double, max: Int = Int.MAX_VALUE): Distribution {
+            require(mean >= 0 && max >= 0) { "Invalid geometric distribution: mean $mean, max $max" }
+            return Geometric(mean, max)
+        }
+
+        /**
+         * Values are spread around [median] with a long tail of large values, like the sizes of strings and files.
+         * [sigma] controls the spread: about two thirds of values are within a factor of `e^sigma` of [median]. Values
+         * are limited to [max].
+         */
+        @JvmStatic
+        public fun logNormal(median: Int, sigma: Double, max: Int = Int.MAX_VALUE): Distribution {
+            require(median >= 0 && sigma >= 0 && max >= 0) { "Invalid log-normal distribution: median $median, sigma $sigma, max $max" }
+            return LogNormal(median, sigma, max)
+        }
+
+        /**
+         * Parses a distribution from text: `10` ([fixed]), `1..20` ([uniform]), `geometric:<mean>[:<max>]`, or
+         * `lognormal:<median>:<sigma>[:<max>]`.
+         *
+         * @throws IllegalArgumentException If [text] is not a valid distribution.
+         */
+        @JvmStatic
+        public fun parse(text: String): Distribution {
+            val parts = text.split(":")
+            try {
+                return when {
+                    parts[0] == "geometric" && parts.size in 2..3 ->
+                        geometric(parts[1].toDouble(), parts.getOrNull(2)?.toInt() ?: Int.MAX_VALUE)
+                    parts[0] == "lognormal" && parts.size in 3..4 ->
+                        logNormal(parts[1].toInt(), parts[2].toDouble(), parts.getOrNull(3)?.toInt() ?: Int.MAX_VALUE)
+                    parts.size == 1 && ".." in text ->
+                        uniform(text.substringBefore("..").toInt(), text.substringAfter("..").toInt())
+                    parts.size == 1 -> fixed(text.toInt())
+                    else -> throw IllegalArgumentException("Not a valid distribution: '$text'")
+                }
+            } catch (e: NumberFormatException) {
+                throw IllegalArgumentException("Not a valid distribution: '$text'", e)
+            }
+        }
+    }
+}
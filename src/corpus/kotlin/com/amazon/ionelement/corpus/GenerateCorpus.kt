@@ -0,0 +1,123 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+@file:JvmName("GenerateCorpus")
+package com.amazon.ionelement.corpus
+
+import com.amazon.ion.system.IonBinaryWriterBuilder
+import com.amazon.ion.system.IonTextWriterBuilder
+import java.io.BufferedOutputStream
+import java.io.File
+import java.io.FileOutputStream
+import java.io.FilterOutputStream
+import java.io.OutputStream
+import kotlin.system.exitProcess
+
+private const val USAGE = """Generates a corpus of Ion data.
+
+Usage: generateCorpus --output <file> (--size <bytes> | --count <values>) [options]
+
+  --output <file>             The file to write.
+  --size <bytes>              Stop once the file has at least this many bytes. Accepts K, M, and G suffixes.
+  --count <values>            Stop after this many top-level values.
+  --format text|binary        The Ion encoding to write (default: binary).
+  --profile <name>            The predefined options to start from (default: records): {profiles}
+  --seed <long>               The random seed (default: 0). The same options and seed generate the same corpus.
+
+The options of the profile can be replaced with:
+  --record-fields <dist>      --record-shapes <int>      --depth <dist>             --container-chance <double>
+  --container-size <dist>     --string-length <dist>     --lob-size <dist>          --vocabulary-size <int>
+  --annotation-chance <double>                           --annotation-count <dist>
+
+A <dist> is a fixed number (10), a range (1..20), geometric:<mean>[:<max>], or lognormal:<median>:<sigma>[:<max>]."""
+
+/** Writes a corpus generated by a [CorpusGenerator] to a file. Run it without arguments for usage. */
+public fun main(args: Array<String>) {
+    try {
+        generate(args)
+    } catch (e: IllegalArgumentException) {
+        System.err.println(e.message)
+        System.err.println()
+        System.err.println(USAGE.replace("{profiles}", CorpusOptions.PROFILES.keys.joinToString()))
+        exitProcess(2)
+    }
+}
+
+private fun generate(args: Array<String>) {
+    require(args.size % 2 == 0) { "Every option must have a value." }
+    val arguments = args.toList().chunked(2).associate { (name, value) ->
+        require(name.startsWith("--")) { "Not an option: $name" }
+        name.removePrefix("--") to value
+    }
+
+    var options = arguments["profile"]?.let { requireNotNull(CorpusOptions.PROFILES[it]) { "Unknown profile: $it" } }
+        ?: CorpusOptions.RECORDS
+    for ((name, value) in arguments) {
+        options = when (name) {
+            "output", "size", "count", "format", "profile", "seed" -> options
+            "record-fields" -> options.copy(recordFields = Distribution.parse(value))
+            "record-shapes" -> options.copy(recordShapes = value.toInt())
+            "depth" -> options.copy(depth = Distribution.parse(value))
+            "container-chance" -> options.copy(containerChance = value.toDouble())
+            "container-size" -> options.copy(containerSize = Distribution.parse(value))
+            "string-length" -> options.copy(stringLength = Distribution.parse(value))
+            "lob-size" -> options.copy(lobSize = Distribution.parse(value))
+            "vocabulary-size" -> options.copy(vocabularySize = value.toInt())
+            "annotation-chance" -> options.copy(annotationChance = value.toDouble())
+            "annotation-count" -> options.copy(annotationCount = Distribution.parse(value))
+            else -> throw IllegalArgumentException("Unknown option: --$name")
+        }
+    }
+
+    val output = File(requireNotNull(arguments["output"]) { "--output is required." })
+    val maxBytes = arguments["size"]?.let { parseSize(it) } ?: Long.MAX_VALUE
+    val maxCount = arguments["count"]?.toLong() ?: Long.MAX_VALUE
+    require(maxBytes != Long.MAX_VALUE || maxCount != Long.MAX_VALUE) { "--size or --count is required." }
+    val binary = when (arguments["format"] ?: "binary") {
+        "binary" -> true
+        "text" -> false
+        else -> throw IllegalArgumentException("--format must be text or binary.")
+    }
+    val generator = CorpusGenerator(options, arguments["seed"]?.toLong() ?: 0)
+
+    val out = CountingOutputStream(BufferedOutputStream(FileOutputStream(output), 1 shl 16))
+    val writer = if (binary) IonBinaryWriterBuilder.standard().build(out) else IonTextWriterBuilder.standard().build(out)
+    var count = 0L
+    writer.use {
+        while (count < maxCount && out.count < maxBytes) {
+            generator.next().writeTo(writer)
+            count++
+            // The binary writer buffers values until the end of a symbol table context, so finish the context
+            // regularly to limit memory use and to keep the size of the output up to date.
+            if (count % FINISH_INTERVAL == 0L) writer.finish()
+        }
+    }
+    println("Wrote $count values (${out.count} bytes) to $output using seed ${generator.seed} and $options")
+}
+
+private const val FINISH_INTERVAL = 1000L
+
+private fun parseSize(text: String): Long {
+    val multiplier = when (text.last()) {
+        'K', 'k' -> 1L shl 10
+        'M', 'm' -> 1L shl 20
+        'G', 'g' -> 1L shl 30
+        else -> 1L
+    }
+    val digits = if (multiplier == 1L) text else text.dropLast(1)
+    return requireNotNull(digits.toLongOrNull()) { "Not a valid size: $text" } * multiplier
+}
+
+private class CountingOutputStream(out: OutputStream) : FilterOutputStream(out) {
+    var count = 0L
+        private set
+
+    override fun write(b: Int) {
+        out.write(b)
+        count++
+    }
+
+    override fun write(b: ByteArray, off: Int, len: Int) {
+        out.write(b, off, len)
+        count += len
+    }
+}
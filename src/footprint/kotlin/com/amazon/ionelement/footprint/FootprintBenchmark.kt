@@ -0,0 +1,174 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+@file:JvmName("FootprintBenchmark")
+package com.amazon.ionelement.footprint
+
+import com.amazon.ion.IonWriter
+import com.amazon.ion.Timestamp
+import com.amazon.ion.system.IonBinaryWriterBuilder
+import com.amazon.ion.system.IonReaderBuilder
+import com.amazon.ion.system.IonTextWriterBuilder
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.corpus.CorpusGenerator
+import com.amazon.ionelement.corpus.CorpusOptions
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.util.Locale
+import kotlin.system.exitProcess
+import org.openjdk.jol.info.GraphLayout
+
+/**
+ * Measures the heap memory that is retained by elements loaded from a few representative corpora, and fails if it
+ * has grown by more than [TOLERANCE] since the baseline was recorded.
+ *
+ * Usage: `FootprintBenchmark <baseline file> [--update]`. With `--update`, the baseline file is rewritten with the
+ * current measurements instead. From Gradle, run `./gradlew footprint` or `./gradlew footprint -PupdateFootprint`.
+ *
+ * Sizes are measured using JOL, excluding the objects that are shared by all elements, and are reported in bytes per
+ * element (counting every nested element), next to the result of [estimateRetainedSize] for comparison. A baseline
+ * that contains `estimated=true` has not been measured with JOL, so it is only reported, with a warning, until it is
+ * replaced by measurements.
+ */
+public fun main(args: Array<String>) {
+    require(args.isNotEmpty()) { "Usage: FootprintBenchmark <baseline file> [--update]" }
+    val baselineFile = File(args[0])
+    val update = "--update" in args.drop(1)
+    val baseline = if (baselineFile.exists()) readBaseline(baselineFile) else Baseline(emptyMap(), estimated = false)
+
+    val results = sortedMapOf<String, Double>()
+    val regressions = mutableListOf<String>()
+    println(
+        String.format("%-28s %10s %12s %10s %10s %10s %8s", "corpus", "elements", "bytes", "bytes/elt", "estimated", "baseline", "change")
+    )
+    for ((corpusName, corpus) in CORPORA) {
+        for ((loaderName, load) in LOADERS) {
+            val name = "$corpusName.$loaderName"
+            val elements = load(corpus)
+            val count = countElements(elements)
+            val bytes = GraphLayout.parseInstance(*(elements + SHARED).toTypedArray()).totalSize() - SHARED_SIZE
+            val bytesPerElement = bytes.toDouble() / count
+            val estimatedPerElement = estimateRetainedSize(elements).toDouble() / count
+            results[name] = bytesPerElement
+
+            val expected = baseline.values[name]
+            println(
+                String.format(
+                    "%-28s %10d %12d %10.1f %10.1f %10s %8s",
+                    name, count, bytes, bytesPerElement, estimatedPerElement,
+                    expected?.let { String.format("%.1f", it) } ?: "-",
+                    expected?.let { String.format("%+.1f%%", (bytesPerElement / it - 1) * 100) } ?: "-"
+                )
+            )
+            if (expected != null && bytesPerElement > expected * (1 + TOLERANCE)) {
+                regressions.add(String.format("%s: %.1f bytes per element, baseline %.1f", name, bytesPerElement, expected))
+            }
+        }
+    }
+
+    if (update) {
+        writeBaseline(baselineFile, results)
+        println("Updated $baselineFile")
+    } else if (baseline.estimated) {
+        System.err.println("WARNING: $baselineFile contains estimates, not measurements, so regressions are not checked.")
+        System.err.println("Record measurements with: ./gradlew footprint -PupdateFootprint")
+    } else if (regressions.isNotEmpty()) {
+        System.err.println("Heap footprint regressed by more than ${(TOLERANCE * 100).toInt()}%:")
+        regressions.forEach { System.err.println("  $it") }
+        exitProcess(1)
+    }
+}
+
+/** The fraction by which the footprint of a corpus may exceed its baseline before the benchmark fails. */
+private const val TOLERANCE = 0.05
+
+/**
+ * Objects that are shared by all elements, which are not retained by the elements that are measured. They are measured
+ * together with the elements, and then subtracted, because each [GraphLayout] only counts each object once.
+ */
+private val SHARED: List<Any> =
+    ElementType.values().map { ionNull(it) } +
+        listOf(emptyIonList(), emptyIonSexp(), emptyIonStruct(), emptyBlob(), emptyClob(), emptyList<Any>(), emptyMap<Any, Any>()) +
+        ElementType.values() + IntElementSize.values() + Timestamp.Precision.values()
+
+private val SHARED_SIZE: Long = GraphLayout.parseInstance(*SHARED.toTypedArray()).totalSize()
+
+/** Each corpus is a stream of Ion values generated from a fixed seed, so that results are comparable. */
+private val CORPORA: Map<String, (IonWriter) -> Unit> = linkedMapOf(
+    "records" to corpus(CorpusOptions.RECORDS, 2000),
+    "wide" to corpus(CorpusOptions.WIDE, 50),
+    "deep" to corpus(CorpusOptions.DEEP, 100),
+    "lobs" to corpus(CorpusOptions.LOBS, 200),
+    "annotated" to corpus(CorpusOptions.ANNOTATED, 2000),
+    "series" to corpus(CorpusOptions.SERIES, 200),
+)
+
+private fun corpus(options: CorpusOptions, count: Long): (IonWriter) -> Unit =
+    { writer -> CorpusGenerator(options, 1).writeTo(writer, count) }
+
+/** The ways that each corpus is loaded. */
+private val LOADERS: Map<String, ((IonWriter) -> Unit) -> List<AnyElement>> = linkedMapOf(
+    "text" to { corpus -> loadAllElements(toText(corpus)).toList() },
+    "text-location" to { corpus ->
+        loadAllElements(toText(corpus), IonElementLoaderOptions { includeLocationMeta = true }).toList()
+    },
+    "binary" to { corpus -> loadBinary(corpus, IonElementLoaderOptions {}) },
+    "binary-utf8" to { corpus -> loadBinary(corpus, IonElementLoaderOptions { retainUtf8Strings = true }) },
+)
+
+private fun toText(corpus: (IonWriter) -> Unit): String {
+    val out = StringBuilder()
+    IonTextWriterBuilder.standard().build(out).use(corpus)
+    return out.toString()
+}
+
+private fun loadBinary(corpus: (IonWriter) -> Unit, options: IonElementLoaderOptions): List<AnyElement> {
+    val out = ByteArrayOutputStream()
+    IonBinaryWriterBuilder.standard().build(out).use(corpus)
+    return IonReaderBuilder.standard().build(out.toByteArray()).use { loadAllElements(it, options).toList() }
+}
+
+private fun countElements(elements: List<AnyElement>): Long {
+    val counter = object : ElementWalker() {
+        var count = 0L
+        override fun visit(fieldName: String?, element: AnyElement) {
+            count++
+        }
+        override fun enterContainer(fieldName: String?, container: AnyElement): Boolean {
+            count++
+            return true
+        }
+    }
+    elements.forEach { counter.walk(it) }
+    return counter.count
+}
+
+/** The bytes per element of each corpus in a baseline file, and whether they are estimates rather than measurements. */
+private class Baseline(val values: Map<String, Double>, val estimated: Boolean)
+
+private fun readBaseline(file: File): Baseline {
+    val entries = file.readLines()
+        .filter { it.isNotBlank() && !it.startsWith("#") }
+        .associate { line ->
+            val (name, value) = line.split("=", limit = 2)
+            name.trim() to value.trim()
+        }
+    return Baseline(
+        values = (entries - ESTIMATED_KEY).mapValues { (_, value) -> value.toDouble() },
+        estimated = entries[ESTIMATED_KEY]?.toBoolean() ?: false
+    )
+}
+
+/** The key that marks a baseline whose values are estimates. [writeBaseline] never writes it. */
+private const val ESTIMATED_KEY = "estimated"
+
+private fun writeBaseline(file: File, results: Map<String, Double>) {
+    file.writeText(
+        BASELINE_HEADER + results.entries.joinToString("") { (name, value) -> String.format(Locale.ROOT, "%s=%.1f\n", name, value) }
+    )
+}
+
+private val BASELINE_HEADER = """
+    |# Bytes per element retained by each corpus, as measured with JOL by FootprintBenchmark.
+    |# Regenerate with: ./gradlew footprint -PupdateFootprint
+    |
+""".trimMargin()
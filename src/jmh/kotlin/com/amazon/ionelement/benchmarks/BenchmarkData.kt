@@ -0,0 +1,67 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.benchmarks
+
+import com.amazon.ion.system.IonBinaryWriterBuilder
+import com.amazon.ion.system.IonReaderBuilder
+import com.amazon.ion.system.IonTextWriterBuilder
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.corpus.CorpusGenerator
+import com.amazon.ionelement.corpus.CorpusOptions
+import java.io.ByteArrayOutputStream
+import java.util.Random
+
+/** Deterministic data for the benchmarks, so that results from different runs and versions can be compared. */
+internal object BenchmarkData {
+    /** [count] values generated with the options of a [CorpusOptions.PROFILES] profile. */
+    fun corpus(profile: String, count: Int): List<AnyElement> {
+        val generator = CorpusGenerator(CorpusOptions.PROFILES.getValue(profile), 1)
+        return List(count) { generator.next() }
+    }
+
+    /** A struct with [fieldCount] fields named `field0`, `field1`, and so on, with scalar values. */
+    fun wideStruct(fieldCount: Int): StructElement {
+        val random = Random(2)
+        return ionStructOf(
+            List(fieldCount) { i ->
+                field(
+                    "field$i",
+                    when (i % 3) {
+                        0 -> ionInt(random.nextInt().toLong())
+                        1 -> ionString("value ${random.nextInt()}")
+                        else -> ionFloat(random.nextDouble())
+                    }
+                )
+            }
+        )
+    }
+
+    /** [depth] structs nested inside each other, each with a few scalar fields. */
+    fun deepStruct(depth: Int): StructElement {
+        val random = Random(3)
+        var struct = ionStructOf("leaf" to ionBool(true))
+        repeat(depth) { level ->
+            struct = ionStructOf(
+                "level" to ionInt(level.toLong()),
+                "name" to ionString("node ${random.nextInt()}"),
+                "child" to struct,
+            )
+        }
+        return struct
+    }
+
+    fun toText(elements: List<IonElement>): ByteArray {
+        val out = ByteArrayOutputStream()
+        IonTextWriterBuilder.standard().build(out).use { writer -> elements.forEach { it.writeTo(writer) } }
+        return out.toByteArray()
+    }
+
+    fun toBinary(elements: List<IonElement>): ByteArray {
+        val out = ByteArrayOutputStream()
+        IonBinaryWriterBuilder.standard().build(out).use { writer -> elements.forEach { it.writeTo(writer) } }
+        return out.toByteArray()
+    }
+
+    fun load(data: ByteArray, options: IonElementLoaderOptions = IonElementLoaderOptions {}): List<AnyElement> =
+        IonReaderBuilder.standard().build(data).use { loadAllElements(it, options).toList() }
+}
@@ -0,0 +1,47 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.benchmarks
+
+import com.amazon.ionelement.api.*
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.*
+
+/**
+ * Measures [hashElement] and [areElementsEqual] on wide and deep structs.
+ *
+ * Structs cache their hash codes, so each invocation uses structs that have just been loaded. This measures the cost
+ * of hashing or comparing a struct for the first time, which is what a lookup of a new key in a hash map pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public open class EquivalenceBenchmark {
+    @Param("wide", "deep")
+    @JvmField
+    public var shape: String = ""
+
+    private lateinit var data: ByteArray
+    private lateinit var left: AnyElement
+    private lateinit var right: AnyElement
+
+    @Setup(Level.Trial)
+    public fun setup() {
+        val struct = if (shape == "wide") BenchmarkData.wideStruct(1000) else BenchmarkData.deepStruct(100)
+        data = BenchmarkData.toBinary(listOf(struct))
+    }
+
+    @Setup(Level.Invocation)
+    public fun loadStructs() {
+        left = BenchmarkData.load(data).single()
+        right = BenchmarkData.load(data).single()
+    }
+
+    @Benchmark
+    public fun hashElement(): Int = hashElement(left)
+
+    @Benchmark
+    public fun areElementsEqual(): Boolean = areElementsEqual(left, right)
+}
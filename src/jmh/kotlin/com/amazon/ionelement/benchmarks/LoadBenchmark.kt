@@ -0,0 +1,49 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.benchmarks
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.corpus.CorpusOptions
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.*
+
+/** Measures [loadAllElements] on corpora generated with several [CorpusOptions.PROFILES]. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public open class LoadBenchmark {
+    @Param("records", "annotated", "deep", "series")
+    @JvmField
+    public var profile: String = ""
+
+    @Param("text", "binary")
+    @JvmField
+    public var format: String = ""
+
+    @Param("true", "false")
+    @JvmField
+    public var useRecursiveLoad: Boolean = false
+
+    @Param("false", "true")
+    @JvmField
+    public var includeLocationMeta: Boolean = false
+
+    private lateinit var data: ByteArray
+    private lateinit var options: IonElementLoaderOptions
+
+    @Setup
+    public fun setup() {
+        val corpus = BenchmarkData.corpus(profile, 1000)
+        data = if (format == "text") BenchmarkData.toText(corpus) else BenchmarkData.toBinary(corpus)
+        options = IonElementLoaderOptions {
+            useRecursiveLoad = this@LoadBenchmark.useRecursiveLoad
+            includeLocationMeta = this@LoadBenchmark.includeLocationMeta
+        }
+    }
+
+    @Benchmark
+    public fun loadAllElements(): List<AnyElement> = BenchmarkData.load(data, options)
+}
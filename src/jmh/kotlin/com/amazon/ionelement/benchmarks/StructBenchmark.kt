@@ -0,0 +1,67 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.benchmarks
+
+import com.amazon.ionelement.api.*
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+ * Measures looking up fields with [StructElement.get], and changing a field with [StructElement.mutableFields] and
+ * [StructElement.update].
+ *
+ * [getCold] looks up every field of a struct that has just been copied, so it includes building the struct's index of
+ * field names; [getWarm] looks up every field of a struct that has already been indexed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public open class StructBenchmark {
+    @Param("4", "16", "256")
+    @JvmField
+    public var fieldCount: Int = 0
+
+    private lateinit var struct: StructElement
+    private lateinit var coldStruct: StructElement
+    private lateinit var fieldNames: Array<String>
+
+    @Setup(Level.Trial)
+    public fun setup() {
+        struct = BenchmarkData.wideStruct(fieldCount)
+        fieldNames = Array(fieldCount) { "field$it" }
+        fieldNames.forEach { struct[it] }
+    }
+
+    @Setup(Level.Invocation)
+    public fun copyStruct() {
+        coldStruct = struct.copy()
+    }
+
+    @Benchmark
+    public fun getCold(blackhole: Blackhole) {
+        for (name in fieldNames) blackhole.consume(coldStruct[name])
+    }
+
+    @Benchmark
+    public fun getWarm(blackhole: Blackhole) {
+        for (name in fieldNames) blackhole.consume(struct[name])
+    }
+
+    @Benchmark
+    public fun mutableFields(): StructElement {
+        val fields = struct.mutableFields()
+        fields["field0"] = ionInt(1)
+        fields.add("added", ionInt(2))
+        return ionStructOf(fields)
+    }
+
+    @Benchmark
+    public fun update(): StructElement = struct.update {
+        set("field0", ionInt(1))
+        add("added", ionInt(2))
+    }
+}
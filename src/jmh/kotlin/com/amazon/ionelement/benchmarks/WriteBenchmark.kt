@@ -0,0 +1,39 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.benchmarks
+
+import com.amazon.ion.system.IonBinaryWriterBuilder
+import com.amazon.ion.system.IonTextWriterBuilder
+import com.amazon.ionelement.api.*
+import java.io.ByteArrayOutputStream
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.*
+
+/** Measures [IonElement.writeTo] on a stream of records. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public open class WriteBenchmark {
+    @Param("text", "binary")
+    @JvmField
+    public var format: String = ""
+
+    private lateinit var records: List<AnyElement>
+
+    @Setup
+    public fun setup() {
+        // Write loaded elements, since those are what applications usually write.
+        records = BenchmarkData.load(BenchmarkData.toBinary(BenchmarkData.corpus("records", 1000)))
+    }
+
+    @Benchmark
+    public fun writeTo(): ByteArray {
+        val out = ByteArrayOutputStream()
+        val writer = if (format == "text") IonTextWriterBuilder.standard().build(out) else IonBinaryWriterBuilder.standard().build(out)
+        writer.use { records.forEach { record -> record.writeTo(it) } }
+        return out.toByteArray()
+    }
+}
@@ -0,0 +1,34 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+@file:JvmName("ColumnarLists")
+package com.amazon.ionelement.api
+
+import com.amazon.ionelement.impl.ColumnarStructList
+import com.amazon.ionelement.impl.ListElementImpl
+import com.amazon.ionelement.impl.collections.*
+
+/**
+ * Returns a list of the values of the field named [fieldName] in each of this sequence's values, which must be structs.
+ * If a struct has more than one field named [fieldName], one of them is picked (see [StructElement.get]).
+ *
+ * For a list that was loaded with [IonElementLoaderOptions.useColumnarLists], this returns the stored column without
+ * creating the structs. A column of ints, floats, or bools is stored as a primitive array, so, for example,
+ * `list.column("cpu").toDoubleArray()` copies a single array.
+ *
+ * ```kotlin
+ * val rows = loadSingleElement(text, IonElementLoaderOptions { useColumnarLists = true }).asList()
+ * val averageCpu = rows.column("cpu").toDoubleArray().average()
+ * ```
+ *
+ * @throws IonElementException If one of the values is not a non-null struct, or does not have a field named
+ * [fieldName].
+ */
+public fun SeqElement.column(fieldName: String): ListElement {
+    val values = values
+    if (values is ColumnarStructList) {
+        val column = values.column(fieldName)
+        if (column != null) return ListElementImpl(column, EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
+    }
+    val column = values.map { it.asStruct()[fieldName] }
+    return ListElementImpl(column.toImmutableListUnsafe(), EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
+}
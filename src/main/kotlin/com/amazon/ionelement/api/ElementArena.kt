@@ -0,0 +1,72 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.api
+
+import com.amazon.ion.IonException
+import com.amazon.ion.IonReader
+import com.amazon.ion.system.IonReaderBuilder
+import com.amazon.ionelement.impl.ArenaDecoder
+import com.amazon.ionelement.impl.ArenaEncoder
+import com.amazon.ionelement.impl.EncodedArena
+
+/**
+ * A sequence of elements that are stored in a single off-heap buffer (a direct [ByteBuffer]) rather than as one
+ * object per value.
+ *
+ * The elements of an arena are created on demand: each time that an element is read from [elements], or from one of
+ * the containers of an arena, a new, lightweight element is created from the buffer. A container that is read from
+ * an arena is backed by the arena, so reading the values of a container only creates the values that are read.
+ * Elements from an arena are equal to the equivalent loaded elements, but they never have any metas.
+ *
+ * This is intended for large, long-lived data sets: the data in an arena adds almost nothing to the work of the
+ * garbage collector, at the cost of more expensive reads. An arena is immutable, so it can be shared by any number of
+ * threads. Each distinct field name and annotation is stored once, and is also kept on the heap, so that reading it
+ * does not create a new [String]. An arena cannot be larger than 2 GiB; see [sizeInBytes].
+ *
+ * ```kotlin
+ * val arena = ElementArena.load(ionReader)
+ * val total = arena.elements.sumByDouble { it.asStruct()["price"].doubleValue }
+ * ```
+ */
+public class ElementArena private constructor(encoded: EncodedArena) {
+    public companion object {
+        /**
+         * Reads all elements remaining to be read from [ionReader] directly into a new arena, without creating an
+         * element for each value. Does not close [ionReader].
+         *
+         * Expects [ionReader] to be positioned *before* the first element to be read.
+         *
+         * @throws IonElementLoaderException If the data is not valid Ion.
+         * @throws IllegalArgumentException If the encoded elements would be larger than 2 GiB.
+         */
+        @JvmStatic
+        public fun load(ionReader: IonReader): ElementArena {
+            val encoded = try {
+                ArenaEncoder().encodeAll(ionReader)
+            } catch (e: IonException) {
+                throw IonElementLoaderException(
+                    location = null,
+                    description = "IonException occurred, likely due to malformed Ion data (see cause)",
+                    cause = e
+                )
+            }
+            return ElementArena(encoded)
+        }
+
+        /**
+         * Reads all elements in [ionText] into a new arena.
+         *
+         * @throws IonElementLoaderException If [ionText] is not valid Ion.
+         */
+        @JvmStatic
+        public fun load(ionText: String): ElementArena = IonReaderBuilder.standard().build(ionText).use(::load)
+    }
+
+    /** The top-level elements of this arena. */
+    public val elements: List<AnyElement> = ArenaDecoder(encoded.buffer, encoded.names).seqValuesAt(encoded.rootTableOffset)
+
+    /** The number of bytes of off-heap memory used by this arena. */
+    public val sizeInBytes: Int = encoded.buffer.capacity()
+
+    override fun toString(): String = "ElementArena(elements=${elements.size}, sizeInBytes=$sizeInBytes)"
+}
@@ -0,0 +1,126 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+@file:JvmName("ElementDiffs")
+package com.amazon.ionelement.api
+
+import com.amazon.ionelement.impl.applyEdit
+import com.amazon.ionelement.impl.diffTrees
+
+/**
+ * One step of the path from the root of an element tree to one of its descendants. See [ElementEdit.path].
+ */
+public sealed class PathSegment {
+    /**
+     * The field of a struct that is the [occurrence]th (starting from 0) field with the given [name], in field order.
+     *
+     * The occurrence distinguishes between fields with the same name. For a struct without repeated field names, it is
+     * always 0.
+     */
+    public class Field(public val name: String, public val occurrence: Int) : PathSegment() {
+        init {
+            require(occurrence >= 0) { "occurrence must be >= 0; was $occurrence" }
+        }
+
+        override fun equals(other: Any?): Boolean =
+            other is Field && name == other.name && occurrence == other.occurrence
+
+        override fun hashCode(): Int = name.hashCode() * 31 + occurrence
+
+        override fun toString(): String = if (occurrence == 0) ".$name" else ".$name($occurrence)"
+    }
+
+    /** The value at [index] of a list or sexp. */
+    public class Index(public val index: Int) : PathSegment() {
+        init {
+            require(index >= 0) { "index must be >= 0; was $index" }
+        }
+
+        override fun equals(other: Any?): Boolean = other is Index && index == other.index
+
+        override fun hashCode(): Int = index
+
+        override fun toString(): String = "[$index]"
+    }
+}
+
+/**
+ * A change to an element tree, as produced by [diffElements] and applied by [applyEdits].
+ *
+ * Edits are applied in order, and each edit's [path] refers to the tree as it is after the edits before it have been
+ * applied.
+ */
+public sealed class ElementEdit {
+    /** The path from the root of the tree to the added, removed, or changed element. */
+    public abstract val path: List<PathSegment>
+
+    /**
+     * Adds [value] at [path].
+     *
+     * If the last segment of [path] is an [PathSegment.Index], [value] is inserted into the list or sexp at that
+     * index. If it is a [PathSegment.Field], [value] is added as the last field of the struct, and the segment's
+     * occurrence must be the number of fields with that name that the struct already has.
+     */
+    public class Added(override val path: List<PathSegment>, public val value: AnyElement) : ElementEdit() {
+        init {
+            require(path.isNotEmpty()) { "The path of an added element cannot be empty" }
+        }
+
+        override fun equals(other: Any?): Boolean = other is Added && path == other.path && value == other.value
+        override fun hashCode(): Int = path.hashCode() * 31 + value.hashCode()
+        override fun toString(): String = "Added(${pathToString(path)}: $value)"
+    }
+
+    /** Removes [oldValue] from [path]. */
+    public class Removed(override val path: List<PathSegment>, public val oldValue: AnyElement) : ElementEdit() {
+        init {
+            require(path.isNotEmpty()) { "The path of a removed element cannot be empty" }
+        }
+
+        override fun equals(other: Any?): Boolean = other is Removed && path == other.path && oldValue == other.oldValue
+        override fun hashCode(): Int = path.hashCode() * 31 + oldValue.hashCode()
+        override fun toString(): String = "Removed(${pathToString(path)}: $oldValue)"
+    }
+
+    /** Replaces [oldValue] at [path] with [newValue]. If [path] is empty, the whole tree is replaced. */
+    public class Changed(
+        override val path: List<PathSegment>,
+        public val oldValue: AnyElement,
+        public val newValue: AnyElement
+    ) : ElementEdit() {
+        override fun equals(other: Any?): Boolean =
+            other is Changed && path == other.path && oldValue == other.oldValue && newValue == other.newValue
+
+        override fun hashCode(): Int = (path.hashCode() * 31 + oldValue.hashCode()) * 31 + newValue.hashCode()
+        override fun toString(): String = "Changed(${pathToString(path)}: $oldValue -> $newValue)"
+    }
+}
+
+private fun pathToString(path: List<PathSegment>) = path.joinToString("", prefix = "$")
+
+/**
+ * Returns the edits that transform [old] into [new], i.e. `old.applyEdits(diffElements(old, new)) == new`.
+ *
+ * Struct fields, list elements, and sexp elements that were added or removed are reported as [ElementEdit.Added] and
+ * [ElementEdit.Removed]. A container with the same type and annotations in [old] and [new] is compared recursively;
+ * any other difference is reported as [ElementEdit.Changed]. The order of fields within a struct is not significant,
+ * and fields with the same name are matched by value, so moving or duplicating fields produces as few edits as
+ * possible. Within a list or sexp, the common prefix and suffix are skipped, and the remaining elements are compared
+ * by position. Metas are not compared.
+ *
+ * Subtrees are compared using [fingerprintElement], which is cached by containers, so identical subtrees are skipped
+ * without being traversed.
+ */
+public fun diffElements(old: IonElement, new: IonElement): List<ElementEdit> =
+    diffTrees(old.asAnyElement(), new.asAnyElement())
+
+/**
+ * Returns a copy of this element tree with [edits] applied in order.
+ *
+ * Only the containers along the path to each edit are copied; annotations and metas of the copied containers are
+ * preserved.
+ *
+ * @throws IllegalArgumentException If the path of an edit does not exist, or if an edit's old value is not equal to the
+ * value at its path.
+ */
+public fun IonElement.applyEdits(edits: Iterable<ElementEdit>): AnyElement =
+    edits.fold(asAnyElement()) { element, edit -> element.applyEdit(edit) }
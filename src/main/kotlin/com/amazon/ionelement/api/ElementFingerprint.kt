@@ -0,0 +1,169 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+@file:JvmName("ElementFingerprints")
+package com.amazon.ionelement.api
+
+import com.amazon.ionelement.api.ElementType.*
+import com.amazon.ionelement.impl.FingerprintCache
+import com.amazon.ionelement.impl.Murmur3Hasher
+import com.amazon.ionelement.impl.asCompactTimestampOrNull
+
+/**
+ * A 128-bit fingerprint of the content of an [IonElement]. See [fingerprintElement].
+ *
+ * Fingerprints are values—two fingerprints are equal if their [high] and [low] bits are equal—and can be persisted
+ * using [high] and [low] or [toString], and restored using the constructor or [parse].
+ */
+public class ElementFingerprint(
+    /** The high 64 bits of this fingerprint. */
+    public val high: Long,
+    /** The low 64 bits of this fingerprint. */
+    public val low: Long
+) {
+    public companion object {
+        /**
+         * Parses a fingerprint from the result of [ElementFingerprint.toString].
+         *
+         * @throws IllegalArgumentException If [text] is not 32 hexadecimal digits.
+         */
+        @JvmStatic
+        public fun parse(text: String): ElementFingerprint {
+            require(text.length == 32 && text.all { Character.digit(it, 16) >= 0 }) {
+                "Not a valid element fingerprint: '$text'"
+            }
+            return ElementFingerprint(
+                java.lang.Long.parseUnsignedLong(text.substring(0, 16), 16),
+                java.lang.Long.parseUnsignedLong(text.substring(16), 16)
+            )
+        }
+    }
+
+    override fun equals(other: Any?): Boolean =
+        other is ElementFingerprint && high == other.high && low == other.low
+
+    override fun hashCode(): Int = (high xor low).hashCode()
+
+    /** Returns this fingerprint as 32 lowercase hexadecimal digits. */
+    override fun toString(): String = hex(high) + hex(low)
+
+    private fun hex(bits: Long) = java.lang.Long.toHexString(bits).padStart(16, '0')
+}
+
+/**
+ * Calculates a 128-bit fingerprint of the content of an [IonElement].
+ *
+ * Unlike [hashElement], the fingerprint is stable: it depends only on the content of the element and will not change
+ * from one release to another, so it may be persisted or compared between processes. Two elements that are equal
+ * according to [areElementsEqual] always have the same fingerprint, and (with overwhelming probability) elements that
+ * are not equal have different fingerprints. Metas are not included, and the order of the fields of a struct is not
+ * significant.
+ *
+ * The fingerprint is the 128-bit x64 MurmurHash3 of a canonical encoding of the element's type, annotations, and value.
+ * The value of a container is encoded using the fingerprints of its children, which are cached by the containers that
+ * are created by this library, so the fingerprint of a container that shares children with another container (e.g.
+ * after [StructElement.withField]) can be calculated without revisiting the shared children.
+ */
+public fun fingerprintElement(ionElement: IonElement): ElementFingerprint {
+    val element = ionElement.asAnyElement()
+    if (element is FingerprintCache) {
+        element.cachedFingerprint?.let { return it }
+    }
+    val fingerprint = calculateFingerprint(element)
+    if (element is FingerprintCache) {
+        element.cachedFingerprint = fingerprint
+    }
+    return fingerprint
+}
+
+private fun calculateFingerprint(element: AnyElement): ElementFingerprint {
+    val hasher = Murmur3Hasher()
+    hasher.putByte(typeCode(element.type))
+    hasher.putInt(element.annotations.size)
+    element.annotations.forEach { hasher.putString(it) }
+    hasher.putBoolean(element.isNull)
+    if (!element.isNull) {
+        // Matching an enum rather than a type allows the Kotlin compiler
+        // to use a tableswitch instead of a chain of if/else comparisons.
+        when (element.type) {
+            BOOL -> hasher.putBoolean(element.booleanValue)
+            INT -> when (element.integerSize) {
+                IntElementSize.LONG -> {
+                    hasher.putByte(0)
+                    hasher.putLong(element.longValue)
+                }
+                IntElementSize.BIG_INTEGER -> {
+                    hasher.putByte(1)
+                    hasher.putBytes(element.bigIntegerValue.toByteArray())
+                }
+            }
+            // doubleToLongBits() distinguishes between 0e0 and -0e0 and has a single representation of nan.
+            FLOAT -> hasher.putLong(java.lang.Double.doubleToLongBits(element.doubleValue))
+            DECIMAL -> {
+                val decimal = element.decimalValue
+                hasher.putBoolean(decimal.isNegativeZero)
+                hasher.putInt(decimal.scale())
+                hasher.putBytes(decimal.unscaledValue().toByteArray())
+            }
+            // A timestamp that can be stored as a CompactTimestampElementImpl is encoded using its packed fields, which
+            // include its precision, local offset, and number of fraction digits. Any other timestamp is encoded using
+            // its canonical text, which includes the same things.
+            TIMESTAMP -> {
+                val compact = element.asCompactTimestampOrNull()
+                if (compact != null) {
+                    hasher.putByte(0)
+                    hasher.putLong(compact.fields)
+                    hasher.putInt(compact.nanos)
+                } else {
+                    hasher.putByte(1)
+                    hasher.putString(element.timestampValue.toString())
+                }
+            }
+            STRING, SYMBOL -> hasher.putString(element.textValue)
+            BLOB, CLOB -> hasher.putBytes(element.bytesValue)
+            LIST, SEXP -> {
+                val values = element.seqValues
+                hasher.putInt(values.size)
+                values.forEach { hasher.putFingerprint(fingerprintElement(it)) }
+            }
+            STRUCT -> {
+                // The fingerprints of the fields are sorted so that the order of the fields is not significant.
+                val fields = element.structFields
+                hasher.putInt(fields.size)
+                fields.map { fingerprintField(it) }
+                    .sortedWith(compareBy<ElementFingerprint> { it.high }.thenBy { it.low })
+                    .forEach { hasher.putFingerprint(it) }
+            }
+            NULL -> TODO("Unreachable")
+        }
+    }
+    return hasher.finish()
+}
+
+private fun fingerprintField(field: StructField): ElementFingerprint {
+    val hasher = Murmur3Hasher()
+    hasher.putString(field.name)
+    hasher.putFingerprint(fingerprintElement(field.value))
+    return hasher.finish()
+}
+
+private fun Murmur3Hasher.putFingerprint(fingerprint: ElementFingerprint) {
+    putLong(fingerprint.high)
+    putLong(fingerprint.low)
+}
+
+/** The type codes of the Ion binary encoding, which are part of the fingerprint and so must never change. */
+private fun typeCode(type: ElementType): Int = when (type) {
+    NULL -> 0
+    BOOL -> 1
+    INT -> 2
+    FLOAT -> 4
+    DECIMAL -> 5
+    TIMESTAMP -> 6
+    SYMBOL -> 7
+    STRING -> 8
+    CLOB -> 9
+    BLOB -> 10
+    LIST -> 11
+    SEXP -> 12
+    STRUCT -> 13
+}
@@ -0,0 +1,185 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+@file:JvmName("ElementOrdering")
+package com.amazon.ionelement.api
+
+import com.amazon.ionelement.api.ElementType.*
+import com.amazon.ionelement.impl.CompactDecimalElementImpl
+
+/**
+ * Compares two [IonElement]s according to a canonical total order.
+ *
+ * This order is consistent with [areElementsEqual]—i.e. `compareElements(a, b) == 0` if and only if `a == b`—so
+ * elements can be used as keys of sorted collections such as [java.util.TreeMap]. Metas are not considered.
+ *
+ * Elements are ordered first by [ElementType] (in declaration order), then by value, then by annotations. Within a
+ * type, a typed null comes before any other value. Values are ordered as follows:
+ *
+ * - `bool`: `false` before `true`.
+ * - `int`: by numeric value.
+ * - `float`: as by [Double.compareTo], so `-0e0` comes before `0e0`, and `nan` comes after all other values.
+ * - `decimal`: by numeric value, then negative zero before positive zero, then by ascending scale (`1.0` before
+ *   `1.00`).
+ * - `timestamp`: by point in time, then by ascending precision, then by local offset (unknown offset first), then by
+ *   the scale of the fractional seconds.
+ * - `string` and `symbol`: by Unicode code point, which is the same as the order of their UTF-8 encodings.
+ * - `blob` and `clob`: by unsigned byte, with a prefix before any longer value.
+ * - `list` and `sexp`: lexicographically by element, with a prefix before any longer value.
+ * - `struct`: by number of fields, then as the lexicographic order of the fields of each struct when sorted by
+ *   [compareFields], so the order of the fields within a struct is not significant.
+ *
+ * Annotations are compared lexicographically by code point, with a prefix before any longer list of annotations.
+ *
+ * Comparing two scalars does not allocate. Comparing two structs with the same number of fields and the same least
+ * field (by [compareFields]) must sort their fields. The result of this function may change from one release to
+ * another—do not persist anything that depends on it.
+ */
+public fun compareElements(left: IonElement, right: IonElement): Int {
+    val l = left.asAnyElement()
+    val r = right.asAnyElement()
+    if (l === r) return 0
+    val typeAndValue = compareTypeAndValue(l, r)
+    if (typeAndValue != 0) return typeAndValue
+    return compareLexicographically(l.annotations, r.annotations) { a, b -> compareText(a, b) }
+}
+
+/**
+ * Compares two [StructField]s by name (as by [compareElements] for strings) and then by value.
+ *
+ * This order is consistent with [areFieldsEqual].
+ */
+public fun compareFields(left: StructField, right: StructField): Int {
+    val names = compareText(left.name, right.name)
+    return if (names != 0) names else compareElements(left.value, right.value)
+}
+
+/** Returns a [Comparator] that orders [IonElement]s as by [compareElements]. */
+public fun elementComparator(): Comparator<IonElement> = ElementComparator
+
+private object ElementComparator : Comparator<IonElement> {
+    override fun compare(o1: IonElement, o2: IonElement): Int = compareElements(o1, o2)
+}
+
+private val FIELD_COMPARATOR = Comparator<StructField> { a, b -> compareFields(a, b) }
+
+private fun compareTypeAndValue(l: AnyElement, r: AnyElement): Int {
+    val type = l.type
+    if (type != r.type) return type.compareTo(r.type)
+    if (l.isNull || r.isNull) return if (l.isNull == r.isNull) 0 else if (l.isNull) -1 else 1
+
+    // Matching an enum rather than a type allows the Kotlin compiler
+    // to use a tableswitch instead of a chain of if/else comparisons.
+    return when (type) {
+        BOOL -> l.booleanValue.compareTo(r.booleanValue)
+        INT -> compareInts(l, r)
+        FLOAT -> l.doubleValue.compareTo(r.doubleValue)
+        DECIMAL -> {
+            if (l is CompactDecimalElementImpl && r is CompactDecimalElementImpl) {
+                // Neither can be negative zero
+                val values = CompactDecimalElementImpl.compareValuesOrNull(l, r)
+                if (values != null) return if (values != 0) values else l.scale.compareTo(r.scale)
+            }
+            val ld = l.decimalValue
+            val rd = r.decimalValue
+            val values = ld.compareTo(rd)
+            when {
+                values != 0 -> values
+                ld.isNegativeZero != rd.isNegativeZero -> if (ld.isNegativeZero) -1 else 1
+                else -> ld.scale().compareTo(rd.scale())
+            }
+        }
+        TIMESTAMP -> {
+            // Comparing epochMillis first avoids creating the Timestamps of most loaded timestamps. It is rounded down,
+            // so it only orders timestamps whose instants differ by enough.
+            val millis = l.asTimestamp().epochMillis.compareTo(r.asTimestamp().epochMillis)
+            if (millis != 0) return millis
+            val lt = l.timestampValue
+            val rt = r.timestampValue
+            val instants = lt.compareTo(rt)
+            val lOffset: Int? = lt.localOffset
+            val rOffset: Int? = rt.localOffset
+            when {
+                instants != 0 -> instants
+                lt.precision != rt.precision -> lt.precision.compareTo(rt.precision)
+                lOffset != rOffset -> when {
+                    lOffset == null -> -1
+                    rOffset == null -> 1
+                    else -> lOffset.compareTo(rOffset)
+                }
+                else -> lt.decimalSecond.scale().compareTo(rt.decimalSecond.scale())
+            }
+        }
+        STRING, SYMBOL -> compareText(l.textValue, r.textValue)
+        BLOB, CLOB -> compareBytes(l.bytesValue, r.bytesValue)
+        LIST, SEXP -> compareLexicographically(l.seqValues, r.seqValues) { a, b -> compareElements(a, b) }
+        STRUCT -> compareStructs(l.structFields, r.structFields)
+        NULL -> TODO("Unreachable")
+    }
+}
+
+private fun compareStructs(lFields: Collection<StructField>, rFields: Collection<StructField>): Int {
+    val sizes = lFields.size.compareTo(rFields.size)
+    if (sizes != 0 || lFields.isEmpty()) return sizes
+    // Most structs that differ already differ in their least field, which can be found without sorting.
+    val leastFields = compareFields(leastField(lFields), leastField(rFields))
+    if (leastFields != 0 || lFields.size == 1) return leastFields
+    return compareLexicographically(lFields.sortedWith(FIELD_COMPARATOR), rFields.sortedWith(FIELD_COMPARATOR)) { a, b ->
+        compareFields(a, b)
+    }
+}
+
+private fun leastField(fields: Collection<StructField>): StructField {
+    val iterator = fields.iterator()
+    var least = iterator.next()
+    while (iterator.hasNext()) {
+        val field = iterator.next()
+        if (compareFields(field, least) < 0) least = field
+    }
+    return least
+}
+
+private fun compareInts(l: AnyElement, r: AnyElement): Int {
+    val lIsLong = l.integerSize == IntElementSize.LONG
+    val rIsLong = r.integerSize == IntElementSize.LONG
+    return when {
+        lIsLong && rIsLong -> l.longValue.compareTo(r.longValue)
+        // An int that does not fit in a Long is either less than or greater than every Long.
+        lIsLong -> -r.bigIntegerValue.signum()
+        rIsLong -> l.bigIntegerValue.signum()
+        else -> l.bigIntegerValue.compareTo(r.bigIntegerValue)
+    }
+}
+
+/** Compares two strings by Unicode code point without decoding them. */
+private fun compareText(left: String, right: String): Int {
+    val length = minOf(left.length, right.length)
+    for (i in 0 until length) {
+        val a = left[i]
+        val b = right[i]
+        if (a != b) {
+            // Surrogates (which encode code points above U+FFFF) must sort after all other chars.
+            val aIsSurrogate = Character.isSurrogate(a)
+            return if (aIsSurrogate == Character.isSurrogate(b)) a.compareTo(b) else if (aIsSurrogate) 1 else -1
+        }
+    }
+    return left.length.compareTo(right.length)
+}
+
+private fun compareBytes(left: ByteArrayView, right: ByteArrayView): Int {
+    val length = minOf(left.size(), right.size())
+    for (i in 0 until length) {
+        val a = left[i].toInt() and 0xFF
+        val b = right[i].toInt() and 0xFF
+        if (a != b) return a.compareTo(b)
+    }
+    return left.size().compareTo(right.size())
+}
+
+private inline fun <T> compareLexicographically(left: List<T>, right: List<T>, compare: (T, T) -> Int): Int {
+    val length = minOf(left.size, right.size)
+    for (i in 0 until length) {
+        val result = compare(left[i], right[i])
+        if (result != 0) return result
+    }
+    return left.size.compareTo(right.size)
+}
@@ -0,0 +1,51 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+@file:JvmName("ElementTransformers")
+package com.amazon.ionelement.api
+
+import com.amazon.ionelement.impl._withoutAnnotationsDeep
+import com.amazon.ionelement.impl._withoutMetasDeep
+import com.amazon.ionelement.impl.transformTree
+
+/**
+ * Computes a replacement for each element in a tree of elements. See [transform].
+ */
+public fun interface ElementTransformer {
+    /**
+     * Returns the replacement for [element], or [element] itself if it should not be changed.
+     *
+     * If [element] is a container, its children have already been transformed, i.e. [element] contains the
+     * replacements of its children.
+     *
+     * @param fieldName The name of the field that contains [element], or null if [element] is not a struct field.
+     */
+    public fun transform(fieldName: String?, element: AnyElement): IonElement
+}
+
+/**
+ * Creates a copy of this element tree in which every element has been replaced by the result of [transformer].
+ *
+ * Elements are visited in post-order (children before their containers). If [transformer] returns the same instance
+ * for an element and all of its descendants, that element is reused rather than copied, so only containers along the
+ * paths to replaced elements are allocated. The tree is traversed iteratively, so deeply nested trees cannot cause a
+ * [StackOverflowError].
+ *
+ * Annotations and metas of the rebuilt containers are preserved.
+ */
+public fun IonElement.transform(transformer: ElementTransformer): AnyElement =
+    asAnyElement().transformTree(transformer)
+
+/**
+ * Creates a copy of this element tree without any metas, i.e. the deep equivalent of [IonElement.withoutMetas].
+ *
+ * Subtrees that already have no metas are reused rather than copied. See [transform].
+ */
+public fun IonElement.withoutMetasDeep(): AnyElement = asAnyElement()._withoutMetasDeep()
+
+/**
+ * Creates a copy of this element tree without any annotations, i.e. the deep equivalent of
+ * [IonElement.withoutAnnotations].
+ *
+ * Subtrees that already have no annotations are reused rather than copied. See [transform].
+ */
+public fun IonElement.withoutAnnotationsDeep(): AnyElement = asAnyElement()._withoutAnnotationsDeep()
@@ -0,0 +1,146 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.api
+
+/**
+ * Visits every element in a tree of elements, in document order (pre-order for [enterContainer], post-order for
+ * [exitContainer]).
+ *
+ * Subclasses override the callbacks that they are interested in and call [walk]. For example, to count the elements
+ * at each depth:
+ * ```kotlin
+ * val counter = object : ElementWalker() {
+ *     val counts = IntArray(100)
+ *     override fun visit(fieldName: String?, element: AnyElement) { counts[depth]++ }
+ *     override fun enterContainer(fieldName: String?, container: AnyElement): Boolean { counts[depth]++; return true }
+ * }
+ * counter.walk(element)
+ * ```
+ *
+ * The tree is traversed using an explicit stack (rather than recursion), so deeply nested trees cannot cause a
+ * [StackOverflowError]. Children are read by index from the containers' backing lists, and the stack is reused by
+ * subsequent calls to [walk], so the walker itself only allocates when its stack grows the first time that a deeper
+ * tree is walked. Reading the children may still allocate, depending on how the tree is stored: lists of only
+ * un-annotated ints, floats, or bools that were loaded by an [IonElementLoader] (which stores them as primitive
+ * arrays), lists loaded with [IonElementLoaderOptions.useColumnarLists], and elements read from an [ElementArena]
+ * create a new element for each child every time it is read, and views of [IonValue][com.amazon.ion.IonValue]s create
+ * each child view the first time it is read. Instances are not thread-safe.
+ */
+public abstract class ElementWalker {
+    // The stack of containers that are currently being walked. These are parallel arrays rather than an array of frame
+    // objects so that pushing a container does not allocate.
+    private var containers = arrayOfNulls<AnyElement>(INITIAL_DEPTH)
+    private var containerFieldNames = arrayOfNulls<String>(INITIAL_DEPTH)
+    private var children = arrayOfNulls<List<*>>(INITIAL_DEPTH)
+    private var positions = IntArray(INITIAL_DEPTH)
+    private var stackSize = 0
+    private var walking = false
+
+    /**
+     * The number of containers that contain the element that is currently being visited, entered, or exited.
+     *
+     * This is 0 for the root of the tree.
+     */
+    protected val depth: Int get() = stackSize
+
+    /**
+     * Called for each element that is not a non-null container (i.e. each scalar, and each `null.list`, `null.sexp`,
+     * and `null.struct`).
+     *
+     * @param fieldName The name of the field that contains [element], or null if [element] is not a struct field.
+     */
+    protected open fun visit(fieldName: String?, element: AnyElement) {}
+
+    /**
+     * Called for each non-null list, sexp, or struct before its children are visited.
+     *
+     * @param fieldName The name of the field that contains [container], or null if it is not a struct field.
+     * @return true to visit the children of [container] (and then call [exitContainer]), or false to skip them.
+     */
+    protected open fun enterContainer(fieldName: String?, container: AnyElement): Boolean = true
+
+    /**
+     * Called for each container after its children have been visited, if [enterContainer] returned true.
+     *
+     * @param fieldName The name of the field that contains [container], or null if it is not a struct field.
+     */
+    protected open fun exitContainer(fieldName: String?, container: AnyElement) {}
+
+    /**
+     * Walks the tree rooted at [element].
+     *
+     * @throws IllegalStateException If called from one of the callbacks of this walker.
+     */
+    public fun walk(element: IonElement) {
+        check(!walking) { "ElementWalker.walk() cannot be called while a walk is in progress" }
+        walking = true
+        try {
+            walkTree(element.asAnyElement())
+        } finally {
+            // Don't retain the walked elements.
+            containers.fill(null, 0, stackSize)
+            children.fill(null, 0, stackSize)
+            containerFieldNames.fill(null, 0, stackSize)
+            stackSize = 0
+            walking = false
+        }
+    }
+
+    private fun walkTree(root: AnyElement) {
+        if (!enter(null, root)) return
+        while (stackSize > 0) {
+            val top = stackSize - 1
+            val childList = children[top]!!
+            val position = positions[top]
+            if (position == childList.size) {
+                val container = containers[top]!!
+                val fieldName = containerFieldNames[top]
+                containers[top] = null
+                children[top] = null
+                containerFieldNames[top] = null
+                stackSize--
+                exitContainer(fieldName, container)
+            } else {
+                positions[top] = position + 1
+                val child = childList[position]
+                if (child is StructField) {
+                    enter(child.name, child.value)
+                } else {
+                    enter(null, child as AnyElement)
+                }
+            }
+        }
+    }
+
+    /** Visits [element], or enters it and pushes it onto the stack if it is a container. Returns true if pushed. */
+    private fun enter(fieldName: String?, element: AnyElement): Boolean {
+        if (element.isNull || !element.type.isContainer) {
+            visit(fieldName, element)
+            return false
+        }
+        if (!enterContainer(fieldName, element)) return false
+        if (stackSize == containers.size) grow()
+        containers[stackSize] = element
+        containerFieldNames[stackSize] = fieldName
+        children[stackSize] = if (element.type == ElementType.STRUCT) {
+            element.structFields.let { it as? List<StructField> ?: it.toList() }
+        } else {
+            element.seqValues
+        }
+        positions[stackSize] = 0
+        stackSize++
+        return true
+    }
+
+    private fun grow() {
+        val newSize = containers.size * 2
+        containers = containers.copyOf(newSize)
+        containerFieldNames = containerFieldNames.copyOf(newSize)
+        children = children.copyOf(newSize)
+        positions = positions.copyOf(newSize)
+    }
+
+    private companion object {
+        const val INITIAL_DEPTH = 16
+    }
+}
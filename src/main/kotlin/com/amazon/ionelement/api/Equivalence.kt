@@ -5,6 +5,10 @@ package com.amazon.ionelement.api
 
 import com.amazon.ion.Decimal
 import com.amazon.ionelement.api.ElementType.*
+import com.amazon.ionelement.impl.CompactDecimalElementImpl
+import com.amazon.ionelement.impl.CompactTimestampElementImpl
+import com.amazon.ionelement.impl.Utf8StringElementImpl
+import com.amazon.ionelement.impl.asCompactTimestampOrNull
 
 /**
  * Checks if two [IonElement]s are equal.
@@ -61,9 +65,25 @@ private fun AnyElement.isEquivalentTo(other: AnyElement): Boolean {
             // compareTo() distinguishes between 0.0 and -0.0 while `==` operator does not.
             FLOAT -> doubleValue.compareTo(other.doubleValue) == 0
             // `==` considers `0d0` and `-0d0` to be equivalent.  `Decimal.equals` does not.
-            DECIMAL -> Decimal.equals(decimalValue, other.decimalValue)
-            TIMESTAMP -> timestampValue == other.timestampValue
-            STRING -> stringValue == other.stringValue
+            DECIMAL -> if (this is CompactDecimalElementImpl && other is CompactDecimalElementImpl) {
+                // Neither can be negative zero, so this is the same as Decimal.equals
+                unscaledValue == other.unscaledValue && scale == other.scale
+            } else {
+                Decimal.equals(decimalValue, other.decimalValue)
+            }
+            TIMESTAMP -> if (this is CompactTimestampElementImpl && other is CompactTimestampElementImpl) {
+                // The packed fields include the precision, local offset, and number of fraction digits, so this is the
+                // same as Timestamp.equals
+                fields == other.fields && nanos == other.nanos
+            } else {
+                timestampValue == other.timestampValue
+            }
+            STRING -> if (this is Utf8StringElementImpl && other is Utf8StringElementImpl) {
+                // Both are valid UTF-8, which has exactly one encoding of each string
+                utf8.contentEquals(other.utf8)
+            } else {
+                stringValue == other.stringValue
+            }
             SYMBOL -> symbolValue == other.symbolValue
             BLOB -> blobValue == other.blobValue
             CLOB -> clobValue == other.clobValue
@@ -105,15 +125,22 @@ public fun hashElement(ionElement: IonElement): Int {
             }
             // Adding compareTo(0.0) causes 0e0 to have a different hash code than -0e0
             FLOAT -> element.doubleValue.compareTo(0.0).hashCode() * 31 + element.doubleValue.hashCode()
-            DECIMAL -> element.decimalValue.isNegativeZero.hashCode() * 31 + element.decimalValue.hashCode()
-            TIMESTAMP -> element.timestampValue.hashCode()
-            STRING -> element.textValue.hashCode()
+            DECIMAL -> if (element is CompactDecimalElementImpl) {
+                // A CompactDecimalElementImpl is never negative zero
+                false.hashCode() * 31 + element.decimalHashCode()
+            } else {
+                element.decimalValue.isNegativeZero.hashCode() * 31 + element.decimalValue.hashCode()
+            }
+            // Every timestamp that can be stored as a CompactTimestampElementImpl is hashed the same way as one, so
+            // that equivalent timestamps have the same hash code regardless of their implementation.
+            TIMESTAMP -> element.asCompactTimestampOrNull()?.timestampHashCode() ?: element.timestampValue.hashCode()
+            STRING -> if (element is Utf8StringElementImpl) element.textHashCode else element.textValue.hashCode()
             SYMBOL -> element.textValue.hashCode()
             BLOB -> element.bytesValue.hashCode()
             CLOB -> element.bytesValue.hashCode()
             LIST -> element.listValues.hashCode()
             SEXP -> element.sexpValues.hashCode()
-            STRUCT -> element.structFields.map { it.hashCode() }.sorted().hashCode()
+            STRUCT -> hashStructFields(element.structFields)
             NULL -> TODO("Unreachable")
         }
         element.type.hashCode() * 31 + valueHashCode
@@ -121,6 +148,32 @@ public fun hashElement(ionElement: IonElement): Int {
     return typeAndValueHashCode * 31 + element.annotations.hashCode()
 }
 
+/**
+ * Combines the hash codes of [fields] regardless of their order, without allocating. Each hash code is mixed before it
+ * is added, so that structs with the same field names and swapped values (such as `{a: 1, b: 2}` and `{a: 2, b: 1}`)
+ * do not collide.
+ */
+private fun hashStructFields(fields: Collection<StructField>): Int {
+    var hashCode = 0
+    if (fields is List<StructField>) {
+        // Indexing avoids allocating an iterator.
+        for (i in fields.indices) hashCode += mixHashCode(fields[i].hashCode())
+    } else {
+        for (field in fields) hashCode += mixHashCode(field.hashCode())
+    }
+    return hashCode
+}
+
+/** The finalization mix of 32-bit MurmurHash3, which spreads every bit of [hashCode] across the result. */
+private fun mixHashCode(hashCode: Int): Int {
+    var h = hashCode
+    h = h xor (h ushr 16)
+    h *= -0x7a143595 // 0x85ebca6b
+    h = h xor (h ushr 13)
+    h *= -0x3d4d51cb // 0xc2b2ae35
+    return h xor (h ushr 16)
+}
+
 /**
  * Calculates the hash code of a [StructField].
  *
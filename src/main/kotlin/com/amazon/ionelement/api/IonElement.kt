@@ -379,6 +379,32 @@ public interface SeqElement : ContainerElement {
     /** Narrows the return type of [ContainerElement.values] to [List<AnyElement>]. */
     override val values: List<AnyElement>
 
+    /**
+     * Creates a new copy of this sequence with [value] appended to the end.
+     *
+     * The new sequence shares its storage with this sequence, so repeatedly appending to a sequence is O(1) amortized
+     * rather than copying all the values each time. Annotations and metas are preserved.
+     */
+    public fun withAppended(value: IonElement): SeqElement
+
+    /**
+     * Creates a new copy of this sequence with the value at [index] replaced by [value].
+     *
+     * The new sequence shares its storage with this sequence. Annotations and metas are preserved.
+     *
+     * @throws IndexOutOfBoundsException If [index] is not a valid index of this sequence.
+     */
+    public fun withSet(index: Int, value: IonElement): SeqElement
+
+    /**
+     * Creates a sequence containing the values of this sequence from [fromIndex] (inclusive) to [toIndex] (exclusive).
+     *
+     * The values are not copied. Annotations and metas are preserved.
+     *
+     * @throws IndexOutOfBoundsException If [fromIndex] or [toIndex] are out of bounds.
+     */
+    public fun subList(fromIndex: Int, toIndex: Int): SeqElement
+
     override fun copy(annotations: List<String>, metas: MetaContainer): SeqElement
 
     override fun withAnnotations(vararg additionalAnnotations: String): SeqElement
@@ -394,6 +420,11 @@ public interface SeqElement : ContainerElement {
  * Includes no additional functionality over [SeqElement], but serves to provide additional type safety when
  * working with elements that must be Ion lists.
  *
+ * A list that is loaded by an [IonElementLoader] and contains only un-annotated, non-null ints that fit in a [Long],
+ * floats, or bools stores its values in a primitive array. Reading a value from [values] of such a list creates a new
+ * element every time, so the same element is never returned twice; use [toLongArray], [toDoubleArray], or
+ * [toBooleanArray] to read all the values without creating any elements.
+ *
  * #### Equivalence
  *
  * See the note about equivalence in the documentation for [IonElement].
@@ -401,6 +432,10 @@ public interface SeqElement : ContainerElement {
  * @see [IonElement]
  */
 public interface ListElement : SeqElement {
+    override fun withAppended(value: IonElement): ListElement
+    override fun withSet(index: Int, value: IonElement): ListElement
+    override fun subList(fromIndex: Int, toIndex: Int): ListElement
+
     override fun copy(annotations: List<String>, metas: MetaContainer): ListElement
 
     override fun withAnnotations(vararg additionalAnnotations: String): ListElement
@@ -424,6 +459,10 @@ public interface ListElement : SeqElement {
  * @see [IonElement]
  */
 public interface SexpElement : SeqElement {
+    override fun withAppended(value: IonElement): SexpElement
+    override fun withSet(index: Int, value: IonElement): SexpElement
+    override fun subList(fromIndex: Int, toIndex: Int): SexpElement
+
     override fun copy(annotations: List<String>, metas: MetaContainer): SexpElement
 
     override fun withAnnotations(vararg additionalAnnotations: String): SexpElement
@@ -509,6 +548,27 @@ public interface StructElement : ContainerElement {
      */
     public fun update(mutator: Consumer<MutableStructFields>): StructElement
 
+    /**
+     * Creates a new copy of this struct in which all fields named [fieldName] (if any) are replaced by a single field
+     * with the given [value].
+     *
+     * The first call on a struct that was not itself created by [withField], [withoutField], or [update] copies its
+     * fields into a persistent map, which costs O(n). The struct that is returned stores that map, so further calls on
+     * it (and on the structs derived from it) only cost O(log n) and share all unmodified fields. Annotations and metas
+     * are preserved.
+     */
+    public fun withField(fieldName: String, value: IonElement): StructElement
+
+    /**
+     * Creates a new copy of this struct without any fields named [fieldName].
+     *
+     * The first call on a struct that was not itself created by [withField], [withoutField], or [update] copies its
+     * fields into a persistent map, which costs O(n). The struct that is returned stores that map, so further calls on
+     * it (and on the structs derived from it) only cost O(log n) and share all unmodified fields. Annotations and metas
+     * are preserved.
+     */
+    public fun withoutField(fieldName: String): StructElement
+
     override fun copy(annotations: List<String>, metas: MetaContainer): StructElement
     override fun withAnnotations(vararg additionalAnnotations: String): StructElement
     override fun withAnnotations(additionalAnnotations: Iterable<String>): StructElement
@@ -71,6 +71,28 @@ public interface IonElementLoader {
      * consumption when processing large amounts of Ion data.
      */
     public fun loadCurrentElement(ionReader: IonReader): AnyElement
+
+    /**
+     * Reads the current element from the specified [IonReader] if it is a struct that matches [filter]. Does not close
+     * the [IonReader].
+     *
+     * Expects [ionReader] to be positioned *on* the element to be read--does not call [IonReader.next].
+     *
+     * The conditions of [filter] are evaluated while the struct is being read. As soon as a condition fails, the
+     * remaining fields are skipped without being loaded and this returns null. The fields before it have already been
+     * loaded, so filters on fields that come early in the struct save the most; see [StructFilter]. Values that are not
+     * structs are skipped without being loaded.
+     */
+    public fun loadCurrentElement(ionReader: IonReader, filter: StructFilter): StructElement?
+
+    /**
+     * Reads all structs remaining to be read from the [IonReader] that match [filter]. Other values are skipped.
+     *
+     * Expects [ionReader] to be positioned *before* the first element to be read.
+     *
+     * See [loadCurrentElement] for details about how [filter] is applied.
+     */
+    public fun loadAllElements(ionReader: IonReader, filter: StructFilter): Iterable<StructElement>
 }
 
 /**
@@ -92,6 +114,9 @@ public interface IonElementLoader {
 public class IonElementLoaderOptions internal constructor(
     val includeLocationMeta: Boolean,
     val useRecursiveLoad: Boolean,
+    val useColumnarLists: Boolean,
+    val retainUtf8Strings: Boolean,
+    val loaderMetrics: LoaderMetrics?,
 ) {
     /*
      * Intentionally not a KDoc comment.
@@ -106,12 +131,12 @@ public class IonElementLoaderOptions internal constructor(
 
     @Deprecated("Will be removed in the next major version. Replace with builder.")
     @JvmOverloads
-    constructor(includeLocationMeta: Boolean = false) : this(includeLocationMeta, DEFAULT.useRecursiveLoad)
+    constructor(includeLocationMeta: Boolean = false) : this(includeLocationMeta, DEFAULT.useRecursiveLoad, DEFAULT.useColumnarLists, DEFAULT.retainUtf8Strings, DEFAULT.loaderMetrics)
 
     @Deprecated("Will be removed in the next major version. Use toBuilder() to copy this to a new builder.")
     @JvmOverloads
     fun copy(includeLocationMeta: Boolean = this.includeLocationMeta): IonElementLoaderOptions {
-        return IonElementLoaderOptions(includeLocationMeta, useRecursiveLoad)
+        return IonElementLoaderOptions(includeLocationMeta, useRecursiveLoad, useColumnarLists, retainUtf8Strings, loaderMetrics)
     }
 
     @Deprecated("Will be removed in the next major version. Replace with getIncludeLocationMetadata().")
@@ -132,19 +157,28 @@ public class IonElementLoaderOptions internal constructor(
         if (this === other) return true
         if (other !is IonElementLoaderOptions) return false
         return includeLocationMeta == other.includeLocationMeta &&
-            useRecursiveLoad == other.useRecursiveLoad
+            useRecursiveLoad == other.useRecursiveLoad &&
+            useColumnarLists == other.useColumnarLists &&
+            retainUtf8Strings == other.retainUtf8Strings &&
+            loaderMetrics == other.loaderMetrics
     }
 
     override fun hashCode(): Int {
-        // We can treat all the boolean options as flags in a bitfield to guarantee no hash collisions.
+        // We can treat all the boolean options as flags in a bitfield to guarantee no hash collisions between them.
         return (if (includeLocationMeta) 1 else 0) +
-            (if (useRecursiveLoad) 2 else 0)
+            (if (useRecursiveLoad) 2 else 0) +
+            (if (useColumnarLists) 4 else 0) +
+            (if (retainUtf8Strings) 8 else 0) +
+            16 * loaderMetrics.hashCode()
     }
 
     override fun toString(): String {
         return "IonElementLoaderOptions(" +
             "includeLocationMeta=$includeLocationMeta," +
             "useRecursiveLoad=$useRecursiveLoad," +
+            "useColumnarLists=$useColumnarLists," +
+            "retainUtf8Strings=$retainUtf8Strings," +
+            "loaderMetrics=$loaderMetrics," +
             ")"
     }
 
@@ -153,6 +187,9 @@ public class IonElementLoaderOptions internal constructor(
         private val DEFAULT = IonElementLoaderOptions(
             includeLocationMeta = false,
             useRecursiveLoad = true,
+            useColumnarLists = false,
+            retainUtf8Strings = false,
+            loaderMetrics = null,
         )
 
         @JvmStatic
@@ -192,6 +229,48 @@ public class IonElementLoaderOptions internal constructor(
         var useRecursiveLoad: Boolean = startingValues.useRecursiveLoad
             @JvmSynthetic set
 
+        /**
+         * Set to `true` to cause the [IonElementLoader] to store lists of structs that have the same fields in a
+         * columnar representation: one array of values per field name, rather than one struct per row.
+         *
+         * This applies to lists that contain at least two non-null, un-annotated structs, where every struct has the
+         * same field names in the same order and no repeated field names. It does not apply when [includeLocationMeta]
+         * is `true`, since each struct would have its own location. The structs of such a list are created each time
+         * that they are read from [ListElement.values]. The values of a field can be read from all the structs without
+         * creating them by calling [column].
+         *
+         * This is `false` by default because reading the structs of a columnar list is slower and allocates.
+         */
+        var useColumnarLists: Boolean = startingValues.useColumnarLists
+            @JvmSynthetic set
+
+        /**
+         * Set to `true` to cause the [IonElementLoader] to store strings that are read from binary Ion as their UTF-8
+         * bytes, which are decoded the first time that [TextElement.textValue] is called, rather than as a [String].
+         *
+         * Comparing and hashing two such strings uses their bytes, so strings that are only compared, hashed, or used as
+         * map keys are never decoded. This only applies to [IonReader]s that provide their raw bytes through ion-java's
+         * deprecated `RawValueSpanProvider` facet, i.e. binary readers that were created from a byte array. Strings that
+         * are read from any other [IonReader] are decoded to a [String], exactly as if this were `false`. The bytes of
+         * each string are copied out of the reader's buffer. This does not apply to symbols, which binary Ion encodes as
+         * symbol IDs.
+         *
+         * This is `false` by default because reading the text of these strings is slower than reading a [String].
+         */
+        var retainUtf8Strings: Boolean = startingValues.retainUtf8Strings
+            @JvmSynthetic set
+
+        /**
+         * Set to a [LoaderMetrics] to cause the [IonElementLoader] to report metrics about each value that it loads: the
+         * number of elements of each type, the size of the text and lobs, the greatest depth, the number of containers
+         * that were loaded iteratively, and the time that it took.
+         *
+         * This is `null` by default. Collecting the metrics has a small cost for each element, which is not incurred
+         * when this is `null`.
+         */
+        var loaderMetrics: LoaderMetrics? = startingValues.loaderMetrics
+            @JvmSynthetic set
+
         /**
          * Set to `true` to cause `IonLocation` to be stored in the [IonElement.metas] collection of all elements loaded.
          *
@@ -212,7 +291,46 @@ public class IonElementLoaderOptions internal constructor(
          */
         fun withUseRecursiveLoad(value: Boolean) = apply { useRecursiveLoad = value }
 
-        fun build() = IonElementLoaderOptions(includeLocationMeta, useRecursiveLoad)
+        /**
+         * Set to `true` to cause the [IonElementLoader] to store lists of structs that have the same fields in a
+         * columnar representation: one array of values per field name, rather than one struct per row.
+         *
+         * This applies to lists that contain at least two non-null, un-annotated structs, where every struct has the
+         * same field names in the same order and no repeated field names. It does not apply when [includeLocationMeta]
+         * is `true`, since each struct would have its own location. The structs of such a list are created each time
+         * that they are read from [ListElement.values]. The values of a field can be read from all the structs without
+         * creating them by calling [column].
+         *
+         * This is `false` by default because reading the structs of a columnar list is slower and allocates.
+         */
+        fun withUseColumnarLists(value: Boolean) = apply { useColumnarLists = value }
+
+        /**
+         * Set to `true` to cause the [IonElementLoader] to store strings that are read from binary Ion as their UTF-8
+         * bytes, which are decoded the first time that [TextElement.textValue] is called, rather than as a [String].
+         *
+         * Comparing and hashing two such strings uses their bytes, so strings that are only compared, hashed, or used as
+         * map keys are never decoded. This only applies to [IonReader]s that provide their raw bytes through ion-java's
+         * deprecated `RawValueSpanProvider` facet, i.e. binary readers that were created from a byte array. Strings that
+         * are read from any other [IonReader] are decoded to a [String], exactly as if this were `false`. The bytes of
+         * each string are copied out of the reader's buffer. This does not apply to symbols, which binary Ion encodes as
+         * symbol IDs.
+         *
+         * This is `false` by default because reading the text of these strings is slower than reading a [String].
+         */
+        fun withRetainUtf8Strings(value: Boolean) = apply { retainUtf8Strings = value }
+
+        /**
+         * Set to a [LoaderMetrics] to cause the [IonElementLoader] to report metrics about each value that it loads: the
+         * number of elements of each type, the size of the text and lobs, the greatest depth, the number of containers
+         * that were loaded iteratively, and the time that it took.
+         *
+         * This is `null` by default. Collecting the metrics has a small cost for each element, which is not incurred
+         * when this is `null`.
+         */
+        fun withLoaderMetrics(value: LoaderMetrics?) = apply { loaderMetrics = value }
+
+        fun build() = IonElementLoaderOptions(includeLocationMeta, useRecursiveLoad, useColumnarLists, retainUtf8Strings, loaderMetrics)
     }
 }
 
@@ -245,3 +363,12 @@ public fun loadAllElements(ionReader: IonReader, options: IonElementLoaderOption
 @JvmOverloads
 public fun loadCurrentElement(ionReader: IonReader, options: IonElementLoaderOptions = IonElementLoaderOptions()): AnyElement =
     createIonElementLoader(options).loadCurrentElement(ionReader)
+
+/** Provides syntactically lighter method of invoking [IonElementLoader.loadAllElements] with a [StructFilter]. */
+@JvmOverloads
+public fun loadAllElements(
+    ionReader: IonReader,
+    filter: StructFilter,
+    options: IonElementLoaderOptions = IonElementLoaderOptions()
+): Iterable<StructElement> =
+    createIonElementLoader(options).loadAllElements(ionReader, filter)
@@ -2,6 +2,7 @@ package com.amazon.ionelement.api
 
 import com.amazon.ion.Decimal
 import com.amazon.ionelement.api.IntElementSize.*
+import com.amazon.ionelement.impl.CompactDecimalElementImpl
 import java.math.BigDecimal
 import java.math.BigInteger
 
@@ -203,23 +204,39 @@ public infix fun BigInteger.gte(other: IE): Boolean = this >= other.bigIntegerVa
 
 /* DecimalElement unary operators */
 @IonOperators
-public operator fun DE.unaryMinus(): DE = ionDecimal(Decimal.valueOf(-this.decimalValue), this.annotations, this.metas)
+public operator fun DE.unaryMinus(): DE =
+    if (this is CompactDecimalElementImpl) {
+        CompactDecimalElementImpl.negate(this)
+    } else {
+        ionDecimal(Decimal.valueOf(-this.decimalValue), this.annotations, this.metas)
+    }
+
 @IonOperators
-public operator fun DE.inc(): DE = ionDecimal(Decimal.valueOf(this.decimalValue.inc()), this.annotations, this.metas)
+public operator fun DE.inc(): DE =
+    (this as? CompactDecimalElementImpl)?.let { CompactDecimalElementImpl.addIntegerOrNull(it, 1) }
+        ?: ionDecimal(Decimal.valueOf(this.decimalValue.inc()), this.annotations, this.metas)
+
 @IonOperators
-public operator fun DE.dec(): DE = ionDecimal(Decimal.valueOf(this.decimalValue.dec()), this.annotations, this.metas)
+public operator fun DE.dec(): DE =
+    (this as? CompactDecimalElementImpl)?.let { CompactDecimalElementImpl.addIntegerOrNull(it, -1) }
+        ?: ionDecimal(Decimal.valueOf(this.decimalValue.dec()), this.annotations, this.metas)
 
 /* DecimalElement with DecimalElement operators */
 @IonOperators
-public infix fun DE.eq(other: DE): Boolean = this.decimalValue == other.decimalValue
+public infix fun DE.eq(other: DE): Boolean =
+    if (this is CompactDecimalElementImpl && other is CompactDecimalElementImpl) {
+        this.unscaledValue == other.unscaledValue && this.scale == other.scale
+    } else {
+        this.decimalValue == other.decimalValue
+    }
 @IonOperators
-public infix fun DE.lt(other: DE): Boolean = this.decimalValue < other.decimalValue
+public infix fun DE.lt(other: DE): Boolean = decimalCmp(this, other) < 0
 @IonOperators
-public infix fun DE.gt(other: DE): Boolean = this.decimalValue > other.decimalValue
+public infix fun DE.gt(other: DE): Boolean = decimalCmp(this, other) > 0
 @IonOperators
-public infix fun DE.lte(other: DE): Boolean = this.decimalValue <= other.decimalValue
+public infix fun DE.lte(other: DE): Boolean = decimalCmp(this, other) <= 0
 @IonOperators
-public infix fun DE.gte(other: DE): Boolean = this.decimalValue >= other.decimalValue
+public infix fun DE.gte(other: DE): Boolean = decimalCmp(this, other) >= 0
 
 /* DecimalElement with BigDecimal operators */
 @IonOperators
@@ -398,3 +415,10 @@ private fun intCmp(x: Long, y: IE): Int {
 }
 
 private fun intCmp(x: Int, y: IE) = intCmp(x.toLong(), y)
+
+private fun decimalCmp(x: DE, y: DE): Int {
+    if (x is CompactDecimalElementImpl && y is CompactDecimalElementImpl) {
+        CompactDecimalElementImpl.compareValuesOrNull(x, y)?.let { return it }
+    }
+    return x.decimalValue.compareTo(y.decimalValue)
+}
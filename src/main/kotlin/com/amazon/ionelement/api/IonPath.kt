@@ -0,0 +1,71 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.api
+
+import com.amazon.ion.IonReader
+import com.amazon.ionelement.impl.PathStep
+import com.amazon.ionelement.impl.evaluate
+import com.amazon.ionelement.impl.parsePath
+
+/**
+ * A compiled path expression that selects values from an Ion value.
+ *
+ * A path consists of an optional `$` (which represents the root value) followed by any number of steps:
+ *
+ * | Step            | Selects                                                                     |
+ * |-----------------|-----------------------------------------------------------------------------|
+ * | `.name`         | The values of all fields named `name` (ASCII letters, digits, `_`, and `$`).|
+ * | `['any name']`  | The same as `.name`, but allows any field name. Use `\` to escape `'`.      |
+ * | `[n]`           | The value at index `n` of a list or sexp.                                   |
+ * | `.*` or `[*]`   | All child values of a list, sexp, or struct.                                |
+ * | `..`            | Applies the following step to the current value and all of its descendants.|
+ * | `{annotation}`  | The current value, but only if it is annotated with `annotation`.           |
+ *
+ * Steps that do not apply to a value (e.g. `.name` applied to a list) select nothing. For example, `$.orders[*]..sku`
+ * selects all the `sku` fields at any depth in all the values of the `orders` field of the root value.
+ *
+ * Paths are compiled once using [compile] and may then be evaluated against any number of elements or readers.
+ * Instances are immutable and thread-safe.
+ */
+public class IonPath private constructor(
+    private val text: String,
+    private val steps: List<PathStep>
+) {
+    public companion object {
+        /**
+         * Compiles [path] into an [IonPath].
+         *
+         * @throws IllegalArgumentException If [path] is not a valid path.
+         */
+        @JvmStatic
+        public fun compile(path: String): IonPath = IonPath(path, parsePath(path))
+    }
+
+    /** Returns all values selected by this path in [element], in document order. */
+    public fun evaluate(element: IonElement): List<AnyElement> {
+        val results = ArrayList<AnyElement>()
+        steps.evaluate(0, element.asAnyElement(), results)
+        return results
+    }
+
+    /**
+     * Returns all values selected by this path in the current value of [ionReader], in document order.
+     *
+     * Expects [ionReader] to be positioned *on* the value to be evaluated--does not call [IonReader.next]. Only the
+     * selected values are loaded (using [loader]); all other values are skipped. After evaluation, the reader is still
+     * positioned on the same value, so the caller may call [IonReader.next] to continue.
+     *
+     * Recursive descent (`..`) must be able to visit a value more than once, so it loads the value it is applied to.
+     */
+    @JvmOverloads
+    public fun evaluateCurrent(ionReader: IonReader, loader: IonElementLoader = createIonElementLoader()): List<AnyElement> {
+        requireNotNull(ionReader.type) { "The IonReader is not positioned on a value." }
+        val results = ArrayList<AnyElement>()
+        steps.evaluate(0, ionReader, loader, results)
+        return results
+    }
+
+    override fun equals(other: Any?): Boolean = other is IonPath && text == other.text
+    override fun hashCode(): Int = text.hashCode()
+    override fun toString(): String = text
+}
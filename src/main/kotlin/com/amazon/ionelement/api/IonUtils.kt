@@ -16,39 +16,86 @@
 @file:JvmName("IonUtils")
 package com.amazon.ionelement.api
 
+import com.amazon.ion.IonContainer
+import com.amazon.ion.IonDatagram
+import com.amazon.ion.IonException
 import com.amazon.ion.IonValue
 import com.amazon.ion.ValueFactory
+import com.amazon.ionelement.impl.convertChildrenToElements
+import com.amazon.ionelement.impl.convertToElement
+import com.amazon.ionelement.impl.convertToIonValue
+import com.amazon.ionelement.impl.toElementView
 
 /**
  * Bridge function that converts from an immutable [IonElement] to a mutable [IonValue].
  *
  * New code that doesn't need to integrate with existing uses of the mutable DOM should not use this.
  *
+ * The returned [IonValue] is built directly from the element tree and is not contained by any [IonContainer], so it
+ * may be added to other [IonContainer] instances without needing to be `IonValue.clone()`'d.
+ *
  * @param factory A [ValueFactory] to use to create the new [IonValue] instances.  Note that any
  * [com.amazon.ion.IonSystem] instance maybe be used here, in addition to other implementations of [ValueFactory].
  */
-public fun IonElement.toIonValue(factory: ValueFactory): IonValue {
-    // We still have to use IonSystem under the covers for this to get an IonWriter that writes to a dummy list.
-    val dummyList = factory.newList()
-    dummyList.system.newWriter(dummyList).use { writer ->
-        this.writeTo(writer)
+public fun IonElement.toIonValue(factory: ValueFactory): IonValue =
+    this.asAnyElement().convertToIonValue(factory)
+
+/**
+ * Bridge function that converts from the mutable [IonValue] to an [AnyElement].
+ *
+ * New code that does not need to integrate with uses of the mutable DOM should not use this.
+ *
+ * This will fail for IonDatagram if the IonDatagram does not contain exactly one user value. To convert all the values
+ * in an [IonDatagram], use [toIonElements].
+ */
+public fun IonValue.toIonElement(): AnyElement {
+    if (this is IonDatagram) {
+        require(size != 0) { "The IonDatagram does not contain any values." }
+        require(size == 1) { "More than a single value was present in the specified IonDatagram." }
+        return handleIonException { this[0].convertToElement() }
     }
-    // .removeAt(0) below detaches the `IonValue` that was written above so that it may be added to other
-    // IonContainer instances without needing to be `IonValue.cloned()`'d.
-    return dummyList.removeAt(0)
+    return handleIonException { this.convertToElement() }
 }
 
 /**
- * Bridge function that converts from the mutable [IonValue] to an [AnyElement].
+ * Bridge function that converts all the user values in an [IonDatagram] to a [List] of [AnyElement].
  *
  * New code that does not need to integrate with uses of the mutable DOM should not use this.
+ */
+public fun IonDatagram.toIonElements(): List<AnyElement> =
+    handleIonException { this.convertChildrenToElements() }
+
+/**
+ * Bridge function that creates a read-only [AnyElement] view of [this] [IonValue] without copying it.
  *
- * This will fail for IonDatagram if the IonDatagram does not contain exactly one user value.
+ * Unlike [toIonElement], the [IonValue] tree is not traversed up front. Elements are only created for the values that
+ * are actually accessed, so this is suitable for code that is migrating away from the mutable DOM and only needs to
+ * read a small part of a large [IonValue].
+ *
+ * Since the returned element is backed by [this], the [IonValue] must be read-only (see [IonValue.makeReadOnly]).
+ * [IonDatagram] instances are not supported; use [toIonElements] instead.
  */
-public fun IonValue.toIonElement(): AnyElement =
-    this.system.newReader(this).use { reader ->
-        createIonElementLoader().loadSingleElement(reader)
+public fun IonValue.asIonElement(): AnyElement {
+    require(this !is IonDatagram) { "An IonDatagram cannot be viewed as a single element; use toIonElements() instead." }
+    require(isReadOnly) { "Only a read-only IonValue can be viewed as an element; call makeReadOnly() first." }
+    return handleIonException { this.toElementView() }
+}
+
+/**
+ * Catches an [IonException] (e.g. a symbol with unknown text) occurring in [block] and throws an
+ * [IonElementException], consistent with the exceptions thrown by [IonElementLoader].
+ */
+private inline fun <T> handleIonException(block: () -> T): T {
+    try {
+        return block()
+    } catch (e: IonException) {
+        throw IonElementException(
+            location = null,
+            description = "IonException occurred, likely due to an unsupported IonValue (see cause)",
+            cause = e
+        )
     }
+}
 
 /** Throws an [IonElementException], including the [IonLocation] (if available). */
 internal fun constraintError(blame: IonElement, description: String): Nothing {
@@ -0,0 +1,120 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.api
+
+import com.amazon.ionelement.impl.Utf8StringElementImpl
+
+/**
+ * Receives metrics about each value that an [IonElementLoader] loads, for example to export them to a monitoring
+ * system or to detect pathological inputs. See [IonElementLoaderOptions.Builder.loaderMetrics].
+ */
+public fun interface LoaderMetrics {
+    /**
+     * Called on the loading thread after each value has been loaded by [IonElementLoader.loadCurrentElement] (which
+     * the other functions of [IonElementLoader] call for each top-level value). For the functions that take a
+     * [StructFilter], this is called for each struct that was read, including those that did not match; values that
+     * are not structs are skipped without being loaded, so this is not called for them.
+     *
+     * This is not called if loading the value fails. Exceptions that are thrown by this function propagate to the
+     * caller of the [IonElementLoader].
+     */
+    public fun valueLoaded(metrics: LoadedValueMetrics)
+}
+
+/**
+ * Metrics about one value that was loaded by an [IonElementLoader], including all the values nested in it. Instances
+ * are not modified after they have been passed to [LoaderMetrics.valueLoaded].
+ */
+public class LoadedValueMetrics internal constructor(
+    /** The [IonReader.getDepth][com.amazon.ion.IonReader.getDepth] of the value, which is depth 0 in these metrics. */
+    private val startDepth: Int
+) {
+    private val counts = IntArray(ELEMENT_TYPES.size)
+
+    /** The number of elements that were loaded, including the value itself and all the values nested in it. */
+    public var elementCount: Int = 0
+        private set
+
+    /** The number of bytes of text in the strings and symbols that were loaded, when encoded as UTF-8. */
+    public var textBytes: Long = 0
+        private set
+
+    /** The number of bytes in the blobs and clobs that were loaded. */
+    public var lobBytes: Long = 0
+        private set
+
+    /**
+     * The greatest depth of any element that was loaded: 0 if the value is a scalar or an empty container, 1 if it is
+     * a container of scalars, and so on.
+     */
+    public var maxDepth: Int = 0
+        private set
+
+    /**
+     * The number of containers whose contents were loaded iteratively, rather than recursively, because they were
+     * nested too deeply or because [IonElementLoaderOptions.useRecursiveLoad] is `false`. The containers nested within
+     * them are loaded iteratively too, but are not counted.
+     */
+    public var iterativeContainers: Int = 0
+        private set
+
+    /**
+     * The time that it took to load the value, in nanoseconds, as measured by [System.nanoTime]. This includes the time
+     * that it took to read the value from the [IonReader][com.amazon.ion.IonReader].
+     */
+    public var elapsedNanos: Long = 0
+        internal set
+
+    /** Returns the number of elements of the given [type] that were loaded, including nulls of that type. */
+    public fun count(type: ElementType): Int = counts[type.ordinal]
+
+    internal fun record(type: ElementType, readerDepth: Int) {
+        counts[type.ordinal]++
+        elementCount++
+        val depth = readerDepth - startDepth
+        if (depth > maxDepth) maxDepth = depth
+    }
+
+    internal fun record(element: AnyElement, readerDepth: Int) {
+        record(element.type, readerDepth)
+        if (!element.isNull) {
+            when (element.type) {
+                ElementType.STRING, ElementType.SYMBOL -> textBytes += utf8Length(element)
+                ElementType.BLOB, ElementType.CLOB -> lobBytes += element.bytesValue.size()
+                else -> {}
+            }
+        }
+    }
+
+    internal fun recordIterativeContainer() {
+        iterativeContainers++
+    }
+
+    override fun toString(): String {
+        val countsByType = ELEMENT_TYPES.filter { counts[it.ordinal] > 0 }.joinToString(",") { "$it=${counts[it.ordinal]}" }
+        return "LoadedValueMetrics(" +
+            "elementCount=$elementCount," +
+            "counts={$countsByType}," +
+            "textBytes=$textBytes," +
+            "lobBytes=$lobBytes," +
+            "maxDepth=$maxDepth," +
+            "iterativeContainers=$iterativeContainers," +
+            "elapsedNanos=$elapsedNanos" +
+            ")"
+    }
+}
+
+private val ELEMENT_TYPES = ElementType.values()
+
+@OptIn(ExperimentalStdlibApi::class)
+private fun utf8Length(element: AnyElement): Long {
+    // Strings that were loaded as UTF-8 are measured without decoding them.
+    (element as? Utf8StringElementImpl)?.let { return it.utf8.size.toLong() }
+    val text = element.textValue
+    var length = text.length.toLong()
+    for (c in text) {
+        // Each UTF-16 code unit becomes 1 to 3 bytes; a surrogate pair (2 code units) becomes 4 bytes.
+        if (c.code >= 0x80) length += if (c.code >= 0x800 && !Character.isSurrogate(c)) 2 else 1
+    }
+    return length
+}
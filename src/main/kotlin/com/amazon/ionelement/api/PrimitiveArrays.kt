@@ -0,0 +1,45 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+@file:JvmName("PrimitiveArrays")
+package com.amazon.ionelement.api
+
+import com.amazon.ionelement.impl.BooleanArrayList
+import com.amazon.ionelement.impl.DoubleArrayList
+import com.amazon.ionelement.impl.LongArrayList
+
+// Lists that are loaded by an IonElementLoader and contain only un-annotated ints, floats, or bools store their values
+// in a primitive array, and create a new element each time that a value is read from them. For those lists, these
+// functions copy the array rather than reading (and creating) each element.
+
+/**
+ * Returns a new array containing the values of this sequence's elements.
+ *
+ * @throws IonElementConstraintException If any of the elements is not a non-null int that fits in a [Long].
+ */
+public fun SeqElement.toLongArray(): LongArray {
+    val values = values
+    if (values is LongArrayList) return values.toLongArray()
+    return LongArray(values.size) { values[it].longValue }
+}
+
+/**
+ * Returns a new array containing the values of this sequence's elements.
+ *
+ * @throws IonElementConstraintException If any of the elements is not a non-null float.
+ */
+public fun SeqElement.toDoubleArray(): DoubleArray {
+    val values = values
+    if (values is DoubleArrayList) return values.toDoubleArray()
+    return DoubleArray(values.size) { values[it].doubleValue }
+}
+
+/**
+ * Returns a new array containing the values of this sequence's elements.
+ *
+ * @throws IonElementConstraintException If any of the elements is not a non-null bool.
+ */
+public fun SeqElement.toBooleanArray(): BooleanArray {
+    val values = values
+    if (values is BooleanArrayList) return values.toBooleanArray()
+    return BooleanArray(values.size) { values[it].booleanValue }
+}
@@ -0,0 +1,34 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+@file:JvmName("RetainedSizes")
+package com.amazon.ionelement.api
+
+import com.amazon.ionelement.impl.RetainedSizeEstimator
+
+/**
+ * Estimates the number of bytes of heap memory that are retained by [element]: the memory that would become
+ * unreachable if nothing referred to [element] or to any part of it.
+ *
+ * Objects that are shared by all elements—such as the empty annotation list, the empty meta container, the empty
+ * containers, and the nulls without annotations—are not counted, and objects that are reachable from more than one
+ * part of [element] (for example, a [String] that is used as the name of many fields) are only counted once. Memory
+ * that is not on the heap, such as the buffer of an [ElementArena], is not counted.
+ *
+ * The estimate assumes a 64-bit JVM with compressed references, which is the default for heaps smaller than 32 GiB.
+ * It is intended for comparing representations of the same data (for example, the results of loading it with
+ * different [IonElementLoaderOptions]), and may differ from the memory that a particular JVM actually uses by a few
+ * bytes per object.
+ */
+public fun estimateRetainedSize(element: IonElement): Long =
+    RetainedSizeEstimator().apply { add(element) }.size
+
+/**
+ * Estimates the number of bytes of heap memory that are retained by all of [elements] together. Objects that are
+ * shared by more than one of [elements] are only counted once, so the result can be smaller than the sum of
+ * [estimateRetainedSize] of each element. The collection [elements] itself is not counted.
+ */
+public fun estimateRetainedSize(elements: Iterable<IonElement>): Long {
+    val estimator = RetainedSizeEstimator()
+    elements.forEach { estimator.add(it) }
+    return estimator.size
+}
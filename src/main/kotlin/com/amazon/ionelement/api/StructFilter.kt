@@ -0,0 +1,87 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.api
+
+import java.util.function.Predicate
+
+/**
+ * A filter for structs that is made up of conditions on the values of individual fields.
+ *
+ * A struct matches the filter if, for every condition, the struct has a field with that name and the value of the
+ * first such field satisfies the condition's predicate. Values that are not structs (including `null.struct`) never
+ * match.
+ *
+ * When used with [IonElementLoader.loadCurrentElement] or [IonElementLoader.loadAllElements], each condition is
+ * evaluated as soon as its field has been read, and the remaining fields of a struct that fails a condition are skipped
+ * without being loaded.
+ *
+ * The fields that come before a condition's field are loaded before the condition is evaluated, since they are needed
+ * if the struct matches and an [com.amazon.ion.IonReader] cannot go back to read them again. So the savings depend on
+ * the order of the fields: a filter on fields that come first in each struct (such as a type or status field written
+ * by the producer before the payload) skips most of each struct that does not match, while a filter on the last field
+ * loads every struct in full. Values that are not structs are always skipped without being loaded.
+ *
+ * Java consumers must use [StructFilter.builder] to create an instance:
+ * ```java
+ * StructFilter filter = StructFilter.builder()
+ *     .withFieldEqualTo("status", Ion.ionString("FAILED"))
+ *     .withField("attempts", it -> it.getLongValue() > 3)
+ *     .build();
+ * ```
+ */
+public class StructFilter private constructor(
+    private val fieldNames: Array<String>,
+    private val predicates: Array<Predicate<AnyElement>>
+) {
+    public companion object {
+        /** Creates a new, empty [Builder]. */
+        @JvmStatic
+        public fun builder(): Builder = Builder()
+    }
+
+    /** The number of conditions in this filter. */
+    internal val size: Int get() = fieldNames.size
+
+    /** Returns the index of the condition for [fieldName], or -1 if there is no such condition. */
+    internal fun indexOf(fieldName: String): Int = fieldNames.indexOf(fieldName)
+
+    /** Returns true if [value] satisfies the condition at [index]. */
+    internal fun test(index: Int, value: AnyElement): Boolean = predicates[index].test(value)
+
+    /** Returns true if [element] is a struct that matches this filter. */
+    public fun matches(element: IonElement): Boolean {
+        val anyElement = element.asAnyElement()
+        if (anyElement.type != ElementType.STRUCT || anyElement.isNull) return false
+        val struct = anyElement.asStruct()
+        return fieldNames.indices.all { i ->
+            val value = struct.fields.firstOrNull { it.name == fieldNames[i] }?.value
+            value != null && test(i, value)
+        }
+    }
+
+    override fun toString(): String = "StructFilter(fields=${fieldNames.joinToString()})"
+
+    /** Builds a [StructFilter]. */
+    public class Builder internal constructor() {
+        private val conditions = LinkedHashMap<String, Predicate<AnyElement>>()
+
+        /**
+         * Adds a condition that the value of [fieldName] satisfies [predicate].
+         *
+         * If there is already a condition for [fieldName], the value must satisfy both predicates.
+         */
+        public fun withField(fieldName: String, predicate: Predicate<AnyElement>): Builder = apply {
+            conditions[fieldName] = conditions[fieldName]?.and(predicate) ?: predicate
+        }
+
+        /** Adds a condition that the value of [fieldName] is equal to [value]. */
+        public fun withFieldEqualTo(fieldName: String, value: IonElement): Builder {
+            val expected = value.asAnyElement()
+            return withField(fieldName) { it == expected }
+        }
+
+        /** Creates a [StructFilter] with the conditions that have been added to this builder. */
+        public fun build(): StructFilter =
+            StructFilter(conditions.keys.toTypedArray(), conditions.values.toTypedArray())
+    }
+}
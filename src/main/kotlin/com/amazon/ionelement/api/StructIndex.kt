@@ -0,0 +1,252 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.api
+
+import com.amazon.ionelement.impl.LongKeyedTable
+
+/**
+ * An in-memory secondary index of [StructElement]s by the value(s) selected by an [IonPath].
+ *
+ * Each struct is indexed under every distinct value that [path] selects from it; structs for which [path] selects
+ * nothing are not indexed. Keys are compared using [IonElement] equality, so annotations are significant (`a::1` and
+ * `1` are different keys).
+ *
+ * [get] finds all structs with a given key in O(1). [range] finds all structs with keys in a range of values, as
+ * ordered by [compareElements], in O(log n + k), where k is the number of matching keys. Unannotated `int` keys that
+ * fit in a [Long] and unannotated `timestamp` keys are stored in primitive `long` hash tables. The sorted order of the
+ * keys is (re)computed lazily by the first range query after a key is added or removed. A key is removed as soon as
+ * the last struct with that key is removed, so adding and removing structs does not leave unused keys behind.
+ *
+ * Instances are mutable ([add] and [remove]) and not thread-safe.
+ */
+public class StructIndex private constructor(
+    /** The path that selects the key(s) of each struct. */
+    public val path: IonPath
+) {
+    public companion object {
+        /** Creates a [StructIndex] of [elements], using [path] to select the key(s) of each struct. */
+        @JvmStatic
+        public fun build(elements: Iterable<StructElement>, path: IonPath): StructIndex =
+            StructIndex(path).apply { elements.forEach { add(it) } }
+
+        /**
+         * Creates a [StructIndex] of [elements], using [path] to select the key(s) of each struct.
+         *
+         * @throws IllegalArgumentException If [path] is not a valid [IonPath].
+         */
+        @JvmStatic
+        public fun build(elements: Iterable<StructElement>, path: String): StructIndex =
+            build(elements, IonPath.compile(path))
+    }
+
+    /** A timestamp key and its structs. Several timestamps can have the same millisecond value. */
+    private class TimestampBucket(val key: AnyElement, val structs: ArrayList<StructElement> = ArrayList())
+
+    /** Unannotated `int` keys that fit in a [Long], by value. */
+    private val intKeys = LongKeyedTable<ArrayList<StructElement>>()
+
+    /** Unannotated `timestamp` keys, by [epochMillis]. */
+    private val timestampKeys = LongKeyedTable<ArrayList<TimestampBucket>>()
+
+    /** All other keys. */
+    private val otherKeys = HashMap<AnyElement, ArrayList<StructElement>>()
+
+    /** The number of keys in [otherKeys] of each [ElementType], by ordinal. */
+    private val otherKeyTypeCounts = IntArray(ElementType.values().size)
+
+    // The sorted keys of `intKeys`, `timestampKeys`, and of all three tables. These are set to null when a key is added
+    // or removed.
+    private var sortedIntKeys: LongArray? = null
+    private var sortedTimestampKeys: LongArray? = null
+    private var sortedAllKeys: Array<AnyElement>? = null
+
+    /** The number of structs in this index. */
+    public var size: Int = 0
+        private set
+
+    /** Adds [element] to this index under each of the distinct keys selected by [path]. */
+    public fun add(element: StructElement) {
+        val keys = keysOf(element)
+        if (keys.isEmpty()) return
+        keys.forEach { bucketFor(it).add(element) }
+        size++
+    }
+
+    /**
+     * Removes one occurrence of [element] (or an equivalent struct) from this index.
+     *
+     * Returns true if [element] was found.
+     */
+    public fun remove(element: StructElement): Boolean {
+        var removed = false
+        keysOf(element).forEach { key ->
+            val bucket = existingBucketFor(key) ?: return@forEach
+            var i = bucket.indexOfFirst { it === element }
+            if (i < 0) i = bucket.indexOf(element)
+            if (i >= 0) {
+                bucket.removeAt(i)
+                if (bucket.isEmpty()) removeKey(key)
+                removed = true
+            }
+        }
+        if (removed) size--
+        return removed
+    }
+
+    /** Returns all structs in this index with the given [key], in the order they were added. */
+    public operator fun get(key: IonElement): List<StructElement> =
+        existingBucketFor(key.asAnyElement())?.toList() ?: emptyList()
+
+    /**
+     * Returns all structs in this index with keys that are greater than or equal to [fromInclusive] and less than
+     * [toExclusive] according to [compareElements], ordered by key.
+     *
+     * For example, `range(ionInt(1), ionInt(10))` finds the structs with int keys from 1 to 9, including annotated
+     * ints such as `a::5`, and `range(ionNull(ElementType.STRING), ionNull(ElementType.CLOB))` finds the structs
+     * with any `string` key.
+     */
+    public fun range(fromInclusive: IonElement, toExclusive: IonElement): List<StructElement> {
+        val from = fromInclusive.asAnyElement()
+        val to = toExclusive.asAnyElement()
+        if (compareElements(from, to) >= 0) return emptyList()
+
+        val results = ArrayList<StructElement>()
+        // If both bounds are primitive keys of the same type, then every key in the range has that type, so unless
+        // there are also non-primitive keys of that type, only one of the primitive tables needs to be searched.
+        val type = from.type
+        if (type != to.type || !isPrimitiveKey(from) || !isPrimitiveKey(to) || otherKeyTypeCounts[type.ordinal] > 0) {
+            val keys = sortedAllKeys ?: allKeys().also { it.sortWith(elementComparator()); sortedAllKeys = it }
+            for (i in lowerBound(keys, from) until lowerBound(keys, to)) {
+                results.addAll(existingBucketFor(keys[i])!!)
+            }
+        } else if (type == ElementType.INT) {
+            val keys = sortedIntKeys ?: intKeys.sortedKeys().also { sortedIntKeys = it }
+            for (i in lowerBound(keys, from.longValue) until lowerBound(keys, to.longValue)) {
+                results.addAll(intKeys[keys[i]]!!)
+            }
+        } else {
+            val keys = sortedTimestampKeys ?: timestampKeys.sortedKeys().also { sortedTimestampKeys = it }
+            // epochMillis discards any fractional milliseconds, so the window is widened and then every key in it is
+            // compared exactly.
+            val start = lowerBound(keys, from.asTimestamp().epochMillis - 1)
+            val end = lowerBound(keys, to.asTimestamp().epochMillis + 2)
+            for (i in start until end) {
+                timestampKeys[keys[i]]!!
+                    .filter { compareElements(from, it.key) <= 0 && compareElements(it.key, to) < 0 }
+                    .sortedWith(compareBy(elementComparator()) { it.key })
+                    .forEach { results.addAll(it.structs) }
+            }
+        }
+        return results
+    }
+
+    /** Returns the distinct keys selected by [path] from [element]. */
+    private fun keysOf(element: StructElement): Collection<AnyElement> {
+        val keys = path.evaluate(element)
+        return if (keys.size <= 1) keys else keys.toCollection(LinkedHashSet())
+    }
+
+    private fun isPrimitiveKey(key: AnyElement): Boolean =
+        !key.isNull && key.annotations.isEmpty() && when (key.type) {
+            ElementType.INT -> key.integerSize == IntElementSize.LONG
+            ElementType.TIMESTAMP -> true
+            else -> false
+        }
+
+    /** Returns the bucket for [key], creating it if it does not exist. */
+    private fun bucketFor(key: AnyElement): ArrayList<StructElement> = when {
+        !isPrimitiveKey(key) -> otherKeys.getOrPut(key) {
+            otherKeyTypeCounts[key.type.ordinal]++
+            sortedAllKeys = null
+            ArrayList()
+        }
+        key.type == ElementType.INT -> intKeys.getOrPut(key.longValue) {
+            sortedIntKeys = null
+            sortedAllKeys = null
+            ArrayList()
+        }
+        else -> {
+            val buckets = timestampKeys.getOrPut(key.asTimestamp().epochMillis) {
+                sortedTimestampKeys = null
+                ArrayList(1)
+            }
+            buckets.firstOrNull { it.key == key }?.structs
+                ?: TimestampBucket(key).also {
+                    buckets.add(it)
+                    sortedAllKeys = null
+                }.structs
+        }
+    }
+
+    /** Removes [key], whose bucket has become empty. */
+    private fun removeKey(key: AnyElement) {
+        when {
+            !isPrimitiveKey(key) -> {
+                otherKeys.remove(key)
+                otherKeyTypeCounts[key.type.ordinal]--
+            }
+            key.type == ElementType.INT -> {
+                intKeys.remove(key.longValue)
+                sortedIntKeys = null
+            }
+            else -> {
+                val epochMillis = key.asTimestamp().epochMillis
+                val buckets = timestampKeys[epochMillis]!!
+                buckets.removeAt(buckets.indexOfFirst { it.key == key })
+                if (buckets.isEmpty()) {
+                    timestampKeys.remove(epochMillis)
+                    sortedTimestampKeys = null
+                }
+            }
+        }
+        sortedAllKeys = null
+    }
+
+    /** Returns the bucket for [key], or null if it does not exist. */
+    private fun existingBucketFor(key: AnyElement): ArrayList<StructElement>? = when {
+        !isPrimitiveKey(key) -> otherKeys[key]
+        key.type == ElementType.INT -> intKeys[key.longValue]
+        else -> timestampKeys[key.asTimestamp().epochMillis]?.firstOrNull { it.key == key }?.structs
+    }
+
+    /** Returns the keys of all three tables, in no particular order. */
+    private fun allKeys(): Array<AnyElement> {
+        val keys = ArrayList<AnyElement>(otherKeys.size + intKeys.size + timestampKeys.size)
+        keys.addAll(otherKeys.keys)
+        intKeys.forEach { key, _ -> keys.add(ionInt(key).asAnyElement()) }
+        timestampKeys.forEach { _, buckets -> buckets.mapTo(keys) { it.key } }
+        return keys.toTypedArray()
+    }
+
+    private fun LongKeyedTable<*>.sortedKeys(): LongArray {
+        val keys = LongArray(size)
+        var i = 0
+        forEach { key, _ -> keys[i++] = key }
+        keys.sort()
+        return keys
+    }
+
+    /** Returns the index of the first element of [sortedKeys] that is not less than [key]. */
+    private fun lowerBound(sortedKeys: LongArray, key: Long): Int {
+        var low = 0
+        var high = sortedKeys.size
+        while (low < high) {
+            val mid = (low + high) ushr 1
+            if (sortedKeys[mid] < key) low = mid + 1 else high = mid
+        }
+        return low
+    }
+
+    /** Returns the index of the first element of [sortedKeys] that is not less than [key]. */
+    private fun lowerBound(sortedKeys: Array<AnyElement>, key: AnyElement): Int {
+        var low = 0
+        var high = sortedKeys.size
+        while (low < high) {
+            val mid = (low + high) ushr 1
+            if (compareElements(sortedKeys[mid], key) < 0) low = mid + 1 else high = mid
+        }
+        return low
+    }
+
+    override fun toString(): String = "StructIndex(path=$path, size=$size)"
+}
@@ -0,0 +1,18 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+@file:JvmName("TimestampElements")
+package com.amazon.ionelement.api
+
+import com.amazon.ionelement.impl.CompactTimestampElementImpl
+
+/**
+ * The instant of this timestamp in milliseconds since the epoch (1970-01-01T00:00:00Z), with any fractional
+ * milliseconds rounded down. This is the same as `timestampValue.millis`.
+ *
+ * Timestamps that are loaded by an [IonElementLoader] store their value in primitive fields, and creating the
+ * [com.amazon.ion.Timestamp] for [TimestampElement.timestampValue] is relatively expensive. For those timestamps, this
+ * is read from a field without creating the [com.amazon.ion.Timestamp]. Use it rather than
+ * [TimestampElement.timestampValue] when comparing or bucketing timestamps by their instant.
+ */
+public val TimestampElement.epochMillis: Long
+    get() = if (this is CompactTimestampElementImpl) epochMillis else timestampValue.millis
@@ -0,0 +1,360 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.Decimal
+import com.amazon.ion.IntegerSize
+import com.amazon.ion.IonReader
+import com.amazon.ion.IonType
+import com.amazon.ion.Timestamp
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+import java.math.BigInteger
+import java.nio.Buffer
+import java.nio.ByteBuffer
+
+/*
+ * The encoding used by ElementArena.
+ *
+ * Each element is a node that starts with a tag byte: the ordinal of its ElementType in the low 4 bits, and the flags
+ * below. If the node has annotations, the tag is followed by the number of annotations and the offset of each
+ * annotation's text record. The rest of the node depends on the type:
+ *   - BOOL: nothing; the value is the VARIANT flag
+ *   - INT: an 8 byte long, or if VARIANT is set, a byte record containing the two's-complement BigInteger
+ *   - FLOAT: an 8 byte double
+ *   - DECIMAL: a 4 byte scale and a byte record containing the unscaled value; VARIANT is set for negative zero
+ *   - TIMESTAMP: the epoch millis (8 bytes), packed fields (8 bytes), and nanoseconds (4 bytes) of a
+ *     CompactTimestampElementImpl, or if VARIANT is set (more than 9 digits of fractional seconds), a text record
+ *   - STRING, SYMBOL: a text record
+ *   - CLOB, BLOB: a byte record
+ *   - LIST, SEXP: the number of children, then the offset of each child
+ *   - STRUCT: the number of fields, then the offset of each field's name text record and value
+ * A byte record is a 4 byte length followed by the bytes, and a text record is a byte record containing UTF-8. The text
+ * record of a field name or annotation is written once for each distinct text, and shared by every node that uses it.
+ *
+ * Children (and text records) are always written before their parent, so that a container can be written as soon as
+ * its children are known. The last node is a table of the top-level elements, which has the same layout as the
+ * children of a list.
+ *
+ * Offsets are 4 bytes, so an arena cannot be larger than 2 GiB. All values are big-endian.
+ */
+
+private const val TYPE_MASK = 0x0F
+private const val NULL_FLAG = 0x10
+private const val ANNOTATIONS_FLAG = 0x20
+private const val VARIANT_FLAG = 0x40
+
+private val ELEMENT_TYPES = ElementType.values()
+
+/** Writes elements from an [IonReader] to a direct [ByteBuffer] in the arena encoding. */
+internal class ArenaEncoder {
+    private var buffer: ByteBuffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY)
+
+    /** The offset of the text record of each field name and annotation that has been written. */
+    private val textOffsets = HashMap<String, Int>()
+
+    /** The text of each field name and annotation record that has been written, by offset. */
+    private val names = LongKeyedTable<String>()
+
+    /** A container that has been stepped into, and the offsets of its children that have been written so far. */
+    private class Frame(val type: ElementType, val annotations: IntArray?, val fieldName: Int) {
+        var children = IntArray(8)
+        var size = 0
+
+        fun add(offset: Int) {
+            if (size == children.size) children = children.copyOf(size * 2)
+            children[size++] = offset
+        }
+    }
+
+    /** Writes all elements remaining to be read from [ionReader]. */
+    fun encodeAll(ionReader: IonReader): EncodedArena {
+        val roots = Frame(ElementType.LIST, null, -1)
+        val stack = ArrayList<Frame>()
+        while (true) {
+            val ionType = ionReader.next()
+            if (ionType == null) {
+                if (stack.isEmpty()) break
+                ionReader.stepOut()
+                val frame = stack.removeAt(stack.size - 1)
+                val offset = writeContainer(frame)
+                val parent = if (stack.isEmpty()) roots else stack[stack.size - 1]
+                if (parent.type == ElementType.STRUCT) parent.add(frame.fieldName)
+                parent.add(offset)
+                continue
+            }
+            val parent = if (stack.isEmpty()) roots else stack[stack.size - 1]
+            val fieldName = if (parent.type == ElementType.STRUCT) writeText(ionReader.fieldName) else -1
+            val annotations = ionReader.typeAnnotations!!.let { names ->
+                if (names.isEmpty()) null else IntArray(names.size) { writeText(names[it]) }
+            }
+            if (!ionReader.isNullValue && IonType.isContainer(ionType)) {
+                stack.add(Frame(ionType.toElementType(), annotations, fieldName))
+                ionReader.stepIn()
+                continue
+            }
+            val offset = writeScalar(ionReader, ionType, annotations)
+            if (parent.type == ElementType.STRUCT) parent.add(fieldName)
+            parent.add(offset)
+        }
+        val rootTable = position()
+        putInt(roots.size)
+        for (i in 0 until roots.size) putInt(roots.children[i])
+
+        // Copy to a buffer of exactly the right size so that the spare capacity is not retained.
+        val result = ByteBuffer.allocateDirect(position())
+        (buffer as Buffer).flip()
+        result.put(buffer)
+        (result as Buffer).flip()
+        return EncodedArena(result.asReadOnlyBuffer(), rootTable, names)
+    }
+
+    private fun writeScalar(ionReader: IonReader, ionType: IonType, annotations: IntArray?): Int {
+        val type = ionType.toElementType()
+        if (ionReader.isNullValue) return writeHeader(type, NULL_FLAG, annotations)
+        return when (ionType) {
+            IonType.BOOL -> writeHeader(type, if (ionReader.booleanValue()) VARIANT_FLAG else 0, annotations)
+            IonType.INT -> {
+                val bigIntValue = if (ionReader.integerSize == IntegerSize.BIG_INTEGER) ionReader.bigIntegerValue() else null
+                if (bigIntValue != null && bigIntValue !in RANGE_OF_LONG) {
+                    writeHeader(type, VARIANT_FLAG, annotations).also { putBytes(bigIntValue.toByteArray()) }
+                } else {
+                    val longValue = ionReader.longValue()
+                    writeHeader(type, 0, annotations).also { putLong(longValue) }
+                }
+            }
+            IonType.FLOAT -> {
+                val doubleValue = ionReader.doubleValue()
+                writeHeader(type, 0, annotations).also { putLong(doubleValue.toRawBits()) }
+            }
+            IonType.DECIMAL -> {
+                val decimalValue = ionReader.decimalValue()
+                val flags = if (decimalValue.isNegativeZero) VARIANT_FLAG else 0
+                writeHeader(type, flags, annotations).also {
+                    putInt(decimalValue.scale())
+                    putBytes(decimalValue.unscaledValue().toByteArray())
+                }
+            }
+            IonType.TIMESTAMP -> {
+                val timestampValue = ionReader.timestampValue()
+                val compact = CompactTimestampElementImpl.compactTimestampOrNull(timestampValue, EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
+                if (compact != null) {
+                    writeHeader(type, 0, annotations).also {
+                        putLong(compact.epochMillis)
+                        putLong(compact.fields)
+                        putInt(compact.nanos)
+                    }
+                } else {
+                    writeHeader(type, VARIANT_FLAG, annotations).also { putBytes(timestampValue.toString().toByteArray(Charsets.UTF_8)) }
+                }
+            }
+            IonType.STRING, IonType.SYMBOL -> {
+                val bytes = ionReader.stringValue().toByteArray(Charsets.UTF_8)
+                writeHeader(type, 0, annotations).also { putBytes(bytes) }
+            }
+            IonType.CLOB, IonType.BLOB -> {
+                val bytes = ionReader.newBytes()
+                writeHeader(type, 0, annotations).also { putBytes(bytes) }
+            }
+            else -> error("Unexpected IonType: $ionType")
+        }
+    }
+
+    private fun writeContainer(frame: Frame): Int {
+        val offset = writeHeader(frame.type, 0, frame.annotations)
+        val count = if (frame.type == ElementType.STRUCT) frame.size / 2 else frame.size
+        putInt(count)
+        for (i in 0 until frame.size) putInt(frame.children[i])
+        return offset
+    }
+
+    private fun writeHeader(type: ElementType, flags: Int, annotations: IntArray?): Int {
+        val offset = position()
+        ensureCapacity(1)
+        buffer.put((type.ordinal or flags or (if (annotations != null) ANNOTATIONS_FLAG else 0)).toByte())
+        if (annotations != null) {
+            putInt(annotations.size)
+            annotations.forEach { putInt(it) }
+        }
+        return offset
+    }
+
+    private fun writeText(text: String): Int =
+        textOffsets.getOrPut(text) {
+            val offset = position()
+            putBytes(text.toByteArray(Charsets.UTF_8))
+            names.put(offset.toLong(), text)
+            offset
+        }
+
+    private fun position(): Int = buffer.position()
+
+    private fun putInt(value: Int) {
+        ensureCapacity(4)
+        buffer.putInt(value)
+    }
+
+    private fun putLong(value: Long) {
+        ensureCapacity(8)
+        buffer.putLong(value)
+    }
+
+    private fun putBytes(bytes: ByteArray) {
+        putInt(bytes.size)
+        ensureCapacity(bytes.size)
+        buffer.put(bytes)
+    }
+
+    private fun ensureCapacity(bytes: Int) {
+        if (buffer.remaining() >= bytes) return
+        val required = buffer.position().toLong() + bytes
+        require(required <= Int.MAX_VALUE) { "An ElementArena cannot be larger than 2 GiB" }
+        var newCapacity = buffer.capacity().toLong() * 2
+        while (newCapacity < required) newCapacity *= 2
+        val newBuffer = ByteBuffer.allocateDirect(minOf(newCapacity, Int.MAX_VALUE.toLong()).toInt())
+        (buffer as Buffer).flip()
+        newBuffer.put(buffer)
+        buffer = newBuffer
+    }
+
+    private companion object {
+        const val INITIAL_CAPACITY = 4096
+    }
+}
+
+/** The result of [ArenaEncoder.encodeAll]. */
+internal class EncodedArena(
+    /** A read-only buffer containing exactly the encoded bytes. */
+    val buffer: ByteBuffer,
+    /** The offset of the table of top-level elements. */
+    val rootTableOffset: Int,
+    /** The text of each field name and annotation record, by offset. */
+    val names: LongKeyedTable<String>
+)
+
+/**
+ * Creates elements from a buffer in the arena encoding.
+ *
+ * Field names and annotations are looked up in [names] rather than decoded, so every element that is read shares
+ * the same [String] for each of them. Only absolute reads are made from [buffer], and [names] is never modified, so a
+ * decoder can be used by many threads at once.
+ */
+internal class ArenaDecoder(private val buffer: ByteBuffer, private val names: LongKeyedTable<String>) {
+
+    fun elementAt(offset: Int): AnyElement {
+        val tag = buffer.get(offset).toInt()
+        val type = ELEMENT_TYPES[tag and TYPE_MASK]
+        var position = offset + 1
+        val annotations = if (tag and ANNOTATIONS_FLAG != 0) {
+            val count = buffer.getInt(position)
+            position += 4
+            val annotationNames = Array(count) { nameAt(buffer.getInt(position + it * 4)) }
+            position += count * 4
+            annotationNames.toImmutableListUnsafe()
+        } else {
+            EMPTY_IMMUTABLE_LIST
+        }
+        if (tag and NULL_FLAG != 0) return ionNull(type, annotations, EMPTY_METAS).asAnyElement()
+        val variant = tag and VARIANT_FLAG != 0
+        return when (type) {
+            ElementType.BOOL -> BoolElementImpl(variant, annotations, EMPTY_METAS)
+            ElementType.INT -> if (variant) {
+                BigIntIntElementImpl(BigInteger(bytesAt(position)), annotations, EMPTY_METAS)
+            } else {
+                LongIntElementImpl(buffer.getLong(position), annotations, EMPTY_METAS)
+            }
+            ElementType.FLOAT -> FloatElementImpl(Double.fromBits(buffer.getLong(position)), annotations, EMPTY_METAS)
+            ElementType.DECIMAL -> {
+                val scale = buffer.getInt(position)
+                val decimalValue = if (variant) {
+                    Decimal.negativeZero(scale)
+                } else {
+                    Decimal.valueOf(BigInteger(bytesAt(position + 4)), scale)
+                }
+                decimalElement(decimalValue, annotations, EMPTY_METAS)
+            }
+            ElementType.TIMESTAMP -> if (variant) {
+                TimestampElementImpl(Timestamp.valueOf(textAt(position)), annotations, EMPTY_METAS)
+            } else {
+                CompactTimestampElementImpl.create(
+                    buffer.getLong(position),
+                    buffer.getLong(position + 8),
+                    buffer.getInt(position + 16),
+                    annotations,
+                    EMPTY_METAS
+                )
+            }
+            ElementType.STRING -> utf8StringElement(bytesAt(position), annotations, EMPTY_METAS)
+            ElementType.SYMBOL -> SymbolElementImpl(textAt(position), annotations, EMPTY_METAS)
+            ElementType.CLOB -> ClobElementImpl(bytesAt(position), annotations, EMPTY_METAS)
+            ElementType.BLOB -> BlobElementImpl(bytesAt(position), annotations, EMPTY_METAS)
+            ElementType.LIST -> ListElementImpl(seqValuesAt(position), annotations, EMPTY_METAS)
+            ElementType.SEXP -> SexpElementImpl(seqValuesAt(position), annotations, EMPTY_METAS)
+            ElementType.STRUCT -> {
+                val fields = ArenaStructFields(this, position + 4, 0, buffer.getInt(position))
+                StructElementImpl(fields, annotations, EMPTY_METAS)
+            }
+            ElementType.NULL -> error("Unreachable: null is always encoded with NULL_FLAG")
+        }
+    }
+
+    /** Returns the elements of a table of child offsets (such as the children of a list) at [offset]. */
+    fun seqValuesAt(offset: Int): ImmutableList<AnyElement> = ArenaSeqValues(this, offset + 4, 0, buffer.getInt(offset))
+
+    fun intAt(offset: Int): Int = buffer.getInt(offset)
+
+    fun textAt(offset: Int): String = String(bytesAt(offset), Charsets.UTF_8)
+
+    /** Returns the text of the field name or annotation record at [offset]. */
+    fun nameAt(offset: Int): String = names[offset.toLong()]!!
+
+    private fun bytesAt(offset: Int): ByteArray {
+        val bytes = ByteArray(buffer.getInt(offset))
+        // duplicate() so that the position of the shared buffer is not changed
+        val view = buffer.duplicate()
+        (view as Buffer).position(offset + 4)
+        view.get(bytes)
+        return bytes
+    }
+}
+
+/** The children of a list or sexp in an arena, starting with child [start] of the table at [tableOffset]. */
+private class ArenaSeqValues(
+    private val decoder: ArenaDecoder,
+    private val tableOffset: Int,
+    private val start: Int,
+    override val size: Int
+) : AbstractList<AnyElement>(), ImmutableList<AnyElement> {
+    override fun get(index: Int): AnyElement {
+        if (index < 0 || index >= size) throw IndexOutOfBoundsException("index: $index, size: $size")
+        return decoder.elementAt(decoder.intAt(tableOffset + (start + index) * 4))
+    }
+
+    override fun subList(fromIndex: Int, toIndex: Int): ImmutableList<AnyElement> {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw IndexOutOfBoundsException("fromIndex: $fromIndex, toIndex: $toIndex, size: $size")
+        }
+        return ArenaSeqValues(decoder, tableOffset, start + fromIndex, toIndex - fromIndex)
+    }
+}
+
+/** The fields of a struct in an arena, starting with field [start] of the table at [tableOffset]. */
+private class ArenaStructFields(
+    private val decoder: ArenaDecoder,
+    private val tableOffset: Int,
+    private val start: Int,
+    override val size: Int
+) : AbstractList<StructField>(), ImmutableList<StructField> {
+    override fun get(index: Int): StructField {
+        if (index < 0 || index >= size) throw IndexOutOfBoundsException("index: $index, size: $size")
+        val entry = tableOffset + (start + index) * 8
+        return StructFieldImpl(decoder.nameAt(decoder.intAt(entry)), decoder.elementAt(decoder.intAt(entry + 4)))
+    }
+
+    override fun subList(fromIndex: Int, toIndex: Int): ImmutableList<StructField> {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw IndexOutOfBoundsException("fromIndex: $fromIndex, toIndex: $toIndex, size: $size")
+        }
+        return ArenaStructFields(decoder, tableOffset, start + fromIndex, toIndex - fromIndex)
+    }
+}
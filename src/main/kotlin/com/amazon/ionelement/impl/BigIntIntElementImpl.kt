@@ -22,12 +22,13 @@ import com.amazon.ionelement.api.constraintError
 import com.amazon.ionelement.impl.collections.*
 import java.math.BigInteger
 
-internal class BigIntIntElementImpl(
-    override val bigIntegerValue: BigInteger,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class BigIntIntElementImpl(
+    override val bigIntegerValue: BigInteger
 ) : AnyElementBase(), IntElement {
 
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val type: ElementType get() = ElementType.INT
 
     override val integerSize: IntElementSize
@@ -54,6 +55,28 @@ internal class BigIntIntElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [BigIntIntElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(bigIntegerValue: BigInteger) : BigIntIntElementImpl(bigIntegerValue) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        bigIntegerValue: BigInteger,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : BigIntIntElementImpl(bigIntegerValue)
+
+    companion object {
+        /** Creates a [BigIntIntElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            bigIntegerValue: BigInteger,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): BigIntIntElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(bigIntegerValue) else Full(bigIntegerValue, annotations, metas)
+    }
 }
 
 internal val RANGE_OF_LONG = BigInteger.valueOf(Long.MIN_VALUE)..BigInteger.valueOf(Long.MAX_VALUE)
@@ -20,12 +20,13 @@ import com.amazon.ionelement.api.*
 import com.amazon.ionelement.api.ImmutableMetaContainer
 import com.amazon.ionelement.impl.collections.*
 
-internal class BlobElementImpl(
-    bytes: ByteArray,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class BlobElementImpl(
+    bytes: ByteArray
 ) : LobElementBase(bytes), BlobElement {
 
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val type: ElementType get() = ElementType.BLOB
 
     override val blobValue: ByteArrayView get() = bytesValue
@@ -44,4 +45,26 @@ internal class BlobElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [BlobElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(bytes: ByteArray) : BlobElementImpl(bytes) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        bytes: ByteArray,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : BlobElementImpl(bytes)
+
+    companion object {
+        /** Creates a [BlobElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            bytes: ByteArray,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): BlobElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(bytes) else Full(bytes, annotations, metas)
+    }
 }
@@ -20,11 +20,12 @@ import com.amazon.ionelement.api.*
 import com.amazon.ionelement.api.ImmutableMetaContainer
 import com.amazon.ionelement.impl.collections.*
 
-internal class BoolElementImpl(
-    override val booleanValue: Boolean,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class BoolElementImpl(
+    override val booleanValue: Boolean
 ) : AnyElementBase(), BoolElement {
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val type: ElementType get() = ElementType.BOOL
 
     override fun copy(annotations: List<String>, metas: MetaContainer): BoolElementImpl =
@@ -41,4 +42,26 @@ internal class BoolElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [BoolElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(booleanValue: Boolean) : BoolElementImpl(booleanValue) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        booleanValue: Boolean,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : BoolElementImpl(booleanValue)
+
+    companion object {
+        /** Creates a [BoolElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            booleanValue: Boolean,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): BoolElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(booleanValue) else Full(booleanValue, annotations, metas)
+    }
 }
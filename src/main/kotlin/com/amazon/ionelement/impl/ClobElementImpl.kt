@@ -20,12 +20,13 @@ import com.amazon.ionelement.api.*
 import com.amazon.ionelement.api.ImmutableMetaContainer
 import com.amazon.ionelement.impl.collections.*
 
-internal class ClobElementImpl(
-    bytes: ByteArray,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class ClobElementImpl(
+    bytes: ByteArray
 ) : LobElementBase(bytes), ClobElement {
 
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val type: ElementType get() = ElementType.CLOB
 
     override val clobValue: ByteArrayView get() = bytesValue
@@ -43,4 +44,26 @@ internal class ClobElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [ClobElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(bytes: ByteArray) : ClobElementImpl(bytes) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        bytes: ByteArray,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : ClobElementImpl(bytes)
+
+    companion object {
+        /** Creates a [ClobElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            bytes: ByteArray,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): ClobElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(bytes) else Full(bytes, annotations, metas)
+    }
 }
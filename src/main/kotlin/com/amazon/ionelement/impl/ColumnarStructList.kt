@@ -0,0 +1,77 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+
+/**
+ * An [ImmutableList] of un-annotated, meta-less structs that all have the same field names, which are stored in
+ * columns: one list of values per field name.
+ *
+ * The structs are created each time that they are read from the list, so the same struct is not returned twice. Each
+ * column that contains only ints, floats, or bools is a [PrimitiveArrayList], so scanning the values of a field reads
+ * a single array.
+ */
+internal class ColumnarStructList private constructor(
+    private val fieldNames: Array<String>,
+    private val columns: Array<ImmutableList<AnyElement>>,
+    /** The index in the columns of the first struct of this list. */
+    private val offset: Int,
+    override val size: Int
+) : AbstractList<AnyElement>(), ImmutableList<AnyElement> {
+
+    override fun get(index: Int): AnyElement {
+        if (index < 0 || index >= size) throw IndexOutOfBoundsException("index: $index, size: $size")
+        val row = offset + index
+        val fields = Array<StructField>(fieldNames.size) { StructFieldImpl(fieldNames[it], columns[it][row]) }
+        return StructElementImpl(fields.toImmutableListUnsafe(), EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
+    }
+
+    override fun subList(fromIndex: Int, toIndex: Int): ImmutableList<AnyElement> {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw IndexOutOfBoundsException("fromIndex: $fromIndex, toIndex: $toIndex, size: $size")
+        }
+        return ColumnarStructList(fieldNames, columns, offset + fromIndex, toIndex - fromIndex)
+    }
+
+    /** Returns the values of the field named [fieldName] in each struct, or null if the structs have no such field. */
+    fun column(fieldName: String): ImmutableList<AnyElement>? {
+        val i = fieldNames.indexOf(fieldName)
+        if (i < 0) return null
+        val column = columns[i]
+        return if (offset == 0 && size == column.size) column else column.subList(offset, offset + size)
+    }
+
+    companion object {
+        /**
+         * Returns a [ColumnarStructList] containing [elements] if there are at least two of them, and they are all
+         * non-null, un-annotated, meta-less structs with the same field names in the same order and no repeated field
+         * names; otherwise returns null.
+         */
+        fun fromOrNull(elements: List<AnyElement>): ColumnarStructList? {
+            if (elements.size < 2) return null
+            val first = elements[0]
+            if (!first.isColumnarRow()) return null
+            val fieldNames = first.structFields.map { it.name }.toTypedArray()
+            if (fieldNames.isEmpty() || fieldNames.toHashSet().size != fieldNames.size) return null
+
+            val columnValues = Array(fieldNames.size) { ArrayList<AnyElement>(elements.size) }
+            for (element in elements) {
+                if (!element.isColumnarRow() || element.structFields.size != fieldNames.size) return null
+                var i = 0
+                for (field in element.structFields) {
+                    if (field.name != fieldNames[i]) return null
+                    columnValues[i++].add(field.value)
+                }
+            }
+            val columns = Array(fieldNames.size) {
+                toPrimitiveArrayListOrNull(columnValues[it]) ?: columnValues[it].toImmutableListUnsafe()
+            }
+            return ColumnarStructList(fieldNames, columns, 0, elements.size)
+        }
+
+        private fun AnyElement.isColumnarRow(): Boolean =
+            type == ElementType.STRUCT && !isNull && annotations.isEmpty() && metas.isEmpty()
+    }
+}
@@ -0,0 +1,180 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.Decimal
+import com.amazon.ion.IonReader
+import com.amazon.ion.IonWriter
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.api.ImmutableMetaContainer
+import com.amazon.ionelement.impl.collections.*
+import java.math.BigDecimal
+
+/**
+ * A [DecimalElement] that stores its value as an unscaled `long` and a scale rather than as a [Decimal], which holds a
+ * [java.math.BigInteger]. The [Decimal] is created the first time that [decimalValue] is called.
+ *
+ * Equivalence, hashing, ordering, and the [IonOperators] on decimals use [unscaledValue] and [scale] directly when
+ * possible, so most operations on these elements never create the [Decimal].
+ *
+ * Negative zero and unscaled values of [Long.MIN_VALUE] cannot be stored this way; see [compactDecimalOrNull].
+ *
+ * This only reduces the memory that is retained by loaded decimals, not the cost of loading them. [IonReader] can only
+ * provide a decimal as a [Decimal] (or a [BigDecimal], which cannot represent negative zero), so the loader still
+ * creates a [Decimal] for each decimal value, plus the [java.math.BigInteger] of its unscaled value, and then discards
+ * both once the [CompactDecimalElementImpl] has been created.
+ */
+internal sealed class CompactDecimalElementImpl(
+    val unscaledValue: Long,
+    val scale: Int
+) : AnyElementBase(), DecimalElement {
+
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
+    // Racy single-check: every thread that sees null creates an equal Decimal, and Decimal is immutable.
+    private var cachedDecimal: Decimal? = null
+
+    override val type: ElementType get() = ElementType.DECIMAL
+
+    override val decimalValue: Decimal
+        get() = cachedDecimal ?: Decimal.valueOf(BigDecimal.valueOf(unscaledValue, scale)).also { cachedDecimal = it }
+
+    override fun copy(annotations: List<String>, metas: MetaContainer): CompactDecimalElementImpl =
+        create(unscaledValue, scale, annotations.toImmutableList(), metas.toImmutableMap())
+
+    override fun withAnnotations(vararg additionalAnnotations: String): CompactDecimalElementImpl = _withAnnotations(*additionalAnnotations)
+    override fun withAnnotations(additionalAnnotations: Iterable<String>): CompactDecimalElementImpl = _withAnnotations(additionalAnnotations)
+    override fun withoutAnnotations(): CompactDecimalElementImpl = _withoutAnnotations()
+    override fun withMetas(additionalMetas: MetaContainer): CompactDecimalElementImpl = _withMetas(additionalMetas)
+    override fun withMeta(key: String, value: Any): CompactDecimalElementImpl = _withMeta(key, value)
+    override fun withoutMetas(): CompactDecimalElementImpl = _withoutMetas()
+
+    override fun writeContentTo(writer: IonWriter) = writer.writeDecimal(decimalValue)
+
+    override fun equals(other: Any?): Boolean = isEquivalentTo(other)
+    override fun hashCode(): Int = hashElement(this)
+
+    /** The same as [java.math.BigDecimal.hashCode] of [decimalValue], without creating the [Decimal]. */
+    fun decimalHashCode(): Int {
+        // This follows the algorithm that BigDecimal uses for values with an unscaled value that fits in a long.
+        val magnitude = if (unscaledValue < 0) -unscaledValue else unscaledValue
+        val temp = ((magnitude ushr 32).toInt() * 31 + (magnitude and 0xFFFFFFFFL)).toInt()
+        return 31 * (if (unscaledValue < 0) -temp else temp) + scale
+    }
+
+    /** A [CompactDecimalElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(unscaledValue: Long, scale: Int) : CompactDecimalElementImpl(unscaledValue, scale) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        unscaledValue: Long,
+        scale: Int,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : CompactDecimalElementImpl(unscaledValue, scale)
+
+    companion object {
+        /** Creates a [CompactDecimalElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        private fun create(
+            unscaledValue: Long,
+            scale: Int,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): CompactDecimalElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(unscaledValue, scale) else Full(unscaledValue, scale, annotations, metas)
+
+        /** Powers of ten that fit in a long, indexed by exponent. */
+        private val POWERS_OF_TEN = LongArray(19).also { powers ->
+            powers[0] = 1
+            for (i in 1 until powers.size) powers[i] = powers[i - 1] * 10
+        }
+
+        /**
+         * Returns a [CompactDecimalElementImpl] with the given value, or null if the value cannot be stored as a
+         * [CompactDecimalElementImpl].
+         */
+        fun compactDecimalOrNull(
+            unscaledValue: Long,
+            scale: Int,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): CompactDecimalElementImpl? =
+            if (unscaledValue == Long.MIN_VALUE) null else create(unscaledValue, scale, annotations, metas)
+
+        /**
+         * Returns a [CompactDecimalElementImpl] equivalent to [decimal], or null if [decimal] is negative zero or its
+         * unscaled value does not fit in a long.
+         */
+        fun compactDecimalOrNull(
+            decimal: Decimal,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): CompactDecimalElementImpl? {
+            if (decimal.isNegativeZero) return null
+            val unscaled = decimal.unscaledValue()
+            if (unscaled.bitLength() > 63) return null
+            return compactDecimalOrNull(unscaled.toLong(), decimal.scale(), annotations, metas)
+        }
+
+        /**
+         * Returns the unscaled value of [x] rescaled to [scale], which must not be less than the scale of [x], or null
+         * if the result does not fit in a long.
+         */
+        private fun rescale(x: CompactDecimalElementImpl, scale: Int): Long? {
+            val exponent = scale.toLong() - x.scale
+            if (exponent >= POWERS_OF_TEN.size) return null
+            return try {
+                Math.multiplyExact(x.unscaledValue, POWERS_OF_TEN[exponent.toInt()])
+            } catch (e: ArithmeticException) {
+                null
+            }
+        }
+
+        /**
+         * Compares the numeric values of [x] and [y] like [java.math.BigDecimal.compareTo], or returns null if they
+         * cannot be compared without creating their [Decimal]s.
+         */
+        fun compareValuesOrNull(x: CompactDecimalElementImpl, y: CompactDecimalElementImpl): Int? {
+            if (x.scale == y.scale) return x.unscaledValue.compareTo(y.unscaledValue)
+            // Numbers with different signs can be compared regardless of their scales.
+            val signs = java.lang.Long.signum(x.unscaledValue).compareTo(java.lang.Long.signum(y.unscaledValue))
+            if (signs != 0) return signs
+            return if (x.scale < y.scale) {
+                rescale(x, y.scale)?.compareTo(y.unscaledValue)
+            } else {
+                rescale(y, x.scale)?.let { x.unscaledValue.compareTo(it) }
+            }
+        }
+
+        /**
+         * Returns `x + addend` with the annotations and metas of [x], where [addend] is an integer, or null if the
+         * result cannot be calculated without creating a [Decimal]. This follows [java.math.BigDecimal.add], so the
+         * scale of the result is the greater of the scale of [x] and 0.
+         */
+        fun addIntegerOrNull(x: CompactDecimalElementImpl, addend: Long): DecimalElement? {
+            if (x.scale < 0 || x.scale >= POWERS_OF_TEN.size) return null
+            return try {
+                val unscaled = Math.addExact(x.unscaledValue, Math.multiplyExact(addend, POWERS_OF_TEN[x.scale]))
+                compactDecimalOrNull(unscaled, x.scale, x.annotations, x.metas)
+            } catch (e: ArithmeticException) {
+                null
+            }
+        }
+
+        /** Returns `-x` with the annotations and metas of [x]. */
+        fun negate(x: CompactDecimalElementImpl): DecimalElement =
+            // Long.MIN_VALUE is never stored, so this cannot overflow, and Decimal.valueOf(-0d0) is also positive zero.
+            create(-x.unscaledValue, x.scale, x.annotations, x.metas)
+    }
+}
+
+/**
+ * Creates a [DecimalElement] for [decimal], using a [CompactDecimalElementImpl] if possible. When [decimal] has just
+ * been read from an [IonReader], it is garbage once this returns; see [CompactDecimalElementImpl].
+ */
+internal fun decimalElement(decimal: Decimal, annotations: ImmutableList<String>, metas: ImmutableMetaContainer): AnyElement =
+    CompactDecimalElementImpl.compactDecimalOrNull(decimal, annotations, metas)
+        ?: DecimalElementImpl(decimal, annotations, metas)
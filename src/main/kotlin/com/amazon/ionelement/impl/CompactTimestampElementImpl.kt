@@ -0,0 +1,185 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.IonWriter
+import com.amazon.ion.Timestamp
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.api.ImmutableMetaContainer
+import com.amazon.ionelement.impl.collections.*
+import java.math.BigDecimal
+
+/**
+ * A [TimestampElement] that stores its value in primitive fields rather than in a [Timestamp], which is a much larger
+ * object. The [Timestamp] is created each time that [timestampValue] is called, but [epochMillis] is stored, since it
+ * is used for comparisons.
+ *
+ * Only timestamps with at most 9 digits of fractional seconds can be stored this way; see [compactTimestampOrNull].
+ */
+internal sealed class CompactTimestampElementImpl(
+    /** The same as [Timestamp.getMillis]. */
+    val epochMillis: Long,
+    /** The local date and time fields, precision, fraction digits, and local offset, packed by [pack]. */
+    val fields: Long,
+    /** The fractional seconds of the timestamp, in nanoseconds. */
+    val nanos: Int
+) : AnyElementBase(), TimestampElement {
+
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
+    override val type: ElementType get() = ElementType.TIMESTAMP
+
+    override val timestampValue: Timestamp
+        get() {
+            val year = field(YEAR_SHIFT, YEAR_BITS)
+            val month = field(MONTH_SHIFT, MONTH_BITS)
+            val day = field(DAY_SHIFT, DAY_BITS)
+            val hour = field(HOUR_SHIFT, HOUR_BITS)
+            val minute = field(MINUTE_SHIFT, MINUTE_BITS)
+            val second = field(SECOND_SHIFT, SECOND_BITS)
+            val offsetField = field(OFFSET_SHIFT, OFFSET_BITS)
+            val offset = if (offsetField == UNKNOWN_OFFSET) null else offsetField - OFFSET_BIAS
+            val fractionDigits = field(FRACTION_DIGITS_SHIFT, FRACTION_DIGITS_BITS)
+            return when (PRECISIONS[field(PRECISION_SHIFT, PRECISION_BITS)]) {
+                Timestamp.Precision.YEAR -> Timestamp.forYear(year)
+                Timestamp.Precision.MONTH -> Timestamp.forMonth(year, month)
+                Timestamp.Precision.DAY -> Timestamp.forDay(year, month, day)
+                Timestamp.Precision.MINUTE -> Timestamp.forMinute(year, month, day, hour, minute, offset)
+                else -> if (fractionDigits == NO_FRACTION) {
+                    Timestamp.forSecond(year, month, day, hour, minute, second, offset)
+                } else {
+                    val decimalSecond = BigDecimal.valueOf(second * NANOS_PER_SECOND + nanos, 9).setScale(fractionDigits)
+                    Timestamp.forSecond(year, month, day, hour, minute, decimalSecond, offset)
+                }
+            }
+        }
+
+    /**
+     * The hash code of this timestamp's value. Two timestamps are equivalent if and only if their [fields] and [nanos]
+     * are equal, so this does not need [epochMillis].
+     */
+    fun timestampHashCode(): Int = fields.hashCode() * 31 + nanos
+
+    private fun field(shift: Int, bits: Int): Int = ((fields ushr shift) and ((1L shl bits) - 1)).toInt()
+
+    override fun copy(annotations: List<String>, metas: MetaContainer): CompactTimestampElementImpl =
+        create(epochMillis, fields, nanos, annotations.toImmutableList(), metas.toImmutableMap())
+
+    override fun withAnnotations(vararg additionalAnnotations: String): CompactTimestampElementImpl = _withAnnotations(*additionalAnnotations)
+    override fun withAnnotations(additionalAnnotations: Iterable<String>): CompactTimestampElementImpl = _withAnnotations(additionalAnnotations)
+    override fun withoutAnnotations(): CompactTimestampElementImpl = _withoutAnnotations()
+    override fun withMetas(additionalMetas: MetaContainer): CompactTimestampElementImpl = _withMetas(additionalMetas)
+    override fun withMeta(key: String, value: Any): CompactTimestampElementImpl = _withMeta(key, value)
+    override fun withoutMetas(): CompactTimestampElementImpl = _withoutMetas()
+
+    override fun writeContentTo(writer: IonWriter) = writer.writeTimestamp(timestampValue)
+
+    override fun equals(other: Any?): Boolean = isEquivalentTo(other)
+    override fun hashCode(): Int = hashElement(this)
+
+    /** A [CompactTimestampElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(epochMillis: Long, fields: Long, nanos: Int) : CompactTimestampElementImpl(epochMillis, fields, nanos) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        epochMillis: Long,
+        fields: Long,
+        nanos: Int,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : CompactTimestampElementImpl(epochMillis, fields, nanos)
+
+    companion object {
+        /** Creates a [CompactTimestampElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        fun create(
+            epochMillis: Long,
+            fields: Long,
+            nanos: Int,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): CompactTimestampElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) {
+                Slim(epochMillis, fields, nanos)
+            } else {
+                Full(epochMillis, fields, nanos, annotations, metas)
+            }
+
+        // The layout of `fields`, from the least significant bit. This is part of the encoding that fingerprintElement
+        // uses for timestamps, so it must not change.
+        private const val SECOND_SHIFT = 0
+        private const val SECOND_BITS = 6
+        private const val MINUTE_SHIFT = 6
+        private const val MINUTE_BITS = 6
+        private const val HOUR_SHIFT = 12
+        private const val HOUR_BITS = 5
+        private const val DAY_SHIFT = 17
+        private const val DAY_BITS = 5
+        private const val MONTH_SHIFT = 22
+        private const val MONTH_BITS = 4
+        private const val YEAR_SHIFT = 26
+        private const val YEAR_BITS = 14
+        private const val PRECISION_SHIFT = 40
+        private const val PRECISION_BITS = 3
+        private const val FRACTION_DIGITS_SHIFT = 43
+        private const val FRACTION_DIGITS_BITS = 4
+        private const val OFFSET_SHIFT = 47
+        private const val OFFSET_BITS = 12
+
+        /** The value of the fraction digits field for a timestamp without fractional seconds. */
+        private const val NO_FRACTION = 15
+        /** The value of the offset field for an unknown offset; other offsets are stored as minutes + [OFFSET_BIAS]. */
+        private const val UNKNOWN_OFFSET = 0
+        private const val OFFSET_BIAS = 2048
+
+        private val PRECISIONS = Timestamp.Precision.values()
+        private const val NANOS_PER_SECOND = 1_000_000_000L
+
+        /**
+         * Returns a [CompactTimestampElementImpl] equivalent to [timestamp], or null if [timestamp] has more than 9
+         * digits of fractional seconds.
+         */
+        fun compactTimestampOrNull(
+            timestamp: Timestamp,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): CompactTimestampElementImpl? {
+            var fractionDigits = NO_FRACTION
+            var nanos = 0
+            val decimalSecond = timestamp.decimalSecond
+            if (decimalSecond.scale() != 0) {
+                fractionDigits = decimalSecond.scale()
+                if (fractionDigits < 1 || fractionDigits > 9) return null
+                nanos = (decimalSecond.movePointRight(9).longValueExact() % NANOS_PER_SECOND).toInt()
+            }
+            val offset = timestamp.localOffset
+            val fields = pack(SECOND_SHIFT, timestamp.second) or
+                pack(MINUTE_SHIFT, timestamp.minute) or
+                pack(HOUR_SHIFT, timestamp.hour) or
+                pack(DAY_SHIFT, timestamp.day) or
+                pack(MONTH_SHIFT, timestamp.month) or
+                pack(YEAR_SHIFT, timestamp.year) or
+                pack(PRECISION_SHIFT, timestamp.precision.ordinal) or
+                pack(FRACTION_DIGITS_SHIFT, fractionDigits) or
+                pack(OFFSET_SHIFT, if (offset == null) UNKNOWN_OFFSET else offset + OFFSET_BIAS)
+            return create(timestamp.millis, fields, nanos, annotations, metas)
+        }
+
+        private fun pack(shift: Int, value: Int): Long = value.toLong() shl shift
+    }
+}
+
+/** Creates a [TimestampElement] for [timestamp], using a [CompactTimestampElementImpl] if possible. */
+internal fun timestampElement(timestamp: Timestamp, annotations: ImmutableList<String>, metas: ImmutableMetaContainer): AnyElement =
+    CompactTimestampElementImpl.compactTimestampOrNull(timestamp, annotations, metas)
+        ?: TimestampElementImpl(timestamp, annotations, metas)
+
+/**
+ * Returns [this] timestamp element if it is a [CompactTimestampElementImpl], or else an equivalent
+ * [CompactTimestampElementImpl] without annotations or metas, or null if its value cannot be stored that way.
+ */
+internal fun AnyElement.asCompactTimestampOrNull(): CompactTimestampElementImpl? =
+    this as? CompactTimestampElementImpl
+        ?: CompactTimestampElementImpl.compactTimestampOrNull(timestampValue, EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
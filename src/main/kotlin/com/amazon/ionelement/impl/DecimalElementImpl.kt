@@ -21,11 +21,12 @@ import com.amazon.ionelement.api.*
 import com.amazon.ionelement.api.ImmutableMetaContainer
 import com.amazon.ionelement.impl.collections.*
 
-internal class DecimalElementImpl(
-    override val decimalValue: Decimal,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class DecimalElementImpl(
+    override val decimalValue: Decimal
 ) : AnyElementBase(), DecimalElement {
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val type get() = ElementType.DECIMAL
 
     override fun copy(annotations: List<String>, metas: MetaContainer): DecimalElementImpl =
@@ -42,4 +43,26 @@ internal class DecimalElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [DecimalElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(decimalValue: Decimal) : DecimalElementImpl(decimalValue) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        decimalValue: Decimal,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : DecimalElementImpl(decimalValue)
+
+    companion object {
+        /** Creates a [DecimalElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            decimalValue: Decimal,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): DecimalElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(decimalValue) else Full(decimalValue, annotations, metas)
+    }
 }
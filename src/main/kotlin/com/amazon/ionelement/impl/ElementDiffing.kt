@@ -0,0 +1,213 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+
+/** Returns the edits that transform [old] into [new]. See [diffElements]. */
+internal fun diffTrees(old: AnyElement, new: AnyElement): List<ElementEdit> {
+    val edits = ArrayList<ElementEdit>()
+    Differ(edits).diff(old, new)
+    return edits
+}
+
+private class Differ(private val edits: MutableList<ElementEdit>) {
+    /** The path from the root to the elements currently being compared. */
+    private val path = ArrayList<PathSegment>()
+
+    fun diff(old: AnyElement, new: AnyElement) {
+        if (isSame(old, new)) return
+        val comparable = old.type == new.type && old.isNonNullContainer && new.isNonNullContainer &&
+            old.annotations == new.annotations
+        when {
+            !comparable -> edits.add(ElementEdit.Changed(path.toList(), old, new))
+            old.type == ElementType.STRUCT -> diffStructs(old.structFields, new.structFields)
+            else -> diffSeqs(old.seqValues, new.seqValues)
+        }
+    }
+
+    private fun diffSeqs(old: List<AnyElement>, new: List<AnyElement>) {
+        val minSize = minOf(old.size, new.size)
+        var prefix = 0
+        while (prefix < minSize && isSame(old[prefix], new[prefix])) prefix++
+        var suffix = 0
+        while (suffix < minSize - prefix && isSame(old[old.size - 1 - suffix], new[new.size - 1 - suffix])) suffix++
+
+        val oldMiddle = old.size - suffix - prefix
+        val newMiddle = new.size - suffix - prefix
+        val common = minOf(oldMiddle, newMiddle)
+        for (i in prefix until prefix + common) {
+            withSegment(PathSegment.Index(i)) { diff(old[i], new[i]) }
+        }
+        // Each removal shifts the following elements down, so the extra old elements are all removed at the same index.
+        for (i in prefix + common until prefix + oldMiddle) {
+            edits.add(ElementEdit.Removed(path + PathSegment.Index(prefix + common), old[i]))
+        }
+        for (i in prefix + common until prefix + newMiddle) {
+            edits.add(ElementEdit.Added(path + PathSegment.Index(i), new[i]))
+        }
+    }
+
+    private fun diffStructs(old: Collection<StructField>, new: Collection<StructField>) {
+        val oldByName = old.groupByName()
+        val newByName = new.groupByName()
+        oldByName.forEach { (name, oldValues) -> diffFields(name, oldValues, newByName[name] ?: emptyList()) }
+        newByName.forEach { (name, newValues) -> if (name !in oldByName) diffFields(name, emptyList(), newValues) }
+    }
+
+    /** Compares the values of the fields named [name] in the old and new structs. */
+    private fun diffFields(name: String, old: List<AnyElement>, new: List<AnyElement>) {
+        // Pair up identical values first, since the order of fields is not significant.
+        val unmatchedNew = new.toMutableList()
+        val unmatchedOld = ArrayList<Int>()
+        old.forEachIndexed { i, value ->
+            val match = unmatchedNew.indexOfFirst { isSame(value, it) }
+            if (match >= 0) unmatchedNew.removeAt(match) else unmatchedOld.add(i)
+        }
+
+        val common = minOf(unmatchedOld.size, unmatchedNew.size)
+        for (i in 0 until common) {
+            val occurrence = unmatchedOld[i]
+            withSegment(PathSegment.Field(name, occurrence)) { diff(old[occurrence], unmatchedNew[i]) }
+        }
+        // Removing an occurrence shifts the later occurrences down, so they are removed from last to first.
+        for (i in unmatchedOld.size - 1 downTo common) {
+            val occurrence = unmatchedOld[i]
+            edits.add(ElementEdit.Removed(path + PathSegment.Field(name, occurrence), old[occurrence]))
+        }
+        var occurrence = old.size - (unmatchedOld.size - common)
+        for (i in common until unmatchedNew.size) {
+            edits.add(ElementEdit.Added(path + PathSegment.Field(name, occurrence++), unmatchedNew[i]))
+        }
+    }
+
+    private inline fun withSegment(segment: PathSegment, block: () -> Unit) {
+        path.add(segment)
+        block()
+        path.removeAt(path.size - 1)
+    }
+}
+
+/** Returns true if [a] and [b] are equal, using their (cached) fingerprints rather than traversing them. */
+private fun isSame(a: AnyElement, b: AnyElement): Boolean =
+    a === b || (a.type == b.type && fingerprintElement(a) == fingerprintElement(b))
+
+private fun Collection<StructField>.groupByName(): Map<String, List<AnyElement>> =
+    groupByTo(LinkedHashMap(), { it.name }, { it.value })
+
+/** Returns a copy of [this] with [edit] applied. See [applyEdits]. */
+internal fun AnyElement.applyEdit(edit: ElementEdit): AnyElement = applyEdit(this, edit, 0)
+
+private fun applyEdit(element: AnyElement, edit: ElementEdit, depth: Int): AnyElement {
+    val path = edit.path
+    if (depth == path.size) {
+        // Only a Changed edit can have a path that ends at an existing element; Added and Removed edits end at a
+        // segment of their container.
+        edit as ElementEdit.Changed
+        checkOldValue(element, edit.oldValue, edit)
+        return edit.newValue
+    }
+    val segment = path[depth]
+    if (depth == path.size - 1 && edit !is ElementEdit.Changed) {
+        return when (edit) {
+            is ElementEdit.Added -> element.withChildAdded(segment, edit.value, edit)
+            is ElementEdit.Removed -> element.withChildRemoved(segment, edit)
+            is ElementEdit.Changed -> error("Unreachable")
+        }
+    }
+    val child = element.childAt(segment, edit)
+    val newChild = applyEdit(child.value, edit, depth + 1)
+    return element.withChildReplaced(child.index, newChild)
+}
+
+/** A child of a container and its index in the container's values or fields. */
+private class Child(val index: Int, val value: AnyElement)
+
+private fun AnyElement.childAt(segment: PathSegment, edit: ElementEdit): Child {
+    if (isNull) invalidEdit(edit, "$this is null")
+    return when (segment) {
+        is PathSegment.Index -> {
+            if (!type.isSeq) invalidEdit(edit, "$type has no index ${segment.index}")
+            val values = seqValues
+            if (segment.index >= values.size) invalidEdit(edit, "index ${segment.index} is out of bounds")
+            Child(segment.index, values[segment.index])
+        }
+        is PathSegment.Field -> {
+            if (type != ElementType.STRUCT) invalidEdit(edit, "$type has no field '${segment.name}'")
+            val fields = structFields.asList()
+            val index = fields.indexOfOccurrence(segment)
+            if (index < 0) invalidEdit(edit, "there is no occurrence ${segment.occurrence} of field '${segment.name}'")
+            Child(index, fields[index].value)
+        }
+    }
+}
+
+private fun AnyElement.withChildReplaced(index: Int, value: AnyElement): AnyElement =
+    if (type == ElementType.STRUCT) {
+        val fields = structFields.asList()
+        rebuildStruct(fields.toMutableList().apply { set(index, StructFieldImpl(fields[index].name, value)) })
+    } else {
+        asSeq().withSet(index, value).asAnyElement()
+    }
+
+private fun AnyElement.withChildAdded(segment: PathSegment, value: AnyElement, edit: ElementEdit): AnyElement {
+    if (isNull) invalidEdit(edit, "$this is null")
+    return when (segment) {
+        is PathSegment.Index -> {
+            if (!type.isSeq) invalidEdit(edit, "$type has no index ${segment.index}")
+            val values = seqValues
+            if (segment.index > values.size) invalidEdit(edit, "index ${segment.index} is out of bounds")
+            rebuildSeq(values.toMutableList().apply { add(segment.index, value) })
+        }
+        is PathSegment.Field -> {
+            if (type != ElementType.STRUCT) invalidEdit(edit, "$type has no field '${segment.name}'")
+            val fields = structFields
+            val count = fields.count { it.name == segment.name }
+            if (segment.occurrence != count) {
+                invalidEdit(edit, "the new field would be occurrence $count of field '${segment.name}'")
+            }
+            rebuildStruct(fields + StructFieldImpl(segment.name, value))
+        }
+    }
+}
+
+private fun AnyElement.withChildRemoved(segment: PathSegment, edit: ElementEdit.Removed): AnyElement {
+    val child = childAt(segment, edit)
+    checkOldValue(child.value, edit.oldValue, edit)
+    return if (type == ElementType.STRUCT) {
+        rebuildStruct(structFields.asList().toMutableList().apply { removeAt(child.index) })
+    } else {
+        rebuildSeq(seqValues.toMutableList().apply { removeAt(child.index) })
+    }
+}
+
+// The lists passed to these functions are always new copies, so they can safely be wrapped rather than copied again.
+
+private fun AnyElement.rebuildStruct(fields: List<StructField>): AnyElement =
+    StructElementImpl(fields.toImmutableListUnsafe(), annotations.toImmutableList(), metas.toImmutableMap())
+
+private fun AnyElement.rebuildSeq(values: List<AnyElement>): AnyElement =
+    if (type == ElementType.LIST) {
+        ListElementImpl(values.toImmutableListUnsafe(), annotations.toImmutableList(), metas.toImmutableMap())
+    } else {
+        SexpElementImpl(values.toImmutableListUnsafe(), annotations.toImmutableList(), metas.toImmutableMap())
+    }
+
+/** Returns the index of the field that [segment] refers to, or -1 if there is no such field. */
+private fun List<StructField>.indexOfOccurrence(segment: PathSegment.Field): Int {
+    var remaining = segment.occurrence
+    forEachIndexed { i, field ->
+        if (field.name == segment.name && remaining-- == 0) return i
+    }
+    return -1
+}
+
+private fun checkOldValue(actual: AnyElement, expected: AnyElement, edit: ElementEdit) {
+    if (!isSame(actual, expected)) invalidEdit(edit, "the current value is $actual")
+}
+
+private fun invalidEdit(edit: ElementEdit, reason: String): Nothing =
+    throw IllegalArgumentException("Cannot apply $edit: $reason")
+
+private fun <T> Collection<T>.asList(): List<T> = this as? List<T> ?: toList()
@@ -0,0 +1,104 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+
+/** Returns true if [this] is a non-null list, sexp, or struct. */
+internal val AnyElement.isNonNullContainer: Boolean
+    get() = !isNull && type.isContainer
+
+/**
+ * Applies [transformer] to every element in the tree rooted at [this], in post-order.
+ *
+ * The traversal uses an explicit stack (rather than recursion), and containers are only rebuilt if at least one of
+ * their children was replaced.
+ */
+internal fun AnyElement.transformTree(transformer: ElementTransformer): AnyElement {
+    if (!isNonNullContainer) return transformer.transform(null, this).asAnyElement()
+
+    val stack = ArrayList<TransformFrame>()
+    stack.add(TransformFrame(null, this))
+    while (true) {
+        val frame = stack[stack.size - 1]
+        if (frame.hasNext()) {
+            val child = frame.next()
+            if (child.isNonNullContainer) {
+                stack.add(TransformFrame(frame.currentFieldName, child))
+            } else {
+                frame.setCurrent(transformer.transform(frame.currentFieldName, child).asAnyElement())
+            }
+        } else {
+            stack.removeAt(stack.size - 1)
+            val transformed = transformer.transform(frame.fieldName, frame.rebuild()).asAnyElement()
+            if (stack.isEmpty()) return transformed
+            stack[stack.size - 1].setCurrent(transformed)
+        }
+    }
+}
+
+/**
+ * The state of a container whose children are being transformed.
+ *
+ * [newChildren] is not allocated unless a child is replaced.
+ */
+private class TransformFrame(val fieldName: String?, private val container: AnyElement) {
+    private val fields: List<StructField>? =
+        if (container.type == ElementType.STRUCT) container.structFields.asList() else null
+    private val values: List<AnyElement>? =
+        if (fields == null) container.seqValues else null
+    private val size: Int = fields?.size ?: values!!.size
+    private var index = 0
+    private var newChildren: Array<AnyElement?>? = null
+
+    // The child most recently returned by `next` (and its field). These are kept, rather than read from the container
+    // again, because some lists (e.g. primitive, columnar, and arena lists) create a new element on every read.
+    private var currentField: StructField? = null
+    private var current: AnyElement? = null
+
+    /** The field name of the child most recently returned by [next], if any. */
+    val currentFieldName: String? get() = currentField?.name
+
+    fun hasNext(): Boolean = index < size
+
+    fun next(): AnyElement {
+        val field = fields?.get(index)
+        val child = field?.value ?: values!![index]
+        index++
+        currentField = field
+        current = child
+        return child
+    }
+
+    /** Sets the replacement for the child most recently returned by [next]. */
+    fun setCurrent(replacement: AnyElement) {
+        if (replacement === current) return
+        val newChildren = newChildren ?: arrayOfNulls<AnyElement>(size).also { newChildren = it }
+        newChildren[index - 1] = replacement
+    }
+
+    /** Returns the container with all replacements applied, or the original container if there were none. */
+    fun rebuild(): AnyElement {
+        val newChildren = newChildren ?: return container
+        val annotations = container.annotations.toImmutableList()
+        val metas = container.metas.toImmutableMap()
+        return when (container.type) {
+            ElementType.STRUCT -> {
+                val fields = fields!!
+                val newFields = Array<StructField>(size) { i ->
+                    newChildren[i]?.let { StructFieldImpl(fields[i].name, it) } ?: fields[i]
+                }
+                StructElementImpl(newFields.toImmutableListUnsafe(), annotations, metas)
+            }
+            ElementType.LIST -> ListElementImpl(newValues(newChildren), annotations, metas)
+            ElementType.SEXP -> SexpElementImpl(newValues(newChildren), annotations, metas)
+            else -> error("Unreachable: ${container.type} is not a container type")
+        }
+    }
+
+    private fun newValues(newChildren: Array<AnyElement?>): ImmutableList<AnyElement> =
+        Array(size) { i -> newChildren[i] ?: values!![i] }.toImmutableListUnsafe()
+
+    private fun <T> Collection<T>.asList(): List<T> = this as? List<T> ?: toList()
+}
@@ -0,0 +1,13 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ionelement.api.ElementFingerprint
+
+/**
+ * Implemented by container elements to store the result of [com.amazon.ionelement.api.fingerprintElement], so that
+ * it is calculated at most once for each container.
+ */
+internal interface FingerprintCache {
+    var cachedFingerprint: ElementFingerprint?
+}
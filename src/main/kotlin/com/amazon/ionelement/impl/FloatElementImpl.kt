@@ -20,11 +20,12 @@ import com.amazon.ionelement.api.*
 import com.amazon.ionelement.api.ImmutableMetaContainer
 import com.amazon.ionelement.impl.collections.*
 
-internal class FloatElementImpl(
-    override val doubleValue: Double,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class FloatElementImpl(
+    override val doubleValue: Double
 ) : AnyElementBase(), FloatElement {
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val type: ElementType get() = ElementType.FLOAT
 
     override fun copy(annotations: List<String>, metas: MetaContainer): FloatElementImpl =
@@ -41,4 +42,26 @@ internal class FloatElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [FloatElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(doubleValue: Double) : FloatElementImpl(doubleValue) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        doubleValue: Double,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : FloatElementImpl(doubleValue)
+
+    companion object {
+        /** Creates a [FloatElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            doubleValue: Double,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): FloatElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(doubleValue) else Full(doubleValue, annotations, metas)
+    }
 }
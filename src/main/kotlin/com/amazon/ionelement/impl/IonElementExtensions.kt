@@ -35,6 +35,10 @@ internal inline fun <reified T : IonElement> T._withoutAnnotations(): T =
         else -> this
     }
 
+/** Returns a deep copy of the current node with all annotations removed, reusing subtrees that have none. */
+internal fun AnyElement._withoutAnnotationsDeep(): AnyElement =
+    transformTree { _, element -> if (element.annotations.isEmpty()) element else element.withoutAnnotations() }
+
 /**
  * Returns a shallow copy of the current node with the specified additional metadata, overwriting any metas
  * that already exist with the same keys.
@@ -60,3 +64,7 @@ internal inline fun <reified T : IonElement> T._withoutMetas(): T =
         metas.isEmpty() -> this
         else -> copy(metas = emptyMetaContainer(), annotations = annotations) as T
     }
+
+/** Returns a deep copy of the current node without any metadata, reusing subtrees that have none. */
+internal fun AnyElement._withoutMetasDeep(): AnyElement =
+    transformTree { _, element -> if (element.metas.isEmpty()) element else element.withoutMetas() }
@@ -29,7 +29,14 @@ import java.util.ArrayDeque
 import java.util.ArrayList
 import kotlinx.collections.immutable.adapters.ImmutableListAdapter
 
-internal class IonElementLoaderImpl(private val options: IonElementLoaderOptions) : IonElementLoader {
+internal class IonElementLoaderImpl(
+    private val options: IonElementLoaderOptions,
+    /**
+     * Collects the metrics of the value that is being loaded, if [IonElementLoaderOptions.loaderMetrics] is set. A new
+     * loader is created for each value (see [measure]) so that loaders can still be shared between threads.
+     */
+    private val metrics: LoadedValueMetrics? = null,
+) : IonElementLoader {
 
     companion object {
         private const val DEFAULT_MAX_RECURSION_DEPTH: Int = 100
@@ -95,7 +102,85 @@ internal class IonElementLoaderImpl(private val options: IonElementLoaderOptions
         IonReaderBuilder.standard().build(ionText).use(::loadAllElements)
 
     override fun loadCurrentElement(ionReader: IonReader): AnyElement {
-        return loadCurrentElementRecursively(ionReader)
+        val loaderMetrics = options.loaderMetrics ?: return loadCurrentElementRecursively(ionReader)
+        return measure(ionReader, loaderMetrics) { loadCurrentElementRecursively(ionReader) }
+    }
+
+    override fun loadCurrentElement(ionReader: IonReader, filter: StructFilter): StructElement? {
+        return handleReaderException(ionReader) {
+            val valueType = requireNotNull(ionReader.type) { "The IonReader was not positioned at an element." }
+            if (valueType != IonType.STRUCT || ionReader.isNullValue) {
+                null
+            } else {
+                val loaderMetrics = options.loaderMetrics
+                if (loaderMetrics == null) {
+                    loadCurrentStructIfMatches(ionReader, filter)
+                } else {
+                    measure(ionReader, loaderMetrics) { loadCurrentStructIfMatches(ionReader, filter) }
+                }
+            }
+        }
+    }
+
+    override fun loadAllElements(ionReader: IonReader, filter: StructFilter): List<StructElement> {
+        return handleReaderException(ionReader) {
+            val elements = mutableListOf<StructElement>()
+            while (ionReader.next() != null) {
+                loadCurrentElement(ionReader, filter)?.let { elements.add(it) }
+            }
+            elements
+        }
+    }
+
+    /**
+     * Loads the current value using [block] on a loader that collects its [LoadedValueMetrics], and then reports them to
+     * [loaderMetrics].
+     */
+    private inline fun <T> measure(ionReader: IonReader, loaderMetrics: LoaderMetrics, block: IonElementLoaderImpl.() -> T): T {
+        val valueMetrics = LoadedValueMetrics(ionReader.depth)
+        val start = System.nanoTime()
+        val result = IonElementLoaderImpl(options, valueMetrics).block()
+        valueMetrics.elapsedNanos = System.nanoTime() - start
+        loaderMetrics.valueLoaded(valueMetrics)
+        return result
+    }
+
+    /**
+     * Loads the current (non-null) struct, evaluating each condition of [filter] as soon as its field has been read.
+     * Returns null--without reading the rest of the struct--as soon as a condition fails.
+     */
+    private fun loadCurrentStructIfMatches(ionReader: IonReader, filter: StructFilter): StructElement? {
+        val annotations = ionReader.typeAnnotations!!.toImmutableListUnsafe()
+
+        var metas = EMPTY_METAS
+        if (options.includeLocationMeta) {
+            val location = ionReader.currentLocation()
+            if (location != null) metas = location.toMetaContainer()
+        }
+
+        val evaluated = BooleanArray(filter.size)
+        var unsatisfied = filter.size
+        val fields = ArrayList<StructField>()
+        ionReader.stepIn()
+        while (ionReader.next() != null) {
+            val fieldName = ionReader.fieldName
+            val element = loadCurrentElementRecursively(ionReader)
+            val conditionIndex = filter.indexOf(fieldName)
+            // Only the first field with a given name is used to evaluate the condition for that name.
+            if (conditionIndex >= 0 && !evaluated[conditionIndex]) {
+                evaluated[conditionIndex] = true
+                if (!filter.test(conditionIndex, element)) {
+                    ionReader.stepOut()
+                    metrics?.record(ElementType.STRUCT, ionReader.depth)
+                    return null
+                }
+                unsatisfied--
+            }
+            fields.add(StructFieldImpl(fieldName, element))
+        }
+        ionReader.stepOut()
+        metrics?.record(ElementType.STRUCT, ionReader.depth)
+        return if (unsatisfied == 0) StructElementImpl(fields.toImmutableListUnsafe(), annotations, metas) else null
     }
 
     private fun loadCurrentElementRecursively(ionReader: IonReader): AnyElement {
@@ -133,24 +218,24 @@ internal class IonElementLoaderImpl(private val options: IonElementLoaderOptions
                     }
 
                     IonType.FLOAT -> FloatElementImpl(ionReader.doubleValue(), annotations, metas)
-                    IonType.DECIMAL -> DecimalElementImpl(ionReader.decimalValue(), annotations, metas)
-                    IonType.TIMESTAMP -> TimestampElementImpl(ionReader.timestampValue(), annotations, metas)
-                    IonType.STRING -> StringElementImpl(ionReader.stringValue(), annotations, metas)
+                    IonType.DECIMAL -> decimalElement(ionReader.decimalValue(), annotations, metas)
+                    IonType.TIMESTAMP -> timestampElement(ionReader.timestampValue(), annotations, metas)
+                    IonType.STRING -> loadString(ionReader, annotations, metas)
                     IonType.SYMBOL -> SymbolElementImpl(ionReader.stringValue(), annotations, metas)
                     IonType.CLOB -> ClobElementImpl(ionReader.newBytes(), annotations, metas)
                     IonType.BLOB -> BlobElementImpl(ionReader.newBytes(), annotations, metas)
                     IonType.LIST -> {
                         ionReader.stepIn()
-                        val listContent = ArrayList<AnyElement>()
-                        if (ionReader.depth < maxRecursionDepth) {
-                            while (ionReader.next() != null) {
-                                listContent.add(loadCurrentElementRecursively(ionReader))
-                            }
+                        val values = if (ionReader.depth < maxRecursionDepth) {
+                            loadListValuesRecursively(ionReader)
                         } else {
+                            val listContent = ArrayList<AnyElement>()
+                            metrics?.recordIterativeContainer()
                             loadAllElementsIteratively(ionReader, listContent as MutableList<Any>)
+                            toListValues(listContent)
                         }
                         ionReader.stepOut()
-                        ListElementImpl(listContent.toImmutableListUnsafe(), annotations, metas)
+                        ListElementImpl(values, annotations, metas)
                     }
                     IonType.SEXP -> {
                         ionReader.stepIn()
@@ -160,6 +245,7 @@ internal class IonElementLoaderImpl(private val options: IonElementLoaderOptions
                                 sexpContent.add(loadCurrentElementRecursively(ionReader))
                             }
                         } else {
+                            metrics?.recordIterativeContainer()
                             loadAllElementsIteratively(ionReader, sexpContent as MutableList<Any>)
                         }
                         ionReader.stepOut()
@@ -175,6 +261,7 @@ internal class IonElementLoaderImpl(private val options: IonElementLoaderOptions
                                 fields.add(StructFieldImpl(fieldName, element))
                             }
                         } else {
+                            metrics?.recordIterativeContainer()
                             loadAllElementsIteratively(ionReader, fields as MutableList<Any>)
                         }
                         ionReader.stepOut()
@@ -183,10 +270,45 @@ internal class IonElementLoaderImpl(private val options: IonElementLoaderOptions
                     IonType.DATAGRAM -> error("IonElementLoaderImpl does not know what to do with IonType.DATAGRAM")
                     IonType.NULL -> error("IonType.NULL branch should be unreachable")
                 }
-            }.asAnyElement()
+            }.asAnyElement().also { metrics?.record(it, ionReader.depth) }
         }
     }
 
+    /**
+     * Loads the values of the list that [ionReader] has stepped into. While the values can be stored in a primitive
+     * array, they are read straight into the array; the elements for them are only created if a value that cannot be
+     * stored in the array follows.
+     */
+    private fun loadListValuesRecursively(ionReader: IonReader): ImmutableList<AnyElement> {
+        var valueType = ionReader.next()
+        if (options.includeLocationMeta) {
+            // Every value has its own location, so none of them can be stored in a primitive array.
+            val listContent = ArrayList<AnyElement>()
+            while (valueType != null) {
+                listContent.add(loadCurrentElementRecursively(ionReader))
+                valueType = ionReader.next()
+            }
+            return toListValues(listContent)
+        }
+        val primitives = PrimitiveArrayListReader()
+        while (valueType != null && primitives.read(ionReader, valueType)) {
+            metrics?.record(valueType.toElementType(), ionReader.depth)
+            valueType = ionReader.next()
+        }
+        if (valueType == null) primitives.toList()?.let { return it }
+        val listContent = primitives.toElements()
+        while (valueType != null) {
+            listContent.add(loadCurrentElementRecursively(ionReader))
+            valueType = ionReader.next()
+        }
+        return toListValues(listContent)
+    }
+
+    private fun toListValues(listContent: ArrayList<AnyElement>): ImmutableList<AnyElement> =
+        toPrimitiveArrayListOrNull(listContent)
+            ?: (if (options.useColumnarLists) ColumnarStructList.fromOrNull(listContent) else null)
+            ?: listContent.toImmutableListUnsafe()
+
     private fun loadAllElementsIteratively(ionReader: IonReader, into: MutableList<Any>) {
         // Intentionally not using a "recycling" stack because we have mutable lists that we are going to wrap as
         // ImmutableLists and then forget about the reference to the mutable list.
@@ -238,9 +360,9 @@ internal class IonElementLoaderImpl(private val options: IonElementLoaderOptions
                     elements.addContainerElement(ionReader, intValue)
                 }
                 IonType.FLOAT -> elements.addContainerElement(ionReader, FloatElementImpl(ionReader.doubleValue(), annotations, metas))
-                IonType.DECIMAL -> elements.addContainerElement(ionReader, DecimalElementImpl(ionReader.decimalValue(), annotations, metas))
-                IonType.TIMESTAMP -> elements.addContainerElement(ionReader, TimestampElementImpl(ionReader.timestampValue(), annotations, metas))
-                IonType.STRING -> elements.addContainerElement(ionReader, StringElementImpl(ionReader.stringValue(), annotations, metas))
+                IonType.DECIMAL -> elements.addContainerElement(ionReader, decimalElement(ionReader.decimalValue(), annotations, metas))
+                IonType.TIMESTAMP -> elements.addContainerElement(ionReader, timestampElement(ionReader.timestampValue(), annotations, metas))
+                IonType.STRING -> elements.addContainerElement(ionReader, loadString(ionReader, annotations, metas))
                 IonType.SYMBOL -> elements.addContainerElement(ionReader, SymbolElementImpl(ionReader.stringValue(), annotations, metas))
                 IonType.CLOB -> elements.addContainerElement(ionReader, ClobElementImpl(ionReader.newBytes(), annotations, metas))
                 IonType.BLOB -> elements.addContainerElement(ionReader, BlobElementImpl(ionReader.newBytes(), annotations, metas))
@@ -283,7 +405,30 @@ internal class IonElementLoaderImpl(private val options: IonElementLoaderOptions
         }
     }
 
+    /**
+     * Loads the current (non-null) string, keeping its UTF-8 bytes rather than decoding it if
+     * [IonElementLoaderOptions.retainUtf8Strings] is set and [ionReader] provides its raw bytes. Otherwise, the string
+     * is decoded, exactly as when [IonElementLoaderOptions.retainUtf8Strings] is not set.
+     */
+    @Suppress("DEPRECATION")
+    private fun loadString(ionReader: IonReader, annotations: ImmutableList<String>, metas: ImmutableMetaContainer): AnyElement {
+        if (options.retainUtf8Strings) {
+            // RawValueSpanProvider is deprecated in ion-java, but it is the only way to read the encoded bytes of a
+            // value. Readers that do not provide it return null, and their strings are decoded as usual.
+            val rawValues = ionReader.asFacet(com.amazon.ion.RawValueSpanProvider::class.java)
+            if (rawValues != null) {
+                // For strings, the value span is exactly the UTF-8 bytes of the string. They are copied because the
+                // reader reuses its buffer.
+                val span = rawValues.valueSpan() as OffsetSpan
+                val utf8 = rawValues.buffer().copyOfRange(span.startOffset.toInt(), span.finishOffset.toInt())
+                return utf8StringElement(utf8, annotations, metas)
+            }
+        }
+        return StringElementImpl(ionReader.stringValue(), annotations, metas)
+    }
+
     private fun MutableList<Any>.addContainerElement(ionReader: IonReader, value: AnyElement) {
+        metrics?.record(value, ionReader.depth)
         val fieldName = ionReader.fieldName
         if (fieldName != null) {
             add(StructFieldImpl(fieldName, value))
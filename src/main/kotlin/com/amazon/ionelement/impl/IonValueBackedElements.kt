@@ -0,0 +1,267 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.IonSequence
+import com.amazon.ion.IonStruct
+import com.amazon.ion.IonType
+import com.amazon.ion.IonValue
+import com.amazon.ion.IonWriter
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+import java.util.function.Consumer
+
+/*
+ * Read-only [AnyElement] views over a frozen [IonValue] tree.
+ *
+ * Only containers are wrapped--their children are not visited until they are accessed, at which point scalar children
+ * are converted to regular elements and container children are wrapped in another view. Each view creates the elements
+ * for its children once and keeps them, so reading a child again returns the same element. The children of a sequence
+ * are created one at a time as they are read; the children of a struct are all created the first time that any of them
+ * is read. Since the backing [IonValue] is read-only, the views are as immutable as any other element.
+ */
+
+/** Creates an [AnyElement] view of [this] read-only [IonValue]. */
+internal fun IonValue.toElementView(): AnyElement =
+    if (isNullValue) {
+        convertToElement()
+    } else when (type) {
+        IonType.LIST -> IonSequenceBackedListElement(this as IonSequence, null, EMPTY_METAS)
+        IonType.SEXP -> IonSequenceBackedSexpElement(this as IonSequence, null, EMPTY_METAS)
+        IonType.STRUCT -> IonStructBackedStructElement(this as IonStruct, null, EMPTY_METAS)
+        else -> convertToElement()
+    }
+
+/**
+ * Lazily reads the annotations of [ionValue], unless [annotationsOverride] has been specified because the view was
+ * created using `copy()` or one of the `with*` functions.
+ */
+private class IonValueAnnotations(private val ionValue: IonValue, annotationsOverride: ImmutableList<String>?) {
+    // Note that we are not using `by lazy` here because it requires 2 additional allocations and
+    // has been demonstrated to significantly increase memory consumption!
+    private var annotationsBackingField: ImmutableList<String>? = annotationsOverride
+
+    val isOverridden: Boolean = annotationsOverride != null
+
+    val annotations: ImmutableList<String>
+        get() {
+            if (annotationsBackingField == null) {
+                annotationsBackingField = ionValue.typeAnnotations.toImmutableListUnsafe()
+            }
+            return annotationsBackingField!!
+        }
+}
+
+/**
+ * An [ImmutableList] over the children of an [IonSequence] that creates the element for each child the first time
+ * that it is accessed.
+ */
+private class IonSequenceBackedList(private val ionSequence: IonSequence) : AbstractList<AnyElement>(), ImmutableList<AnyElement> {
+    private var children: Array<AnyElement?>? = null
+
+    override val size: Int get() = ionSequence.size
+
+    override fun get(index: Int): AnyElement {
+        val children = children ?: arrayOfNulls<AnyElement>(size).also { children = it }
+        return children[index] ?: ionSequence[index].toElementView().also { children[index] = it }
+    }
+
+    override fun subList(fromIndex: Int, toIndex: Int): ImmutableList<AnyElement> =
+        super<AbstractList>.subList(fromIndex, toIndex).toImmutableListUnsafe()
+}
+
+internal class IonSequenceBackedListElement(
+    private val ionSequence: IonSequence,
+    annotationsOverride: ImmutableList<String>?,
+    override val metas: ImmutableMetaContainer
+) : SeqElementBase(IonSequenceBackedList(ionSequence)), ListElement {
+    private val ionAnnotations = IonValueAnnotations(ionSequence, annotationsOverride)
+
+    override val type: ElementType get() = ElementType.LIST
+    override val annotations: ImmutableList<String> get() = ionAnnotations.annotations
+    override val listValues: List<AnyElement> get() = values
+
+    override fun writeTo(writer: IonWriter) {
+        if (ionAnnotations.isOverridden) super.writeTo(writer) else ionSequence.writeTo(writer)
+    }
+
+    override fun withAppended(value: IonElement): ListElementImpl =
+        ListElementImpl(persistentValues.add(value.asAnyElement()), annotations, metas)
+
+    override fun withSet(index: Int, value: IonElement): ListElementImpl =
+        ListElementImpl(persistentValues.set(index, value.asAnyElement()), annotations, metas)
+
+    override fun subList(fromIndex: Int, toIndex: Int): ListElementImpl =
+        ListElementImpl(values.subList(fromIndex, toIndex), annotations, metas)
+
+    override fun copy(annotations: List<String>, metas: MetaContainer): IonSequenceBackedListElement =
+        IonSequenceBackedListElement(ionSequence, annotations.toImmutableList(), metas.toImmutableMap())
+
+    override fun withAnnotations(vararg additionalAnnotations: String): IonSequenceBackedListElement = _withAnnotations(*additionalAnnotations)
+    override fun withAnnotations(additionalAnnotations: Iterable<String>): IonSequenceBackedListElement = _withAnnotations(additionalAnnotations)
+    override fun withoutAnnotations(): IonSequenceBackedListElement = _withoutAnnotations()
+    override fun withMetas(additionalMetas: MetaContainer): IonSequenceBackedListElement = _withMetas(additionalMetas)
+    override fun withMeta(key: String, value: Any): IonSequenceBackedListElement = _withMeta(key, value)
+    override fun withoutMetas(): IonSequenceBackedListElement = _withoutMetas()
+
+    override fun equals(other: Any?): Boolean = isEquivalentTo(other)
+    override fun hashCode(): Int = hashElement(this)
+}
+
+internal class IonSequenceBackedSexpElement(
+    private val ionSequence: IonSequence,
+    annotationsOverride: ImmutableList<String>?,
+    override val metas: ImmutableMetaContainer
+) : SeqElementBase(IonSequenceBackedList(ionSequence)), SexpElement {
+    private val ionAnnotations = IonValueAnnotations(ionSequence, annotationsOverride)
+
+    override val type: ElementType get() = ElementType.SEXP
+    override val annotations: ImmutableList<String> get() = ionAnnotations.annotations
+    override val sexpValues: List<AnyElement> get() = values
+
+    override fun writeTo(writer: IonWriter) {
+        if (ionAnnotations.isOverridden) super.writeTo(writer) else ionSequence.writeTo(writer)
+    }
+
+    override fun withAppended(value: IonElement): SexpElementImpl =
+        SexpElementImpl(persistentValues.add(value.asAnyElement()), annotations, metas)
+
+    override fun withSet(index: Int, value: IonElement): SexpElementImpl =
+        SexpElementImpl(persistentValues.set(index, value.asAnyElement()), annotations, metas)
+
+    override fun subList(fromIndex: Int, toIndex: Int): SexpElementImpl =
+        SexpElementImpl(values.subList(fromIndex, toIndex), annotations, metas)
+
+    override fun copy(annotations: List<String>, metas: MetaContainer): IonSequenceBackedSexpElement =
+        IonSequenceBackedSexpElement(ionSequence, annotations.toImmutableList(), metas.toImmutableMap())
+
+    override fun withAnnotations(vararg additionalAnnotations: String): IonSequenceBackedSexpElement = _withAnnotations(*additionalAnnotations)
+    override fun withAnnotations(additionalAnnotations: Iterable<String>): IonSequenceBackedSexpElement = _withAnnotations(additionalAnnotations)
+    override fun withoutAnnotations(): IonSequenceBackedSexpElement = _withoutAnnotations()
+    override fun withMetas(additionalMetas: MetaContainer): IonSequenceBackedSexpElement = _withMetas(additionalMetas)
+    override fun withMeta(key: String, value: Any): IonSequenceBackedSexpElement = _withMeta(key, value)
+    override fun withoutMetas(): IonSequenceBackedSexpElement = _withoutMetas()
+
+    override fun equals(other: Any?): Boolean = isEquivalentTo(other)
+    override fun hashCode(): Int = hashElement(this)
+}
+
+internal class IonStructBackedStructElement(
+    private val ionStruct: IonStruct,
+    annotationsOverride: ImmutableList<String>?,
+    override val metas: ImmutableMetaContainer
+) : AnyElementBase(), StructElement, FingerprintCache {
+    private val ionAnnotations = IonValueAnnotations(ionStruct, annotationsOverride)
+
+    override val type: ElementType get() = ElementType.STRUCT
+    override val annotations: ImmutableList<String> get() = ionAnnotations.annotations
+    override val size: Int get() = ionStruct.size()
+
+    // Note that we are not using `by lazy` here because it requires 2 additional allocations and
+    // has been demonstrated to significantly increase memory consumption!
+    private var fieldsBackingField: ImmutableList<StructField>? = null
+    override val fields: Collection<StructField>
+        get() {
+            if (fieldsBackingField == null) {
+                val fields = ArrayList<StructField>(size)
+                ionStruct.forEach { fields.add(StructFieldImpl(it.fieldNameSymbol.assumeText(), it.toElementView())) }
+                fieldsBackingField = fields.toImmutableListUnsafe()
+            }
+            return fieldsBackingField!!
+        }
+    override val structFields: Collection<StructField> get() = fields
+
+    // Note that we are not using `by lazy` here because it requires 2 additional allocations and
+    // has been demonstrated to significantly increase memory consumption!
+    private var valuesBackingField: ImmutableList<AnyElement>? = null
+    override val values: Collection<AnyElement>
+        get() {
+            if (valuesBackingField == null) {
+                valuesBackingField = fields.map { it.value }.toImmutableListUnsafe()
+            }
+            return valuesBackingField!!
+        }
+    override val containerValues: Collection<AnyElement> get() = values
+
+    // Note that we are not using `by lazy` here because it requires 2 additional allocations and
+    // has been demonstrated to significantly increase memory consumption!
+    private var fieldsByNameBackingField: Map<String, ImmutableList<AnyElement>>? = null
+
+    /**
+     * Lazily calculated map of field names and lists of their values. It holds the same child elements as [fields], so
+     * that reading a field more than once returns the same element rather than creating a new view each time.
+     */
+    private val fieldsByName: Map<String, ImmutableList<AnyElement>>
+        get() {
+            if (fieldsByNameBackingField == null) {
+                fieldsByNameBackingField = fields.toFieldsByName()
+            }
+            return fieldsByNameBackingField!!
+        }
+
+    override fun get(fieldName: String): AnyElement =
+        getOptional(fieldName) ?: constraintError(this, "Required struct field '$fieldName' missing")
+
+    override fun getOptional(fieldName: String): AnyElement? = fieldsByName[fieldName]?.firstOrNull()
+
+    override fun getAll(fieldName: String): Iterable<AnyElement> = fieldsByName[fieldName] ?: emptyList()
+
+    override fun containsField(fieldName: String): Boolean = ionStruct.containsKey(fieldName)
+
+    override fun mutableFields(): MutableStructFields = PersistentMutableStructFieldsImpl(fields.toPersistentFieldMap(), size)
+
+    override fun update(mutator: MutableStructFields.() -> Unit): StructElement {
+        val mutableFields = PersistentMutableStructFieldsImpl(fields.toPersistentFieldMap(), size)
+        mutableFields.apply(mutator)
+        return mutableFields.toStructElement(annotations, metas)
+    }
+
+    override fun update(mutator: Consumer<MutableStructFields>): StructElement {
+        val mutableFields = PersistentMutableStructFieldsImpl(fields.toPersistentFieldMap(), size)
+        mutator.accept(mutableFields)
+        return mutableFields.toStructElement(annotations, metas)
+    }
+
+    override fun withField(fieldName: String, value: IonElement): StructElement =
+        PersistentStructElementImpl(fields.toPersistentFieldMap(), size, annotations, metas).withField(fieldName, value)
+
+    override fun withoutField(fieldName: String): StructElement =
+        PersistentStructElementImpl(fields.toPersistentFieldMap(), size, annotations, metas).withoutField(fieldName)
+
+    override fun writeTo(writer: IonWriter) {
+        if (ionAnnotations.isOverridden) super.writeTo(writer) else ionStruct.writeTo(writer)
+    }
+
+    override fun writeContentTo(writer: IonWriter) {
+        writer.stepIn(IonType.STRUCT)
+        fields.forEach {
+            writer.setFieldName(it.name)
+            it.value.writeTo(writer)
+        }
+        writer.stepOut()
+    }
+
+    override fun copy(annotations: List<String>, metas: MetaContainer): IonStructBackedStructElement =
+        IonStructBackedStructElement(ionStruct, annotations.toImmutableList(), metas.toImmutableMap())
+
+    override fun withAnnotations(vararg additionalAnnotations: String): IonStructBackedStructElement = _withAnnotations(*additionalAnnotations)
+    override fun withAnnotations(additionalAnnotations: Iterable<String>): IonStructBackedStructElement = _withAnnotations(additionalAnnotations)
+    override fun withoutAnnotations(): IonStructBackedStructElement = _withoutAnnotations()
+    override fun withMetas(additionalMetas: MetaContainer): IonStructBackedStructElement = _withMetas(additionalMetas)
+    override fun withMeta(key: String, value: Any): IonStructBackedStructElement = _withMeta(key, value)
+    override fun withoutMetas(): IonStructBackedStructElement = _withoutMetas()
+
+    override fun equals(other: Any?): Boolean = isEquivalentTo(other)
+
+    // Note that we are not using `by lazy` here because it requires 2 additional allocations and
+    // has been demonstrated to significantly increase memory consumption!
+    private var cachedHashCode: Int? = null
+    override fun hashCode(): Int {
+        if (this.cachedHashCode == null) {
+            cachedHashCode = hashElement(this)
+        }
+        return this.cachedHashCode!!
+    }
+
+    override var cachedFingerprint: ElementFingerprint? = null
+}
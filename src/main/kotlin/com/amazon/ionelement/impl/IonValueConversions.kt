@@ -0,0 +1,191 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.IntegerSize
+import com.amazon.ion.IonBlob
+import com.amazon.ion.IonBool
+import com.amazon.ion.IonClob
+import com.amazon.ion.IonContainer
+import com.amazon.ion.IonDecimal
+import com.amazon.ion.IonFloat
+import com.amazon.ion.IonInt
+import com.amazon.ion.IonSequence
+import com.amazon.ion.IonStruct
+import com.amazon.ion.IonText
+import com.amazon.ion.IonTimestamp
+import com.amazon.ion.IonType
+import com.amazon.ion.IonValue
+import com.amazon.ion.ValueFactory
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+import java.util.ArrayDeque
+import java.util.ArrayList
+import kotlinx.collections.immutable.adapters.ImmutableListAdapter
+
+/*
+ * Direct structural conversions between the mutable DOM ([IonValue]) and [AnyElement].
+ *
+ * These walk one tree and build the other without going through an `IonReader` or `IonWriter`. Strings are immutable,
+ * so they are shared between both trees. Lob content is owned by the `IonValue`, so it is copied exactly once.
+ */
+
+/**
+ * Converts [this] [IonValue] (and its children, if any) to an [AnyElement]. Metas are always empty.
+ *
+ * The tree is converted iteratively, so deeply nested values cannot cause a [StackOverflowError].
+ */
+internal fun IonValue.convertToElement(): AnyElement {
+    val openContainers = ArrayDeque<ElementConversion>()
+    val root = convertShallowToElement(openContainers)
+    while (openContainers.isNotEmpty()) {
+        val container = openContainers.peek()
+        if (!container.children.hasNext()) {
+            openContainers.pop()
+            continue
+        }
+        val child = container.children.next()
+        // This may push the child onto `openContainers`, so that its children are converted before its next sibling.
+        val element = child.convertShallowToElement(openContainers)
+        if (container.isStruct) {
+            // `fieldName` is read rather than `fieldNameSymbol`, which looks up the symbol table through every parent.
+            container.content.add(StructFieldImpl(child.fieldName ?: child.fieldNameSymbol.assumeText(), element))
+        } else {
+            container.content.add(element)
+        }
+    }
+    return root
+}
+
+/** A container that is being converted by [convertToElement], and the children that have not been converted yet. */
+private class ElementConversion(val children: Iterator<IonValue>, val content: MutableList<Any>, val isStruct: Boolean)
+
+/**
+ * Converts [this] [IonValue] to an [AnyElement] without converting its children. If it is a non-empty container, the
+ * element is created with an empty list of children, which is filled in later by [convertToElement].
+ */
+private fun IonValue.convertShallowToElement(openContainers: ArrayDeque<ElementConversion>): AnyElement {
+    val annotations = typeAnnotations.toImmutableListUnsafe()
+    val ionType = type
+
+    if (isNullValue) {
+        return ionNull(ionType.toElementType(), annotations).asAnyElement()
+    }
+
+    return when (ionType) {
+        IonType.BOOL -> BoolElementImpl((this as IonBool).booleanValue(), annotations, EMPTY_METAS)
+        IonType.INT -> {
+            this as IonInt
+            when (integerSize!!) {
+                IntegerSize.BIG_INTEGER -> {
+                    // Same compensation as in IonElementLoaderImpl--integerSize may be BIG_INTEGER for values that
+                    // fit in a long.
+                    val bigIntValue = bigIntegerValue()
+                    if (bigIntValue !in RANGE_OF_LONG) {
+                        BigIntIntElementImpl(bigIntValue, annotations, EMPTY_METAS)
+                    } else {
+                        LongIntElementImpl(bigIntValue.toLong(), annotations, EMPTY_METAS)
+                    }
+                }
+                IntegerSize.LONG,
+                IntegerSize.INT -> LongIntElementImpl(longValue(), annotations, EMPTY_METAS)
+            }
+        }
+        IonType.FLOAT -> FloatElementImpl((this as IonFloat).doubleValue(), annotations, EMPTY_METAS)
+        IonType.DECIMAL -> DecimalElementImpl((this as IonDecimal).decimalValue(), annotations, EMPTY_METAS)
+        IonType.TIMESTAMP -> TimestampElementImpl((this as IonTimestamp).timestampValue(), annotations, EMPTY_METAS)
+        IonType.STRING -> StringElementImpl((this as IonText).stringValue(), annotations, EMPTY_METAS)
+        IonType.SYMBOL -> SymbolElementImpl((this as IonText).stringValue(), annotations, EMPTY_METAS)
+        // IonLob.getBytes() returns a new array, so it is safe to use without cloning it again.
+        IonType.CLOB -> ClobElementImpl((this as IonClob).bytes, annotations, EMPTY_METAS)
+        IonType.BLOB -> BlobElementImpl((this as IonBlob).bytes, annotations, EMPTY_METAS)
+        IonType.LIST -> ListElementImpl(openContainers.startConversion(this as IonContainer), annotations, EMPTY_METAS)
+        IonType.SEXP -> SexpElementImpl(openContainers.startConversion(this as IonContainer), annotations, EMPTY_METAS)
+        IonType.STRUCT -> StructElementImpl(openContainers.startConversion(this as IonContainer), annotations, EMPTY_METAS)
+        IonType.DATAGRAM -> error("IonType.DATAGRAM cannot be converted to a single element; use IonDatagram.toIonElements()")
+        IonType.NULL -> error("IonType.NULL branch should be unreachable")
+    }
+}
+
+/**
+ * Returns the list that will hold the converted children of [container], and pushes [container] onto [this] so that
+ * they are converted.
+ */
+private fun <T> ArrayDeque<ElementConversion>.startConversion(container: IonContainer): ImmutableList<T> {
+    if (container.isEmpty) return EMPTY_IMMUTABLE_LIST
+    val content = ArrayList<Any>(container.size())
+    push(ElementConversion(container.iterator(), content, container is IonStruct))
+    // As in IonElementLoaderImpl's iterative loader, `content` is wrapped before its elements are added. This is safe
+    // because nothing reads the list until the conversion is done.
+    @Suppress("UNCHECKED_CAST")
+    return ImmutableListAdapter(content) as ImmutableList<T>
+}
+
+/** Converts each of the (user) values in [this] [IonSequence] to an [AnyElement]. */
+internal fun IonSequence.convertChildrenToElements(): ImmutableList<AnyElement> {
+    val elements = ArrayList<AnyElement>(size)
+    forEach { elements.add(it.convertToElement()) }
+    return elements.toImmutableListUnsafe()
+}
+
+/**
+ * Creates a new, detached [IonValue] that is equivalent to [this] [AnyElement] using [factory].
+ *
+ * The tree is converted iteratively, so deeply nested elements cannot cause a [StackOverflowError].
+ */
+internal fun AnyElement.convertToIonValue(factory: ValueFactory): IonValue {
+    val openContainers = ArrayDeque<IonValueConversion>()
+    val root = convertShallowToIonValue(factory, openContainers)
+    while (openContainers.isNotEmpty()) {
+        val container = openContainers.peek()
+        if (!container.children.hasNext()) {
+            openContainers.pop()
+            continue
+        }
+        when (val child = container.children.next()) {
+            is StructField -> (container.ionContainer as IonStruct).add(child.name, child.value.convertShallowToIonValue(factory, openContainers))
+            else -> (container.ionContainer as IonSequence).add((child as AnyElement).convertShallowToIonValue(factory, openContainers))
+        }
+    }
+    return root
+}
+
+/**
+ * A container that is being converted by [convertToIonValue], and the children (elements or [StructField]s) that have
+ * not been converted yet.
+ */
+private class IonValueConversion(val children: Iterator<Any>, val ionContainer: IonContainer)
+
+/**
+ * Converts [this] [AnyElement] to an [IonValue] without converting its children. If it is a container, the [IonValue]
+ * is empty, and its children are added later by [convertToIonValue].
+ */
+private fun AnyElement.convertShallowToIonValue(factory: ValueFactory, openContainers: ArrayDeque<IonValueConversion>): IonValue {
+    val ionValue = if (isNull) {
+        factory.newNull(type.toIonType())
+    } else {
+        when (type) {
+            ElementType.BOOL -> factory.newBool(booleanValue)
+            ElementType.INT -> when (integerSize) {
+                IntElementSize.LONG -> factory.newInt(longValue)
+                IntElementSize.BIG_INTEGER -> factory.newInt(bigIntegerValue)
+            }
+            ElementType.FLOAT -> factory.newFloat(doubleValue)
+            ElementType.DECIMAL -> factory.newDecimal(decimalValue)
+            ElementType.TIMESTAMP -> factory.newTimestamp(timestampValue)
+            ElementType.STRING -> factory.newString(textValue)
+            ElementType.SYMBOL -> factory.newSymbol(textValue)
+            // The IonValue always copies the bytes it is given, so we can hand it our backing array when we have one.
+            ElementType.CLOB -> factory.newClob(if (this is LobElementBase) bytes else bytesValue.copyOfBytes())
+            ElementType.BLOB -> factory.newBlob(if (this is LobElementBase) bytes else bytesValue.copyOfBytes())
+            ElementType.LIST -> factory.newEmptyList().also { openContainers.push(IonValueConversion(seqValues.iterator(), it)) }
+            ElementType.SEXP -> factory.newEmptySexp().also { openContainers.push(IonValueConversion(seqValues.iterator(), it)) }
+            ElementType.STRUCT -> factory.newEmptyStruct().also { openContainers.push(IonValueConversion(structFields.iterator(), it)) }
+            ElementType.NULL -> error("ElementType.NULL branch should be unreachable")
+        }
+    }
+    if (annotations.isNotEmpty()) {
+        ionValue.setTypeAnnotations(*annotations.toTypedArray())
+    }
+    return ionValue
+}
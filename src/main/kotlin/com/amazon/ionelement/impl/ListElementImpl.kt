@@ -19,15 +19,25 @@ import com.amazon.ionelement.api.*
 import com.amazon.ionelement.api.ImmutableMetaContainer
 import com.amazon.ionelement.impl.collections.*
 
-internal class ListElementImpl(
-    values: ImmutableList<AnyElement>,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class ListElementImpl(
+    values: ImmutableList<AnyElement>
 ) : SeqElementBase(values), ListElement {
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val type: ElementType get() = ElementType.LIST
 
     override val listValues: List<AnyElement> get() = values
 
+    override fun withAppended(value: IonElement): ListElementImpl =
+        ListElementImpl(persistentValues.add(value.asAnyElement()), annotations, metas)
+
+    override fun withSet(index: Int, value: IonElement): ListElementImpl =
+        ListElementImpl(persistentValues.set(index, value.asAnyElement()), annotations, metas)
+
+    override fun subList(fromIndex: Int, toIndex: Int): ListElementImpl =
+        ListElementImpl(values.subList(fromIndex, toIndex), annotations, metas)
+
     override fun copy(annotations: List<String>, metas: MetaContainer): ListElementImpl =
         ListElementImpl(values, annotations.toImmutableList(), metas.toImmutableMap())
 
@@ -40,4 +50,26 @@ internal class ListElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [ListElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(values: ImmutableList<AnyElement>) : ListElementImpl(values) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        values: ImmutableList<AnyElement>,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : ListElementImpl(values)
+
+    companion object {
+        /** Creates a [ListElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            values: ImmutableList<AnyElement>,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): ListElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(values) else Full(values, annotations, metas)
+    }
 }
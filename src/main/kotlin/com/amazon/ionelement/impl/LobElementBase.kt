@@ -20,7 +20,7 @@ import com.amazon.ionelement.api.LobElement
 import com.amazon.ionelement.api.MetaContainer
 
 internal abstract class LobElementBase(
-    protected val bytes: ByteArray
+    internal val bytes: ByteArray
 ) : AnyElementBase(), LobElement {
 
     override val bytesValue: ByteArrayView = ByteArrayViewImpl(bytes)
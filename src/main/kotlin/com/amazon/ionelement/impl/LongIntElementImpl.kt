@@ -21,11 +21,12 @@ import com.amazon.ionelement.api.ImmutableMetaContainer
 import com.amazon.ionelement.impl.collections.*
 import java.math.BigInteger
 
-internal class LongIntElementImpl(
-    override val longValue: Long,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class LongIntElementImpl(
+    override val longValue: Long
 ) : AnyElementBase(), IntElement {
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val integerSize: IntElementSize get() = IntElementSize.LONG
     override val type: ElementType get() = ElementType.INT
 
@@ -45,4 +46,26 @@ internal class LongIntElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [LongIntElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(longValue: Long) : LongIntElementImpl(longValue) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        longValue: Long,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : LongIntElementImpl(longValue)
+
+    companion object {
+        /** Creates a [LongIntElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            longValue: Long,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): LongIntElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(longValue) else Full(longValue, annotations, metas)
+    }
 }
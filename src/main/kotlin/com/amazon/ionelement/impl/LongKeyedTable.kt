@@ -0,0 +1,114 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+/**
+ * A minimal open-addressing hash map with primitive `long` keys, which avoids boxing a [Long] for every key.
+ *
+ * Collisions are resolved by linear probing, and [remove] uses backward-shift deletion, so no tombstones are left
+ * behind. The table never shrinks.
+ */
+internal class LongKeyedTable<V : Any> {
+    private var keys = LongArray(INITIAL_CAPACITY)
+    private var values = arrayOfNulls<Any>(INITIAL_CAPACITY)
+
+    /** The number of keys in this table. */
+    var size: Int = 0
+        private set
+
+    operator fun get(key: Long): V? {
+        val mask = keys.size - 1
+        var i = mix(key) and mask
+        while (true) {
+            @Suppress("UNCHECKED_CAST")
+            val value = values[i] as V? ?: return null
+            if (keys[i] == key) return value
+            i = (i + 1) and mask
+        }
+    }
+
+    /** Returns the value for [key], first adding the result of [create] if [key] is not already present. */
+    inline fun getOrPut(key: Long, create: () -> V): V {
+        get(key)?.let { return it }
+        return create().also { put(key, it) }
+    }
+
+    fun put(key: Long, value: V) {
+        if ((size + 1) * 2 > keys.size) resize()
+        if (insert(keys, values, key, value)) size++
+    }
+
+    /** Removes [key] and returns its value, or returns null if [key] is not present. */
+    fun remove(key: Long): V? {
+        val mask = keys.size - 1
+        var hole = mix(key) and mask
+        while (true) {
+            if (values[hole] == null) return null
+            if (keys[hole] == key) break
+            hole = (hole + 1) and mask
+        }
+        @Suppress("UNCHECKED_CAST")
+        val removed = values[hole] as V
+        // Move back each later entry of the cluster that can no longer be reached from its home slot past the hole.
+        var i = hole
+        while (true) {
+            i = (i + 1) and mask
+            val value = values[i] ?: break
+            val home = mix(keys[i]) and mask
+            if ((i - home) and mask >= (i - hole) and mask) {
+                keys[hole] = keys[i]
+                values[hole] = value
+                hole = i
+            }
+        }
+        values[hole] = null
+        size--
+        return removed
+    }
+
+    /** Calls [block] for each entry in this table, in no particular order. */
+    fun forEach(block: (Long, V) -> Unit) {
+        for (i in keys.indices) {
+            @Suppress("UNCHECKED_CAST")
+            val value = values[i] as V? ?: continue
+            block(keys[i], value)
+        }
+    }
+
+    private fun resize() {
+        val newKeys = LongArray(keys.size * 2)
+        val newValues = arrayOfNulls<Any>(keys.size * 2)
+        for (i in keys.indices) {
+            val value = values[i] ?: continue
+            insert(newKeys, newValues, keys[i], value)
+        }
+        keys = newKeys
+        values = newValues
+    }
+
+    /** Returns true if a new key was added, or false if the value of an existing key was replaced. */
+    private fun insert(keys: LongArray, values: Array<Any?>, key: Long, value: Any): Boolean {
+        val mask = keys.size - 1
+        var i = mix(key) and mask
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                values[i] = value
+                return false
+            }
+            i = (i + 1) and mask
+        }
+        keys[i] = key
+        values[i] = value
+        return true
+    }
+
+    private companion object {
+        const val INITIAL_CAPACITY = 16
+
+        /** Spreads the bits of [key] so that sequential keys don't cluster. */
+        fun mix(key: Long): Int {
+            val h = key * -0x61c8864680b583ebL
+            return (h xor (h ushr 32)).toInt()
+        }
+    }
+}
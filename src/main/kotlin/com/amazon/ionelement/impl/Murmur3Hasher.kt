@@ -0,0 +1,137 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ionelement.api.ByteArrayView
+import com.amazon.ionelement.api.ElementFingerprint
+
+/**
+ * A streaming implementation of the 128-bit x64 variant of MurmurHash3 with a seed of 0.
+ *
+ * The result for any sequence of bytes is the same as that of the reference implementation, regardless of how the
+ * bytes were split across calls to the `put` functions.
+ */
+internal class Murmur3Hasher {
+    private var h1 = 0L
+    private var h2 = 0L
+
+    // The current (incomplete) 16 byte block, little-endian.
+    private var k1 = 0L
+    private var k2 = 0L
+    private var position = 0
+
+    private var length = 0L
+
+    fun putByte(b: Int) {
+        val v = (b and 0xFF).toLong()
+        if (position < 8) {
+            k1 = k1 or (v shl (position * 8))
+        } else {
+            k2 = k2 or (v shl ((position - 8) * 8))
+        }
+        length++
+        if (++position == 16) {
+            mixBlock()
+        }
+    }
+
+    fun putBoolean(b: Boolean) = putByte(if (b) 1 else 0)
+
+    fun putInt(i: Int) {
+        for (shift in 0 until 32 step 8) putByte(i ushr shift)
+    }
+
+    fun putLong(l: Long) {
+        for (shift in 0 until 64 step 8) putByte((l ushr shift).toInt())
+    }
+
+    /** Puts the length of [bytes], followed by [bytes]. */
+    fun putBytes(bytes: ByteArray) {
+        putInt(bytes.size)
+        bytes.forEach { putByte(it.toInt()) }
+    }
+
+    /** Puts the size of [bytes], followed by [bytes]. */
+    fun putBytes(bytes: ByteArrayView) {
+        putInt(bytes.size())
+        for (i in 0 until bytes.size()) putByte(bytes[i].toInt())
+    }
+
+    /** Puts the number of chars in [text], followed by the UTF-8 encoding of [text]. */
+    @OptIn(ExperimentalStdlibApi::class)
+    fun putString(text: String) {
+        putInt(text.length)
+        var i = 0
+        while (i < text.length) {
+            val char = text[i]
+            val c = char.code
+            when {
+                c < 0x80 -> putByte(c)
+                c < 0x800 -> {
+                    putByte(0xC0 or (c shr 6))
+                    putByte(0x80 or (c and 0x3F))
+                }
+                Character.isHighSurrogate(char) && i + 1 < text.length && Character.isLowSurrogate(text[i + 1]) -> {
+                    val codePoint = Character.toCodePoint(char, text[++i])
+                    putByte(0xF0 or (codePoint shr 18))
+                    putByte(0x80 or ((codePoint shr 12) and 0x3F))
+                    putByte(0x80 or ((codePoint shr 6) and 0x3F))
+                    putByte(0x80 or (codePoint and 0x3F))
+                }
+                else -> {
+                    putByte(0xE0 or (c shr 12))
+                    putByte(0x80 or ((c shr 6) and 0x3F))
+                    putByte(0x80 or (c and 0x3F))
+                }
+            }
+            i++
+        }
+    }
+
+    /** Returns the hash of the bytes that have been put. This hasher must not be used afterwards. */
+    fun finish(): ElementFingerprint {
+        if (position > 0) {
+            h2 = h2 xor mixK2(k2)
+            h1 = h1 xor mixK1(k1)
+        }
+        var a = h1 xor length
+        var b = h2 xor length
+        a += b
+        b += a
+        a = fmix64(a)
+        b = fmix64(b)
+        a += b
+        b += a
+        return ElementFingerprint(a, b)
+    }
+
+    private fun mixBlock() {
+        h1 = h1 xor mixK1(k1)
+        h1 = java.lang.Long.rotateLeft(h1, 27) + h2
+        h1 = h1 * 5 + 0x52dce729
+        h2 = h2 xor mixK2(k2)
+        h2 = java.lang.Long.rotateLeft(h2, 31) + h1
+        h2 = h2 * 5 + 0x38495ab5
+        k1 = 0
+        k2 = 0
+        position = 0
+    }
+
+    private companion object {
+        const val C1 = -0x783c846eeebdac2bL // 0x87c37b91114253d5
+        const val C2 = 0x4cf5ad432745937fL
+
+        fun mixK1(k: Long): Long = java.lang.Long.rotateLeft(k * C1, 31) * C2
+        fun mixK2(k: Long): Long = java.lang.Long.rotateLeft(k * C2, 33) * C1
+
+        fun fmix64(k: Long): Long {
+            var h = k
+            h = h xor (h ushr 33)
+            h *= -0xae502812aa7333L // 0xff51afd7ed558ccd
+            h = h xor (h ushr 33)
+            h *= -0x3b314601e57a13adL // 0xc4ceb9fe1a85ec53
+            h = h xor (h ushr 33)
+            return h
+        }
+    }
+}
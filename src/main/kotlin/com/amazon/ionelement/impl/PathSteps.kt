@@ -0,0 +1,230 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.IonReader
+import com.amazon.ion.IonType
+import com.amazon.ionelement.api.*
+
+/** A single step of a compiled [IonPath]. Each step maps one element to zero or more elements. */
+internal sealed class PathStep {
+    /** Selects the values of all fields with the given [name] of a struct. */
+    data class Field(val name: String) : PathStep()
+
+    /** Selects the value at the given [index] of a list or sexp. */
+    data class Index(val index: Int) : PathStep()
+
+    /** Selects all child values of a container. */
+    object Wildcard : PathStep()
+
+    /** Selects the current value and all of its descendants, in pre-order. */
+    object Descendants : PathStep()
+
+    /** Selects the current value only if it has the given [annotation]. */
+    data class AnnotationFilter(val annotation: String) : PathStep()
+}
+
+/**
+ * Parses [path] into a list of [PathStep]s.
+ *
+ * ```
+ * path     := '$'? step*
+ * step     := '.' (name | '*') | '..' (name | '*' | bracket) | bracket | '{' (name | quoted) '}'
+ * bracket  := '[' (integer | '*' | quoted) ']'
+ * name     := [A-Za-z0-9_$]+
+ * quoted   := "'" ([^'\\] | '\' any)* "'"
+ * ```
+ *
+ * @throws IllegalArgumentException If [path] is not a valid path.
+ */
+internal fun parsePath(path: String): List<PathStep> = PathParser(path).parse()
+
+private class PathParser(private val path: String) {
+    private var position = 0
+    private val steps = ArrayList<PathStep>()
+
+    fun parse(): List<PathStep> {
+        if (path.startsWith("$")) position++
+        while (position < path.length) {
+            when (path[position]) {
+                '.' -> {
+                    position++
+                    if (peek() == '.') {
+                        position++
+                        steps.add(PathStep.Descendants)
+                        if (peek() == '[') parseBracket() else parseNameOrWildcard()
+                    } else {
+                        parseNameOrWildcard()
+                    }
+                }
+                '[' -> parseBracket()
+                '{' -> {
+                    position++
+                    val annotation = if (peek() == '\'') parseQuoted() else parseName()
+                    expect('}')
+                    steps.add(PathStep.AnnotationFilter(annotation))
+                }
+                else -> fail("expected '.', '[', or '{'")
+            }
+        }
+        return steps
+    }
+
+    private fun parseNameOrWildcard() {
+        if (peek() == '*') {
+            position++
+            steps.add(PathStep.Wildcard)
+        } else {
+            steps.add(PathStep.Field(parseName()))
+        }
+    }
+
+    private fun parseBracket() {
+        expect('[')
+        val c = peek()
+        when {
+            c == '*' -> {
+                position++
+                steps.add(PathStep.Wildcard)
+            }
+            c == '\'' -> steps.add(PathStep.Field(parseQuoted()))
+            c != null && c in '0'..'9' -> {
+                val start = position
+                while (peek()?.let { it in '0'..'9' } == true) position++
+                val index = path.substring(start, position).toIntOrNull() ?: fail("index is too large", start)
+                steps.add(PathStep.Index(index))
+            }
+            else -> fail("expected an index, '*', or a quoted field name")
+        }
+        expect(']')
+    }
+
+    private fun parseName(): String {
+        val start = position
+        while (peek()?.let { it in 'A'..'Z' || it in 'a'..'z' || it in '0'..'9' || it == '_' || it == '$' } == true) position++
+        if (start == position) fail("expected a field name")
+        return path.substring(start, position)
+    }
+
+    private fun parseQuoted(): String {
+        expect('\'')
+        val text = StringBuilder()
+        while (true) {
+            when (val c = peek() ?: fail("unterminated quoted name")) {
+                '\'' -> break
+                '\\' -> {
+                    position++
+                    text.append(peek() ?: fail("unterminated quoted name"))
+                }
+                else -> text.append(c)
+            }
+            position++
+        }
+        position++
+        return text.toString()
+    }
+
+    private fun peek(): Char? = if (position < path.length) path[position] else null
+
+    private fun expect(c: Char) {
+        if (peek() != c) fail("expected '$c'")
+        position++
+    }
+
+    private fun fail(message: String, at: Int = position): Nothing =
+        throw IllegalArgumentException("Invalid path '$path' at index $at: $message")
+}
+
+/** Evaluates [this] (starting at [stepIndex]) against [element], adding all matching elements to [results]. */
+internal fun List<PathStep>.evaluate(stepIndex: Int, element: AnyElement, results: MutableList<AnyElement>) {
+    if (stepIndex == size) {
+        results.add(element)
+        return
+    }
+    val next = stepIndex + 1
+    when (val step = this[stepIndex]) {
+        is PathStep.Field -> if (element.type == ElementType.STRUCT && !element.isNull) {
+            element.asStruct().getAll(step.name).forEach { evaluate(next, it, results) }
+        }
+        is PathStep.Index -> if (element.type.isSeq && !element.isNull) {
+            val values = element.seqValues
+            if (step.index < values.size) evaluate(next, values[step.index], results)
+        }
+        PathStep.Wildcard -> element.forEachChild { evaluate(next, it, results) }
+        PathStep.Descendants -> {
+            // An explicit stack is used here so that the depth of the element tree doesn't affect the call stack.
+            val stack = ArrayList<AnyElement>()
+            stack.add(element)
+            while (stack.isNotEmpty()) {
+                val current = stack.removeAt(stack.size - 1)
+                evaluate(next, current, results)
+                val childrenStart = stack.size
+                current.forEachChild { stack.add(it) }
+                // Reverse the children so that they are visited in order.
+                stack.subList(childrenStart, stack.size).reverse()
+            }
+        }
+        is PathStep.AnnotationFilter -> if (step.annotation in element.annotations) evaluate(next, element, results)
+    }
+}
+
+/** Calls [block] for each child of [this] if it is a non-null container. Does nothing otherwise. */
+private inline fun AnyElement.forEachChild(block: (AnyElement) -> Unit) {
+    if (isNull) return
+    when (type) {
+        ElementType.STRUCT -> structFields.forEach { block(it.value) }
+        ElementType.LIST, ElementType.SEXP -> seqValues.forEach(block)
+        else -> {}
+    }
+}
+
+/**
+ * Evaluates [this] (starting at [stepIndex]) against the current value of [reader], adding all matching elements to
+ * [results]. Values that cannot match are skipped without being loaded.
+ *
+ * Recursive descent needs to visit a value more than once, so a [PathStep.Descendants] step loads the current value
+ * and evaluates the rest of the path against the loaded element.
+ */
+internal fun List<PathStep>.evaluate(
+    stepIndex: Int,
+    reader: IonReader,
+    loader: IonElementLoader,
+    results: MutableList<AnyElement>
+) {
+    if (stepIndex == size) {
+        results.add(loader.loadCurrentElement(reader))
+        return
+    }
+    val next = stepIndex + 1
+    val type = reader.type
+    val isContainer = !reader.isNullValue && IonType.isContainer(type)
+    when (val step = this[stepIndex]) {
+        is PathStep.Field -> if (type == IonType.STRUCT && isContainer) {
+            reader.stepIn()
+            while (reader.next() != null) {
+                if (reader.fieldName == step.name) evaluate(next, reader, loader, results)
+            }
+            reader.stepOut()
+        }
+        is PathStep.Index -> if ((type == IonType.LIST || type == IonType.SEXP) && isContainer) {
+            reader.stepIn()
+            var i = 0
+            while (reader.next() != null) {
+                if (i++ == step.index) {
+                    evaluate(next, reader, loader, results)
+                    break
+                }
+            }
+            reader.stepOut()
+        }
+        PathStep.Wildcard -> if (isContainer) {
+            reader.stepIn()
+            while (reader.next() != null) evaluate(next, reader, loader, results)
+            reader.stepOut()
+        }
+        PathStep.Descendants -> evaluate(stepIndex, loader.loadCurrentElement(reader), results)
+        is PathStep.AnnotationFilter -> if (step.annotation in reader.typeAnnotations) {
+            evaluate(next, reader, loader, results)
+        }
+    }
+}
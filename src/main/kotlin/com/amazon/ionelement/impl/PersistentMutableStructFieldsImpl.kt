@@ -0,0 +1,176 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+import kotlinx.collections.immutable.PersistentList
+import kotlinx.collections.immutable.PersistentMap
+import kotlinx.collections.immutable.persistentListOf
+import kotlinx.collections.immutable.persistentMapOf
+
+/** A persistent map of field names to the values of all the fields with that name. */
+internal typealias PersistentFieldMap = PersistentMap<String, PersistentList<AnyElement>>
+
+/** Groups [this] by field name into a [PersistentFieldMap], preserving the order in which names first occur. */
+internal fun Iterable<StructField>.toPersistentFieldMap(): PersistentFieldMap {
+    val builder = persistentMapOf<String, PersistentList<AnyElement>>().builder()
+    forEach { builder[it.name] = (builder[it.name] ?: persistentListOf()).add(it.value) }
+    return builder.build()
+}
+
+/**
+ * A [MutableStructFields] that is backed by a [PersistentMap.Builder].
+ *
+ * Creating an instance is O(1) and each modification is O(log n), sharing all unmodified storage with [initialFields].
+ * When the modifications are complete, [toStructElement] creates a [PersistentStructElementImpl] without copying the
+ * fields again.
+ */
+internal class PersistentMutableStructFieldsImpl(
+    initialFields: PersistentFieldMap,
+    initialSize: Int
+) : MutableStructFields {
+
+    private val fields: PersistentMap.Builder<String, PersistentList<AnyElement>> = initialFields.builder()
+
+    override var size: Int = initialSize
+        private set
+
+    /** Creates a new [StructElement] containing the current fields. */
+    fun toStructElement(annotations: List<String>, metas: MetaContainer): StructElement =
+        PersistentStructElementImpl(fields.build(), size, annotations.toImmutableList(), metas.toImmutableMap())
+
+    override fun get(fieldName: String): AnyElement {
+        return requireNotNull(fields[fieldName]?.firstOrNull()) {
+            "Required struct field '$fieldName' missing"
+        }
+    }
+
+    override fun getOptional(fieldName: String): AnyElement? {
+        return fields[fieldName]?.firstOrNull()
+    }
+
+    override fun getAll(fieldName: String): Collection<AnyElement> {
+        return fields[fieldName] ?: mutableListOf()
+    }
+
+    override fun containsField(fieldName: String): Boolean {
+        return fieldName in fields
+    }
+
+    override fun set(fieldName: String, value: IonElement) {
+        val previous = fields.put(fieldName, persistentListOf(value.asAnyElement()))
+        size += 1 - (previous?.size ?: 0)
+    }
+
+    override fun setAll(fields: Iterable<StructField>) {
+        fields.toPersistentFieldMap().forEach { (name, values) ->
+            val previous = this.fields.put(name, values)
+            size += values.size - (previous?.size ?: 0)
+        }
+    }
+
+    override fun add(fieldName: String, value: IonElement): Boolean {
+        fields[fieldName] = (fields[fieldName] ?: persistentListOf()).add(value.asAnyElement())
+        size++
+        return true
+    }
+
+    override fun add(element: StructField): Boolean {
+        return add(element.name, element.value)
+    }
+
+    override fun remove(element: StructField): Boolean {
+        val values = fields[element.name] ?: return false
+        val index = values.indexOf(element.value)
+        if (index < 0) return false
+        if (values.size == 1) {
+            fields.remove(element.name)
+        } else {
+            fields[element.name] = values.removeAt(index)
+        }
+        size--
+        return true
+    }
+
+    override fun clearField(fieldName: String): Boolean {
+        val previous = fields.remove(fieldName) ?: return false
+        size -= previous.size
+        return true
+    }
+
+    override fun removeAll(elements: Collection<StructField>): Boolean {
+        var modified = false
+        for (element in elements) {
+            modified = remove(element) || modified
+        }
+        return modified
+    }
+
+    override fun plusAssign(fields: Collection<StructField>) {
+        addAll(fields)
+    }
+
+    override fun addAll(elements: Collection<StructField>): Boolean {
+        elements.forEach { add(it) }
+        return true
+    }
+
+    override fun clear() {
+        fields.clear()
+        size = 0
+    }
+
+    override fun contains(element: StructField): Boolean {
+        return fields[element.name]?.contains(element.value) ?: false
+    }
+
+    override fun containsAll(elements: Collection<StructField>): Boolean {
+        return elements.all { contains(it) }
+    }
+
+    override fun isEmpty(): Boolean {
+        return size == 0
+    }
+
+    /**
+     * Iterates over a snapshot of the fields, so the collection may be modified (including by [MutableIterator.remove])
+     * while iterating.
+     */
+    override fun iterator(): MutableIterator<StructField> {
+        val snapshot = fields.build().entries.asSequence()
+            .flatMap { (name, values) -> values.asSequence().map { StructFieldImpl(name, it) } }
+            .iterator()
+
+        return object : MutableIterator<StructField> {
+            private var current: StructField? = null
+
+            override fun hasNext(): Boolean {
+                if (snapshot.hasNext()) return true
+                // Once the iterator is exhausted, remove() throws rather than removing the last field returned.
+                current = null
+                return false
+            }
+
+            override fun next(): StructField = snapshot.next().also { current = it }
+
+            override fun remove() {
+                this@PersistentMutableStructFieldsImpl.remove(checkNotNull(current))
+                current = null
+            }
+        }
+    }
+
+    override fun retainAll(elements: Collection<StructField>): Boolean {
+        var modified = false
+        val it = iterator()
+        while (it.hasNext()) {
+            val field = it.next()
+            if (field !in elements) {
+                it.remove()
+                modified = true
+            }
+        }
+        return modified
+    }
+}
@@ -0,0 +1,129 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.IonType
+import com.amazon.ion.IonWriter
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+import java.util.function.Consumer
+import kotlinx.collections.immutable.persistentListOf
+
+/**
+ * A [StructElement] that stores its fields in a [PersistentFieldMap].
+ *
+ * Instances are created by [StructElement.update], [StructElement.withField], and [StructElement.withoutField]. Each of
+ * those operations costs O(log n) per modified field name and shares all unmodified storage with the original struct,
+ * so repeatedly updating a few fields of a large struct does not copy the whole struct every time.
+ *
+ * Fields are grouped by name, in the order that each name first occurred.
+ */
+internal class PersistentStructElementImpl(
+    private val fieldsByName: PersistentFieldMap,
+    override val size: Int,
+    override val annotations: ImmutableList<String>,
+    override val metas: ImmutableMetaContainer
+) : AnyElementBase(), StructElement, FingerprintCache {
+
+    override val type: ElementType get() = ElementType.STRUCT
+
+    // Note that we are not using `by lazy` here because it requires 2 additional allocations and
+    // has been demonstrated to significantly increase memory consumption!
+    private var fieldsBackingField: ImmutableList<StructField>? = null
+    override val fields: Collection<StructField>
+        get() {
+            if (fieldsBackingField == null) {
+                val fields = ArrayList<StructField>(size)
+                fieldsByName.forEach { (name, values) -> values.forEach { fields.add(StructFieldImpl(name, it)) } }
+                fieldsBackingField = fields.toImmutableListUnsafe()
+            }
+            return fieldsBackingField!!
+        }
+    override val structFields: Collection<StructField> get() = fields
+
+    // Note that we are not using `by lazy` here because it requires 2 additional allocations and
+    // has been demonstrated to significantly increase memory consumption!
+    private var valuesBackingField: ImmutableList<AnyElement>? = null
+    override val values: Collection<AnyElement>
+        get() {
+            if (valuesBackingField == null) {
+                valuesBackingField = fields.map { it.value }.toImmutableListUnsafe()
+            }
+            return valuesBackingField!!
+        }
+    override val containerValues: Collection<AnyElement> get() = values
+
+    override fun get(fieldName: String): AnyElement =
+        fieldsByName[fieldName]?.firstOrNull() ?: constraintError(this, "Required struct field '$fieldName' missing")
+
+    override fun getOptional(fieldName: String): AnyElement? =
+        fieldsByName[fieldName]?.firstOrNull()
+
+    override fun getAll(fieldName: String): Iterable<AnyElement> = fieldsByName[fieldName] ?: emptyList()
+
+    override fun containsField(fieldName: String): Boolean = fieldsByName.containsKey(fieldName)
+
+    override fun mutableFields(): MutableStructFields = PersistentMutableStructFieldsImpl(fieldsByName, size)
+
+    override fun update(mutator: MutableStructFields.() -> Unit): StructElement {
+        val mutableFields = PersistentMutableStructFieldsImpl(fieldsByName, size)
+        mutableFields.apply(mutator)
+        return mutableFields.toStructElement(annotations, metas)
+    }
+
+    override fun update(mutator: Consumer<MutableStructFields>): StructElement {
+        val mutableFields = PersistentMutableStructFieldsImpl(fieldsByName, size)
+        mutator.accept(mutableFields)
+        return mutableFields.toStructElement(annotations, metas)
+    }
+
+    override fun withField(fieldName: String, value: IonElement): PersistentStructElementImpl {
+        val previousSize = fieldsByName[fieldName]?.size ?: 0
+        return PersistentStructElementImpl(
+            fieldsByName.put(fieldName, persistentListOf(value.asAnyElement())),
+            size + 1 - previousSize,
+            annotations,
+            metas
+        )
+    }
+
+    override fun withoutField(fieldName: String): PersistentStructElementImpl {
+        val previous = fieldsByName[fieldName] ?: return this
+        return PersistentStructElementImpl(fieldsByName.remove(fieldName), size - previous.size, annotations, metas)
+    }
+
+    override fun copy(annotations: List<String>, metas: MetaContainer): PersistentStructElementImpl =
+        PersistentStructElementImpl(fieldsByName, size, annotations.toImmutableList(), metas.toImmutableMap())
+
+    override fun withAnnotations(vararg additionalAnnotations: String): PersistentStructElementImpl = _withAnnotations(*additionalAnnotations)
+    override fun withAnnotations(additionalAnnotations: Iterable<String>): PersistentStructElementImpl = _withAnnotations(additionalAnnotations)
+    override fun withoutAnnotations(): PersistentStructElementImpl = _withoutAnnotations()
+    override fun withMetas(additionalMetas: MetaContainer): PersistentStructElementImpl = _withMetas(additionalMetas)
+    override fun withMeta(key: String, value: Any): PersistentStructElementImpl = _withMeta(key, value)
+    override fun withoutMetas(): PersistentStructElementImpl = _withoutMetas()
+
+    override fun writeContentTo(writer: IonWriter) {
+        writer.stepIn(IonType.STRUCT)
+        fieldsByName.forEach { (name, values) ->
+            values.forEach {
+                writer.setFieldName(name)
+                it.writeTo(writer)
+            }
+        }
+        writer.stepOut()
+    }
+
+    override fun equals(other: Any?): Boolean = isEquivalentTo(other)
+
+    // Note that we are not using `by lazy` here because it requires 2 additional allocations and
+    // has been demonstrated to significantly increase memory consumption!
+    private var cachedHashCode: Int? = null
+    override fun hashCode(): Int {
+        if (this.cachedHashCode == null) {
+            cachedHashCode = hashElement(this)
+        }
+        return this.cachedHashCode!!
+    }
+
+    override var cachedFingerprint: ElementFingerprint? = null
+}
@@ -0,0 +1,217 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.IntegerSize
+import com.amazon.ion.IonReader
+import com.amazon.ion.IonType
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+
+/**
+ * An [ImmutableList] of un-annotated, meta-less elements whose values are stored in a primitive array.
+ *
+ * A list of a million ints would otherwise be a million [LongIntElementImpl]s plus an array of references to them
+ * (~40 bytes per int); these store only the primitive values (8 bytes per int). [get] creates a new element every time
+ * that it is called, so reading a value is more expensive and allocates, and the same element is not returned twice.
+ *
+ * [equals] and [hashCode] are consistent with a [List] of the equivalent elements, but are calculated from the array
+ * without creating the elements.
+ */
+internal abstract class PrimitiveArrayList(
+    /** The index in the backing array of the first element of this list. */
+    protected val offset: Int,
+    final override val size: Int
+) : AbstractList<AnyElement>(), ImmutableList<AnyElement> {
+
+    protected abstract fun elementAt(arrayIndex: Int): AnyElement
+
+    /** Returns a list backed by the same array as this list, starting at [offset] in the backing array. */
+    protected abstract fun slice(offset: Int, size: Int): PrimitiveArrayList
+
+    /** Returns true if [other] is backed by the same type of array, and the elements are equal. */
+    protected abstract fun contentEquals(other: PrimitiveArrayList): Boolean
+
+    /** Returns the hash code of the element at [arrayIndex], as calculated by [hashElement]. */
+    protected abstract fun hashAt(arrayIndex: Int): Int
+
+    override fun get(index: Int): AnyElement {
+        if (index < 0 || index >= size) throw IndexOutOfBoundsException("index: $index, size: $size")
+        return elementAt(offset + index)
+    }
+
+    override fun subList(fromIndex: Int, toIndex: Int): ImmutableList<AnyElement> {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw IndexOutOfBoundsException("fromIndex: $fromIndex, toIndex: $toIndex, size: $size")
+        }
+        return slice(offset + fromIndex, toIndex - fromIndex)
+    }
+
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (other is PrimitiveArrayList && other.javaClass == javaClass) return size == other.size && contentEquals(other)
+        return super.equals(other)
+    }
+
+    override fun hashCode(): Int {
+        // Same as List.hashCode(), without creating the elements.
+        var hashCode = 1
+        for (i in offset until offset + size) {
+            hashCode = 31 * hashCode + hashAt(i)
+        }
+        return hashCode
+    }
+}
+
+// The hash code of an un-annotated element is (type.hashCode() * 31 + valueHashCode) * 31 + annotations.hashCode().
+// See hashElement().
+private fun unannotatedHash(type: ElementType, valueHashCode: Int): Int =
+    (type.hashCode() * 31 + valueHashCode) * 31 + EMPTY_ANNOTATIONS_HASH_CODE
+
+private val EMPTY_ANNOTATIONS_HASH_CODE = emptyList<String>().hashCode()
+
+internal class LongArrayList(
+    private val values: LongArray,
+    offset: Int = 0,
+    size: Int = values.size
+) : PrimitiveArrayList(offset, size) {
+    override fun elementAt(arrayIndex: Int): AnyElement = LongIntElementImpl(values[arrayIndex], EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
+    override fun slice(offset: Int, size: Int): LongArrayList = LongArrayList(values, offset, size)
+    override fun hashAt(arrayIndex: Int): Int = unannotatedHash(ElementType.INT, values[arrayIndex].hashCode())
+
+    override fun contentEquals(other: PrimitiveArrayList): Boolean {
+        other as LongArrayList
+        for (i in 0 until size) {
+            if (values[offset + i] != other.values[other.offset + i]) return false
+        }
+        return true
+    }
+
+    fun toLongArray(): LongArray = values.copyOfRange(offset, offset + size)
+}
+
+internal class DoubleArrayList(
+    private val values: DoubleArray,
+    offset: Int = 0,
+    size: Int = values.size
+) : PrimitiveArrayList(offset, size) {
+    override fun elementAt(arrayIndex: Int): AnyElement = FloatElementImpl(values[arrayIndex], EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
+    override fun slice(offset: Int, size: Int): DoubleArrayList = DoubleArrayList(values, offset, size)
+
+    override fun hashAt(arrayIndex: Int): Int {
+        val value = values[arrayIndex]
+        return unannotatedHash(ElementType.FLOAT, value.compareTo(0.0).hashCode() * 31 + value.hashCode())
+    }
+
+    override fun contentEquals(other: PrimitiveArrayList): Boolean {
+        other as DoubleArrayList
+        for (i in 0 until size) {
+            // compareTo() distinguishes between 0.0 and -0.0, like FloatElement equality
+            if (values[offset + i].compareTo(other.values[other.offset + i]) != 0) return false
+        }
+        return true
+    }
+
+    fun toDoubleArray(): DoubleArray = values.copyOfRange(offset, offset + size)
+}
+
+internal class BooleanArrayList(
+    private val values: BooleanArray,
+    offset: Int = 0,
+    size: Int = values.size
+) : PrimitiveArrayList(offset, size) {
+    override fun elementAt(arrayIndex: Int): AnyElement = BoolElementImpl(values[arrayIndex], EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
+    override fun slice(offset: Int, size: Int): BooleanArrayList = BooleanArrayList(values, offset, size)
+    override fun hashAt(arrayIndex: Int): Int = unannotatedHash(ElementType.BOOL, values[arrayIndex].hashCode())
+
+    override fun contentEquals(other: PrimitiveArrayList): Boolean {
+        other as BooleanArrayList
+        for (i in 0 until size) {
+            if (values[offset + i] != other.values[other.offset + i]) return false
+        }
+        return true
+    }
+
+    fun toBooleanArray(): BooleanArray = values.copyOfRange(offset, offset + size)
+}
+
+/**
+ * Returns a [PrimitiveArrayList] containing the values of [elements] if they are all un-annotated, meta-less, non-null
+ * ints (that fit in a [Long]), floats, or bools of the same type; otherwise returns null.
+ */
+internal fun toPrimitiveArrayListOrNull(elements: List<AnyElement>): PrimitiveArrayList? {
+    if (elements.isEmpty()) return null
+    val first = elements[0]
+    val type = first.type
+    if (type != ElementType.INT && type != ElementType.FLOAT && type != ElementType.BOOL) return null
+    for (i in elements.indices) {
+        val element = elements[i]
+        if (element.type != type || element.isNull || element.annotations.isNotEmpty() || element.metas.isNotEmpty()) return null
+        if (type == ElementType.INT && element.integerSize != IntElementSize.LONG) return null
+    }
+    return when (type) {
+        ElementType.INT -> LongArrayList(LongArray(elements.size) { elements[it].longValue })
+        ElementType.FLOAT -> DoubleArrayList(DoubleArray(elements.size) { elements[it].doubleValue })
+        else -> BooleanArrayList(BooleanArray(elements.size) { elements[it].booleanValue })
+    }
+}
+
+/**
+ * Reads the values of a list from an [IonReader] into a primitive array, without creating an element for each value,
+ * for as long as they are all un-annotated, non-null ints that fit in a [Long], or all un-annotated, non-null floats.
+ */
+internal class PrimitiveArrayListReader {
+    private var type: IonType? = null
+    private var longs = EMPTY_LONGS
+    private var doubles = EMPTY_DOUBLES
+
+    /** The number of values that have been read. */
+    var size = 0
+        private set
+
+    /**
+     * Reads the current value of [ionReader], which is of type [valueType], and returns true; or returns false without
+     * reading it if it cannot be stored in the same array as the values that have already been read.
+     */
+    fun read(ionReader: IonReader, valueType: IonType): Boolean {
+        if (type != null && valueType != type) return false
+        if (ionReader.isNullValue || ionReader.typeAnnotations.isNotEmpty()) return false
+        when (valueType) {
+            IonType.INT -> {
+                if (ionReader.integerSize == IntegerSize.BIG_INTEGER && ionReader.bigIntegerValue() !in RANGE_OF_LONG) return false
+                if (size == longs.size) longs = longs.copyOf(maxOf(INITIAL_CAPACITY, size * 2))
+                longs[size] = ionReader.longValue()
+            }
+            IonType.FLOAT -> {
+                if (size == doubles.size) doubles = doubles.copyOf(maxOf(INITIAL_CAPACITY, size * 2))
+                doubles[size] = ionReader.doubleValue()
+            }
+            else -> return false
+        }
+        type = valueType
+        size++
+        return true
+    }
+
+    /** Returns a list of the values that have been read, or null if no values have been read. */
+    fun toList(): PrimitiveArrayList? = when (type) {
+        IonType.INT -> LongArrayList(if (size == longs.size) longs else longs.copyOf(size))
+        IonType.FLOAT -> DoubleArrayList(if (size == doubles.size) doubles else doubles.copyOf(size))
+        else -> null
+    }
+
+    /** Returns a new list of elements for the values that have been read, so that other values can be added to it. */
+    fun toElements(): ArrayList<AnyElement> {
+        val elements = ArrayList<AnyElement>(maxOf(INITIAL_CAPACITY, size * 2))
+        when (type) {
+            IonType.INT -> for (i in 0 until size) elements.add(LongIntElementImpl(longs[i], EMPTY_IMMUTABLE_LIST, EMPTY_METAS))
+            IonType.FLOAT -> for (i in 0 until size) elements.add(FloatElementImpl(doubles[i], EMPTY_IMMUTABLE_LIST, EMPTY_METAS))
+            else -> {}
+        }
+        return elements
+    }
+}
+
+private const val INITIAL_CAPACITY = 10
+private val EMPTY_LONGS = LongArray(0)
+private val EMPTY_DOUBLES = DoubleArray(0)
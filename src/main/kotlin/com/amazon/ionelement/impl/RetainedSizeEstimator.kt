@@ -0,0 +1,223 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.Decimal
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+import java.lang.reflect.Field
+import java.lang.reflect.Modifier
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.nio.ByteBuffer
+import java.util.ArrayDeque
+import java.util.Collections
+import java.util.IdentityHashMap
+
+/**
+ * Estimates the heap memory that is retained by a graph of objects. See [estimateRetainedSize].
+ *
+ * Sizes are modelled on a 64-bit HotSpot JVM with compressed references and compressed class pointers (the defaults
+ * for heaps smaller than 32 GiB): objects have a 12-byte header, array headers are 16 bytes, references are 4 bytes,
+ * and every object is padded to a multiple of 8 bytes. The layouts of our own classes, and of the other libraries'
+ * classes that elements hold, are read using reflection; JDK classes cannot be reflected on in newer JVMs, so the
+ * JDK classes that elements hold are modelled below instead.
+ *
+ * Each object is counted once, no matter how many times it is reachable, and objects that are shared by all elements
+ * (see [SHARED_INSTANCES]) are never counted. Instances are not thread-safe.
+ */
+internal class RetainedSizeEstimator {
+    private val visited = IdentityHashMap<Any, Unit>()
+    private val pending = ArrayDeque<Any>()
+
+    /** The total size, in bytes, of the objects that have been visited so far. */
+    var size: Long = 0
+        private set
+
+    init {
+        SHARED_INSTANCES.forEach { visited[it] = Unit }
+    }
+
+    /** Adds the size of everything that is reachable from [root], and that has not already been counted, to [size]. */
+    fun add(root: Any) {
+        // An explicit stack, so that deeply nested elements cannot cause a StackOverflowError.
+        push(root)
+        while (pending.isNotEmpty()) {
+            size += shallowSize(pending.pop())
+        }
+    }
+
+    private fun push(obj: Any?) {
+        if (obj != null && visited.put(obj, Unit) == null) pending.push(obj)
+    }
+
+    /** Returns the size of [obj] itself, and pushes the objects that it refers to. */
+    private fun shallowSize(obj: Any): Long {
+        val type = obj.javaClass
+        return when {
+            type.isArray -> arraySize(obj)
+            obj is String -> stringSize(obj)
+            obj is Enum<*> || obj is Class<*> || obj is Boolean -> 0
+            obj is Decimal -> {
+                // Decimals always hold a BigInteger, because they are created using BigDecimal(BigInteger, int).
+                push(obj.unscaledValue())
+                BIG_DECIMAL_SIZE
+            }
+            obj is BigDecimal -> {
+                // BigDecimals created from a long only allocate their BigInteger when it is first needed.
+                if (obj.unscaledValue().bitLength() >= 63) push(obj.unscaledValue())
+                BIG_DECIMAL_SIZE
+            }
+            obj is BigInteger -> BIG_INTEGER_SIZE + align(ARRAY_HEADER + 4L * ((obj.bitLength() + 31) / 32))
+            obj is Byte || obj is Short || obj is Int || obj is Long || obj is Char -> boxSize(obj)
+            obj is Number -> BOX_SIZE
+            obj is ByteBuffer -> {
+                if (obj.hasArray()) push(obj.array())
+                BYTE_BUFFER_SIZE
+            }
+            type.isJdkClass -> jdkObjectSize(obj)
+            else -> {
+                val layout = CLASS_LAYOUTS.get(type)
+                if (layout.singleton === obj) return 0
+                layout.referenceFields.forEach { push(it.get(obj)) }
+                layout.shallowSize
+            }
+        }
+    }
+
+    private fun arraySize(array: Any): Long = when (array) {
+        is Array<*> -> {
+            array.forEach { push(it) }
+            align(ARRAY_HEADER + REFERENCE_SIZE * array.size)
+        }
+        is ByteArray -> align(ARRAY_HEADER + array.size.toLong())
+        is BooleanArray -> align(ARRAY_HEADER + array.size.toLong())
+        is CharArray -> align(ARRAY_HEADER + 2L * array.size)
+        is ShortArray -> align(ARRAY_HEADER + 2L * array.size)
+        is IntArray -> align(ARRAY_HEADER + 4L * array.size)
+        is FloatArray -> align(ARRAY_HEADER + 4L * array.size)
+        is LongArray -> align(ARRAY_HEADER + 8L * array.size)
+        is DoubleArray -> align(ARRAY_HEADER + 8L * array.size)
+        else -> error("Unknown array type: ${array.javaClass}")
+    }
+
+    @OptIn(ExperimentalStdlibApi::class)
+    private fun stringSize(string: String): Long {
+        val bytesPerChar = when {
+            !COMPACT_STRINGS -> 2
+            string.all { it.code <= 0xFF } -> 1
+            else -> 2
+        }
+        return STRING_SIZE + align(ARRAY_HEADER + bytesPerChar.toLong() * string.length)
+    }
+
+    /** Boxes of small integral values are cached by the JDK, so they are shared. */
+    @OptIn(ExperimentalStdlibApi::class)
+    private fun boxSize(box: Any): Long {
+        val value = if (box is Char) box.code.toLong() else (box as Number).toLong()
+        return if (value in -128..127 && (box !is Char || value >= 0)) 0 else BOX_SIZE
+    }
+
+    private fun jdkObjectSize(obj: Any): Long = when (obj) {
+        is Map<*, *> -> {
+            obj.forEach { (key, value) ->
+                push(key)
+                push(value)
+            }
+            // A HashMap, its table (at the default load factor), and its entries.
+            MAP_SIZE + align(ARRAY_HEADER + REFERENCE_SIZE * tableCapacity(obj.size)) + MAP_ENTRY_SIZE * obj.size
+        }
+        is Collection<*> -> {
+            obj.forEach { push(it) }
+            // An ArrayList and its array.
+            COLLECTION_SIZE + align(ARRAY_HEADER + REFERENCE_SIZE * obj.size)
+        }
+        // Other JDK classes are not expected in elements; count them as small objects without walking them.
+        else -> OBJECT_SIZE
+    }
+
+    private fun tableCapacity(size: Int): Long {
+        var capacity = 16L
+        while (capacity * 3 / 4 < size) capacity *= 2
+        return capacity
+    }
+
+    /** The layout of a class that is not part of the JDK. */
+    private class ClassLayout(
+        val shallowSize: Long,
+        /** The non-static fields of the class and its superclasses that hold references. */
+        val referenceFields: List<Field>,
+        /** The instance of a Kotlin `object` class, which is shared. */
+        val singleton: Any?
+    )
+
+    companion object {
+        private const val OBJECT_HEADER = 12L
+        private const val ARRAY_HEADER = 16L
+        private const val REFERENCE_SIZE = 4L
+
+        private const val OBJECT_SIZE = 16L
+        private const val BOX_SIZE = 16L
+        private const val STRING_SIZE = 24L
+        private const val BIG_INTEGER_SIZE = 40L
+        private const val BIG_DECIMAL_SIZE = 40L
+        private const val BYTE_BUFFER_SIZE = 64L
+        private const val COLLECTION_SIZE = 24L
+        private const val MAP_SIZE = 48L
+        private const val MAP_ENTRY_SIZE = 32L
+
+        /** Whether Strings that only contain Latin-1 characters use one byte per character (Java 9 and later). */
+        private val COMPACT_STRINGS = !System.getProperty("java.specification.version").startsWith("1.")
+
+        /** Objects that are shared by all elements, so they are not retained by any one element. */
+        private val SHARED_INSTANCES: List<Any> = listOf(
+            EMPTY_IMMUTABLE_LIST, EMPTY_IMMUTABLE_MAP, EMPTY_METAS,
+            emptyIonList(), emptyIonSexp(), emptyIonStruct(), emptyBlob(), emptyClob(),
+            Collections.EMPTY_LIST, Collections.EMPTY_MAP, Collections.EMPTY_SET,
+        ) + ElementType.values().map { ionNull(it) }
+
+        private val CLASS_LAYOUTS = object : ClassValue<ClassLayout>() {
+            override fun computeValue(type: Class<*>): ClassLayout = classLayout(type)
+        }
+
+        private fun align(size: Long): Long = (size + 7) and 7L.inv()
+
+        private val Class<*>.isJdkClass: Boolean
+            get() = name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.") || name.startsWith("jdk.")
+
+        private fun classLayout(type: Class<*>): ClassLayout {
+            var size = OBJECT_HEADER
+            val referenceFields = mutableListOf<Field>()
+            var current: Class<*>? = type
+            while (current != null && current != Any::class.java) {
+                for (field in current.declaredFields) {
+                    if (Modifier.isStatic(field.modifiers)) continue
+                    size += when (field.type) {
+                        Long::class.javaPrimitiveType, Double::class.javaPrimitiveType -> 8
+                        Int::class.javaPrimitiveType, Float::class.javaPrimitiveType -> 4
+                        Short::class.javaPrimitiveType, Char::class.javaPrimitiveType -> 2
+                        Byte::class.javaPrimitiveType, Boolean::class.javaPrimitiveType -> 1
+                        else -> {
+                            // The fields of JDK superclasses (such as AbstractMap) are only caches, and cannot be
+                            // made accessible in newer JVMs, so they are counted but not walked.
+                            if (!current.isJdkClass) {
+                                field.isAccessible = true
+                                referenceFields.add(field)
+                            }
+                            REFERENCE_SIZE
+                        }
+                    }
+                }
+                current = current.superclass
+            }
+            return ClassLayout(align(size), referenceFields, kotlinObjectInstance(type))
+        }
+
+        private fun kotlinObjectInstance(type: Class<*>): Any? {
+            val field = type.declaredFields.firstOrNull { it.name == "INSTANCE" && it.type == type } ?: return null
+            if (!Modifier.isStatic(field.modifiers)) return null
+            field.isAccessible = true
+            return field.get(null)
+        }
+    }
+}
@@ -17,13 +17,17 @@ package com.amazon.ionelement.impl
 
 import com.amazon.ion.IonWriter
 import com.amazon.ionelement.api.AnyElement
+import com.amazon.ionelement.api.ElementFingerprint
+import com.amazon.ionelement.api.IonElement
 import com.amazon.ionelement.api.MetaContainer
 import com.amazon.ionelement.api.SeqElement
 import com.amazon.ionelement.impl.collections.*
+import kotlinx.collections.immutable.PersistentList
+import kotlinx.collections.immutable.toPersistentList
 
 internal abstract class SeqElementBase(
     override val values: ImmutableList<AnyElement>
-) : AnyElementBase(), SeqElement {
+) : AnyElementBase(), SeqElement, FingerprintCache {
 
     override val containerValues: List<AnyElement> get() = values
     override val seqValues: List<AnyElement> get() = values
@@ -31,6 +35,15 @@ internal abstract class SeqElementBase(
     override val size: Int
         get() = values.size
 
+    /**
+     * The values of this sequence as a [PersistentList], so that modified copies of this sequence can share storage
+     * with it. This is only O(n) the first time a sequence that was not created by a modification is modified.
+     */
+    protected val persistentValues: PersistentList<AnyElement>
+        get() = values.toPersistentList()
+
+    override var cachedFingerprint: ElementFingerprint? = null
+
     override fun writeContentTo(writer: IonWriter) {
         writer.stepIn(type.toIonType())
         values.forEach {
@@ -39,6 +52,10 @@ internal abstract class SeqElementBase(
         writer.stepOut()
     }
 
+    abstract override fun withAppended(value: IonElement): SeqElementBase
+    abstract override fun withSet(index: Int, value: IonElement): SeqElementBase
+    abstract override fun subList(fromIndex: Int, toIndex: Int): SeqElementBase
+
     abstract override fun copy(annotations: List<String>, metas: MetaContainer): SeqElementBase
     abstract override fun withAnnotations(vararg additionalAnnotations: String): SeqElementBase
     abstract override fun withAnnotations(additionalAnnotations: Iterable<String>): SeqElementBase
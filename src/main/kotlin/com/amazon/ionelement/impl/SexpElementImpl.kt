@@ -19,15 +19,25 @@ import com.amazon.ionelement.api.*
 import com.amazon.ionelement.api.ImmutableMetaContainer
 import com.amazon.ionelement.impl.collections.*
 
-internal class SexpElementImpl(
-    values: ImmutableList<AnyElement>,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class SexpElementImpl(
+    values: ImmutableList<AnyElement>
 ) : SeqElementBase(values), SexpElement {
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val type: ElementType get() = ElementType.SEXP
 
     override val sexpValues: List<AnyElement> get() = seqValues
 
+    override fun withAppended(value: IonElement): SexpElementImpl =
+        SexpElementImpl(persistentValues.add(value.asAnyElement()), annotations, metas)
+
+    override fun withSet(index: Int, value: IonElement): SexpElementImpl =
+        SexpElementImpl(persistentValues.set(index, value.asAnyElement()), annotations, metas)
+
+    override fun subList(fromIndex: Int, toIndex: Int): SexpElementImpl =
+        SexpElementImpl(values.subList(fromIndex, toIndex), annotations, metas)
+
     override fun copy(annotations: List<String>, metas: MetaContainer): SexpElementImpl =
         SexpElementImpl(values, annotations.toImmutableList(), metas.toImmutableMap())
 
@@ -40,4 +50,26 @@ internal class SexpElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [SexpElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(values: ImmutableList<AnyElement>) : SexpElementImpl(values) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        values: ImmutableList<AnyElement>,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : SexpElementImpl(values)
+
+    companion object {
+        /** Creates a [SexpElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            values: ImmutableList<AnyElement>,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): SexpElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(values) else Full(values, annotations, metas)
+    }
 }
@@ -20,11 +20,12 @@ import com.amazon.ionelement.api.*
 import com.amazon.ionelement.api.ImmutableMetaContainer
 import com.amazon.ionelement.impl.collections.*
 
-internal class StringElementImpl(
-    value: String,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class StringElementImpl(
+    value: String
 ) : TextElementBase(value), StringElement {
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val type: ElementType get() = ElementType.STRING
 
     override val stringValue: String get() = textValue
@@ -43,4 +44,26 @@ internal class StringElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [StringElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(value: String) : StringElementImpl(value) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        value: String,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : StringElementImpl(value)
+
+    companion object {
+        /** Creates a [StringElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            value: String,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): StringElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(value) else Full(value, annotations, metas)
+    }
 }
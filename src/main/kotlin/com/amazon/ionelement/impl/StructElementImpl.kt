@@ -24,11 +24,12 @@ import com.amazon.ionelement.impl.collections.*
 import java.util.function.Consumer
 
 // TODO: Consider creating a StructElement variant with optimizations that assume no duplicate field names.
-internal class StructElementImpl(
-    private val allFields: ImmutableList<StructField>,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
-) : AnyElementBase(), StructElement {
+internal sealed class StructElementImpl(
+    private val allFields: ImmutableList<StructField>
+) : AnyElementBase(), StructElement, FingerprintCache {
+
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
 
     override val type: ElementType get() = ElementType.STRUCT
     override val size: Int get() = allFields.size
@@ -49,41 +50,42 @@ internal class StructElementImpl(
 
     // Note that we are not using `by lazy` here because it requires 2 additional allocations and
     // has been demonstrated to significantly increase memory consumption!
-    private var fieldsByNameBackingField: ImmutableMap<String, ImmutableList<AnyElement>>? = null
+    private var fieldsByNameBackingField: Map<String, ImmutableList<AnyElement>>? = null
 
     /** Lazily calculated map of field names and lists of their values. */
-    private val fieldsByName: Map<String, List<AnyElement>>
+    private val fieldsByName: Map<String, ImmutableList<AnyElement>>
         get() {
             if (fieldsByNameBackingField == null) {
-                fieldsByNameBackingField =
-                    fields
-                        .groupBy { it.name }
-                        .map { structFieldGroup -> structFieldGroup.key to structFieldGroup.value.map { it.value }.toImmutableListUnsafe() }
-                        .toMap()
-                        .toImmutableMapUnsafe()
+                fieldsByNameBackingField = allFields.toFieldsByName()
             }
             return fieldsByNameBackingField!!
         }
 
-    override fun mutableFields(): MutableStructFields {
-        val internalMap = mutableMapOf<String, MutableList<StructField>>()
-        return MutableStructFieldsImpl(
-            fieldsByName.mapValuesTo(internalMap) { (name, values) ->
-                values.map { field(name, it) }.toMutableList()
-            }
-        )
-    }
+    /*
+     * The persistent map that is used by the following functions is only built when they are called, so that the
+     * structs that are only read do not pay for it. The structs that they return share it with each other.
+     */
+
+    override fun mutableFields(): MutableStructFields = PersistentMutableStructFieldsImpl(allFields.toPersistentFieldMap(), size)
 
     override fun update(mutator: MutableStructFields.() -> Unit): StructElement {
-        val mutableFields = mutableFields()
+        val mutableFields = PersistentMutableStructFieldsImpl(allFields.toPersistentFieldMap(), size)
         mutableFields.apply(mutator)
-        return ionStructOf(mutableFields, annotations, metas)
+        return mutableFields.toStructElement(annotations, metas)
     }
 
     override fun update(mutator: Consumer<MutableStructFields>): StructElement {
-        val mutableFields = mutableFields()
+        val mutableFields = PersistentMutableStructFieldsImpl(allFields.toPersistentFieldMap(), size)
         mutator.accept(mutableFields)
-        return ionStructOf(mutableFields, annotations, metas)
+        return mutableFields.toStructElement(annotations, metas)
+    }
+
+    override fun withField(fieldName: String, value: IonElement): StructElement =
+        PersistentStructElementImpl(allFields.toPersistentFieldMap(), size, annotations, metas).withField(fieldName, value)
+
+    override fun withoutField(fieldName: String): StructElement {
+        if (!containsField(fieldName)) return this
+        return PersistentStructElementImpl(allFields.toPersistentFieldMap(), size, annotations, metas).withoutField(fieldName)
     }
 
     override fun get(fieldName: String): AnyElement =
@@ -170,4 +172,40 @@ internal class StructElementImpl(
         }
         return this.cachedHashCode!!
     }
+
+    override var cachedFingerprint: ElementFingerprint? = null
+
+    /** A [StructElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(allFields: ImmutableList<StructField>) : StructElementImpl(allFields) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        allFields: ImmutableList<StructField>,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : StructElementImpl(allFields)
+
+    companion object {
+        /** Creates a [StructElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            allFields: ImmutableList<StructField>,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): StructElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(allFields) else Full(allFields, annotations, metas)
+    }
+}
+
+/**
+ * Groups the values of [this] by field name, in a [HashMap] that is cheap to build and to read. Each list of values is in
+ * the order of [this].
+ */
+internal fun Collection<StructField>.toFieldsByName(): Map<String, ImmutableList<AnyElement>> {
+    val valuesByName = HashMap<String, ArrayList<AnyElement>>()
+    forEach { valuesByName.getOrPut(it.name) { ArrayList(1) }.add(it.value) }
+    val fieldsByName = HashMap<String, ImmutableList<AnyElement>>(valuesByName.size * 4 / 3 + 1)
+    valuesByName.forEach { (name, values) -> fieldsByName[name] = values.toImmutableListUnsafe() }
+    return fieldsByName
 }
@@ -20,11 +20,12 @@ import com.amazon.ionelement.api.*
 import com.amazon.ionelement.api.ImmutableMetaContainer
 import com.amazon.ionelement.impl.collections.*
 
-internal class SymbolElementImpl(
-    value: String,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class SymbolElementImpl(
+    value: String
 ) : TextElementBase(value), SymbolElement {
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val type: ElementType get() = ElementType.SYMBOL
 
     override val symbolValue: String get() = textValue
@@ -43,4 +44,26 @@ internal class SymbolElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [SymbolElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(value: String) : SymbolElementImpl(value) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        value: String,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : SymbolElementImpl(value)
+
+    companion object {
+        /** Creates a [SymbolElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            value: String,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): SymbolElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(value) else Full(value, annotations, metas)
+    }
 }
@@ -21,12 +21,13 @@ import com.amazon.ionelement.api.*
 import com.amazon.ionelement.api.ImmutableMetaContainer
 import com.amazon.ionelement.impl.collections.*
 
-internal class TimestampElementImpl(
-    override val timestampValue: Timestamp,
-    override val annotations: ImmutableList<String>,
-    override val metas: ImmutableMetaContainer
+internal sealed class TimestampElementImpl(
+    override val timestampValue: Timestamp
 ) : AnyElementBase(), TimestampElement {
 
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
     override val type: ElementType get() = ElementType.TIMESTAMP
     override fun copy(annotations: List<String>, metas: MetaContainer): TimestampElementImpl =
         TimestampElementImpl(timestampValue, annotations.toImmutableList(), metas.toImmutableMap())
@@ -42,4 +43,26 @@ internal class TimestampElementImpl(
 
     override fun equals(other: Any?): Boolean = isEquivalentTo(other)
     override fun hashCode(): Int = hashElement(this)
+
+    /** A [TimestampElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(timestampValue: Timestamp) : TimestampElementImpl(timestampValue) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        timestampValue: Timestamp,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : TimestampElementImpl(timestampValue)
+
+    companion object {
+        /** Creates a [TimestampElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        operator fun invoke(
+            timestampValue: Timestamp,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): TimestampElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(timestampValue) else Full(timestampValue, annotations, metas)
+    }
 }
@@ -0,0 +1,141 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.IonWriter
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.api.ImmutableMetaContainer
+import com.amazon.ionelement.impl.collections.*
+
+/**
+ * A [StringElement] that stores its value as UTF-8 bytes, which are decoded the first time that [textValue] is called.
+ *
+ * Equivalence and hashing of two [Utf8StringElementImpl]s use the bytes directly, so strings that are only compared,
+ * hashed, or used as map keys are never decoded. The bytes are never modified, and are always valid UTF-8; see
+ * [fromUtf8OrNull].
+ */
+internal sealed class Utf8StringElementImpl(
+    val utf8: ByteArray,
+    /** The same as [String.hashCode] of [textValue]. */
+    val textHashCode: Int
+) : AnyElementBase(), StringElement {
+
+    abstract override val annotations: ImmutableList<String>
+    abstract override val metas: ImmutableMetaContainer
+
+    // Racy single-check: every thread that sees null decodes an equal String.
+    private var decoded: String? = null
+
+    override val type: ElementType get() = ElementType.STRING
+
+    override val textValue: String
+        get() = decoded ?: String(utf8, Charsets.UTF_8).also { decoded = it }
+
+    override val stringValue: String get() = textValue
+
+    override fun copy(annotations: List<String>, metas: MetaContainer): Utf8StringElementImpl =
+        create(utf8, textHashCode, annotations.toImmutableList(), metas.toImmutableMap())
+
+    override fun withAnnotations(vararg additionalAnnotations: String): Utf8StringElementImpl = _withAnnotations(*additionalAnnotations)
+    override fun withAnnotations(additionalAnnotations: Iterable<String>): Utf8StringElementImpl = _withAnnotations(additionalAnnotations)
+    override fun withoutAnnotations(): Utf8StringElementImpl = _withoutAnnotations()
+    override fun withMetas(additionalMetas: MetaContainer): Utf8StringElementImpl = _withMetas(additionalMetas)
+    override fun withMeta(key: String, value: Any): Utf8StringElementImpl = _withMeta(key, value)
+    override fun withoutMetas(): Utf8StringElementImpl = _withoutMetas()
+
+    override fun writeContentTo(writer: IonWriter) = writer.writeString(textValue)
+
+    override fun equals(other: Any?): Boolean = isEquivalentTo(other)
+    override fun hashCode(): Int = hashElement(this)
+
+    /** A [Utf8StringElementImpl] without annotations or metas, which does not store them. */
+    private class Slim(utf8: ByteArray, textHashCode: Int) : Utf8StringElementImpl(utf8, textHashCode) {
+        override val annotations: ImmutableList<String> get() = EMPTY_IMMUTABLE_LIST
+        override val metas: ImmutableMetaContainer get() = EMPTY_METAS
+    }
+
+    private class Full(
+        utf8: ByteArray,
+        textHashCode: Int,
+        override val annotations: ImmutableList<String>,
+        override val metas: ImmutableMetaContainer
+    ) : Utf8StringElementImpl(utf8, textHashCode)
+
+    companion object {
+        /** Creates a [Utf8StringElementImpl], which only stores [annotations] and [metas] if either is not empty. */
+        private fun create(
+            utf8: ByteArray,
+            textHashCode: Int,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): Utf8StringElementImpl =
+            if (annotations.isEmpty() && metas.isEmpty()) Slim(utf8, textHashCode) else Full(utf8, textHashCode, annotations, metas)
+
+        /**
+         * Returns a [Utf8StringElementImpl] for [utf8], which must not be modified afterwards, or null if [utf8] is
+         * not valid UTF-8.
+         */
+        fun fromUtf8OrNull(
+            utf8: ByteArray,
+            annotations: ImmutableList<String>,
+            metas: ImmutableMetaContainer
+        ): Utf8StringElementImpl? {
+            val textHashCode = textHashCodeOrNull(utf8) ?: return null
+            return create(utf8, textHashCode, annotations, metas)
+        }
+
+        /**
+         * Calculates the [String.hashCode] of the text encoded by [utf8] without decoding it, or returns null if
+         * [utf8] is not valid UTF-8.
+         */
+        @OptIn(ExperimentalStdlibApi::class)
+        private fun textHashCodeOrNull(utf8: ByteArray): Int? {
+            var hash = 0
+            var i = 0
+            while (i < utf8.size) {
+                val b0 = utf8[i].toInt() and 0xFF
+                val codePoint: Int
+                when {
+                    b0 < 0x80 -> {
+                        codePoint = b0
+                        i += 1
+                    }
+                    b0 in 0xC2..0xDF && isContinuation(utf8, i + 1) -> {
+                        codePoint = (b0 and 0x1F shl 6) or continuation(utf8, i + 1)
+                        i += 2
+                    }
+                    b0 in 0xE0..0xEF && isContinuation(utf8, i + 1) && isContinuation(utf8, i + 2) -> {
+                        codePoint = (b0 and 0x0F shl 12) or (continuation(utf8, i + 1) shl 6) or continuation(utf8, i + 2)
+                        // Overlong encodings and surrogates are not valid UTF-8
+                        if (codePoint < 0x800 || codePoint in 0xD800..0xDFFF) return null
+                        i += 3
+                    }
+                    b0 in 0xF0..0xF4 && isContinuation(utf8, i + 1) && isContinuation(utf8, i + 2) && isContinuation(utf8, i + 3) -> {
+                        codePoint = (b0 and 0x07 shl 18) or (continuation(utf8, i + 1) shl 12) or
+                            (continuation(utf8, i + 2) shl 6) or continuation(utf8, i + 3)
+                        // Overlong encodings and code points that are out of range are not valid UTF-8
+                        if (codePoint < 0x10000 || codePoint > Character.MAX_CODE_POINT) return null
+                        i += 4
+                    }
+                    else -> return null
+                }
+                hash = if (codePoint < 0x10000) {
+                    31 * hash + codePoint
+                } else {
+                    31 * (31 * hash + Character.highSurrogate(codePoint).code) + Character.lowSurrogate(codePoint).code
+                }
+            }
+            return hash
+        }
+
+        private fun isContinuation(utf8: ByteArray, index: Int): Boolean =
+            index < utf8.size && utf8[index].toInt() and 0xC0 == 0x80
+
+        private fun continuation(utf8: ByteArray, index: Int): Int = utf8[index].toInt() and 0x3F
+    }
+}
+
+/** Creates a [StringElement] for the UTF-8 bytes in [utf8], using a [Utf8StringElementImpl] if they are valid. */
+internal fun utf8StringElement(utf8: ByteArray, annotations: ImmutableList<String>, metas: ImmutableMetaContainer): AnyElement =
+    Utf8StringElementImpl.fromUtf8OrNull(utf8, annotations, metas)
+        ?: StringElementImpl(String(utf8, Charsets.UTF_8), annotations, metas)
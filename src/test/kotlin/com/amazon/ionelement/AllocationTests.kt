@@ -0,0 +1,88 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ion.system.IonBinaryWriterBuilder
+import com.amazon.ion.system.IonReaderBuilder
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.util.allocatedBytesPerCall
+import java.io.ByteArrayOutputStream
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+/**
+ * Allocation budgets for operations that are called very often. These catch changes that add allocations to these
+ * operations, which are easy to miss in review, and which are not always visible in benchmarks.
+ *
+ * Operations with a budget of zero are allowed to allocate less than 1 byte per call on average, to tolerate
+ * allocations by the JVM itself.
+ */
+class AllocationTests {
+    private val struct = loadSingleElement(
+        "{ a: 1, b: \"two\", c: three, d: 4e0, e: true, f: [1, 2], g: { h: 5 }, i: null.int, a: 11 }"
+    ).asStruct()
+
+    private fun assertNoAllocations(block: () -> Unit) {
+        val bytes = allocatedBytesPerCall(block = block)
+        assertTrue(bytes < 1.0) { "Allocated $bytes bytes per call" }
+    }
+
+    @Test
+    fun `get on an indexed struct does not allocate`() {
+        struct["a"]
+        assertNoAllocations {
+            struct["a"]
+            struct.getOptional("g")
+            struct.getOptional("missing")
+            struct.containsField("i")
+        }
+    }
+
+    @Test
+    fun `hashCode of a struct with a cached hash code does not allocate`() {
+        val hashCode = struct.hashCode()
+        assertNoAllocations { assertEquals(hashCode, struct.hashCode()) }
+    }
+
+    @Test
+    fun `hashElement does not allocate`() {
+        // Hash codes of nested containers are cached, so this only hashes the fields of the top-level struct.
+        val hashCode = hashElement(struct)
+        assertNoAllocations { assertEquals(hashCode, hashElement(struct)) }
+        val list = loadSingleElement("[1, \"two\", three, 4e0, { five: 5 }]")
+        assertNoAllocations { hashElement(list) }
+    }
+
+    @Test
+    fun `areElementsEqual on identical elements does not allocate`() {
+        val other = loadSingleElement(struct.toString())
+        assertNoAllocations { areElementsEqual(struct, struct) }
+        assertTrue(areElementsEqual(struct, other))
+    }
+
+    @Test
+    fun `loading a struct allocates a bounded number of bytes per field`() {
+        fun loadingCost(fieldCount: Int): Double {
+            val out = ByteArrayOutputStream()
+            IonBinaryWriterBuilder.standard().build(out).use { writer ->
+                // A few field names are repeated, so that the size of the symbol table does not depend on the number of fields.
+                ionStructOf(List(fieldCount) { field("field${it % 10}", ionInt(it.toLong())) }).writeTo(writer)
+            }
+            val data = out.toByteArray()
+            return allocatedBytesPerCall(iterations = 200) {
+                IonReaderBuilder.standard().build(data).use { reader ->
+                    reader.next()
+                    loadCurrentElement(reader)
+                }
+            }
+        }
+        val perField = (loadingCost(1000) - loadingCost(100)) / 900
+        // Each field needs a StructField, an element, and a slot in the list of fields, which is about 64 bytes.
+        assertTrue(perField <= BYTES_PER_LOADED_FIELD) { "Allocated $perField bytes per field" }
+    }
+
+    companion object {
+        private const val BYTES_PER_LOADED_FIELD = 96
+    }
+}
@@ -0,0 +1,98 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.ColumnarStructList
+import com.amazon.ionelement.impl.DoubleArrayList
+import com.amazon.ionelement.impl.LongArrayList
+import org.junit.jupiter.api.Assertions.assertArrayEquals
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+class ColumnarListsTests {
+    private val columnarOptions = IonElementLoaderOptions { useColumnarLists = true }
+
+    private fun loadColumnar(text: String) = loadSingleElement(text, columnarOptions).asList()
+
+    private val rows = """
+        [
+          { ts: 2023-01-01T00:00Z, host: "a", cpu: 0.5e0, mem: 100 },
+          { ts: 2023-01-01T00:01Z, host: "b", cpu: 0.25e0, mem: 200 },
+          { ts: 2023-01-01T00:02Z, host: "a", cpu: 1e0, mem: 300 },
+        ]
+    """
+
+    @Test
+    fun `lists of same-shaped structs are stored in columns`() {
+        val list = loadColumnar(rows)
+        assertTrue(list.values is ColumnarStructList)
+        assertTrue(list.column("cpu").values is DoubleArrayList)
+        assertTrue(list.column("mem").values is LongArrayList)
+        assertArrayEquals(longArrayOf(100, 200, 300), list.column("mem").toLongArray())
+        assertArrayEquals(doubleArrayOf(0.5, 0.25, 1.0), list.column("cpu").toDoubleArray())
+        assertEquals(loadSingleElement("""["a", "b", "a"]"""), list.column("host"))
+    }
+
+    @Test
+    fun `columnar lists are equivalent to lists of structs`() {
+        val list = loadColumnar(rows)
+        val expected = loadSingleElement(rows)
+        assertFalse(expected.listValues is ColumnarStructList)
+        assertEquals(expected, list)
+        assertEquals(list, expected)
+        assertEquals(expected.hashCode(), list.hashCode())
+        assertEquals(expected.toString(), list.toString())
+        assertEquals(expected.listValues[1], list.values[1])
+        assertEquals("b", list.values[1].asStruct()["host"].textValue)
+
+        assertEquals(expected.asList().subList(1, 3), list.subList(1, 3))
+        assertArrayEquals(longArrayOf(200, 300), list.subList(1, 3).column("mem").toLongArray())
+        assertEquals(expected.asList().withAppended(ionInt(1)), list.withAppended(ionInt(1)))
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "[{ a: 1 }]",
+            "[{ a: 1 }, { b: 1 }]",
+            "[{ a: 1, b: 2 }, { b: 2, a: 1 }]",
+            "[{ a: 1, a: 2 }, { a: 1, a: 2 }]",
+            "[{ a: 1 }, x::{ a: 1 }]",
+            "[{ a: 1 }, null.struct]",
+            "[{ a: 1 }, 1]",
+            "[{}, {}]",
+        ]
+    )
+    fun `other lists are not stored in columns`(text: String) {
+        val list = loadColumnar(text)
+        assertFalse(list.values is ColumnarStructList)
+        assertEquals(loadSingleElement(text), list)
+    }
+
+    @Test
+    fun `columnar lists are not loaded by default`() {
+        assertFalse(loadSingleElement(rows).listValues is ColumnarStructList)
+        val withLocations = IonElementLoaderOptions { useColumnarLists = true; includeLocationMeta = true }
+        assertFalse(loadSingleElement(rows, withLocations).listValues is ColumnarStructList)
+    }
+
+    @Test
+    fun `column of a list of structs`() {
+        val list = loadSingleElement(rows).asList()
+        assertEquals(loadSingleElement("[100, 200, 300]"), list.column("mem"))
+        assertEquals(loadSingleElement("[x::1, 2]"), loadSingleElement("({ a: x::1 } { a: 2, b: 3 })").asSexp().column("a"))
+    }
+
+    @Test
+    fun `column throws if a value does not have the field`() {
+        assertThrows<IonElementException> { loadColumnar(rows).column("disk") }
+        assertThrows<IonElementException> { loadSingleElement("[{ a: 1 }, { b: 1 }]").asList().column("a") }
+        assertThrows<IonElementException> { loadSingleElement("[{ a: 1 }, 1]").asList().column("a") }
+    }
+}
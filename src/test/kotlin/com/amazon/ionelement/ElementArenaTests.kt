@@ -0,0 +1,112 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ion.system.IonBinaryWriterBuilder
+import com.amazon.ion.system.IonReaderBuilder
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.util.randomIonElement
+import com.amazon.ionelement.util.randomSeed
+import java.io.ByteArrayOutputStream
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+class ElementArenaTests {
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "null null.bool null.int null.struct a::null.list",
+            "true false 0 -1 9223372036854775807 -9223372036854775808 99999999999999999999 -99999999999999999999",
+            "0e0 -0e0 1.5e0 nan +inf -inf",
+            "0. -0. 0d-3 -0d-3 1.50 -123.456d100",
+            "2001T 2001-02T 2001-02-03 2001-02-03T04:05Z 2001-02-03T04:05:06.789-08:00 2001-02-03T04:05:06.000-00:00",
+            "1969-12-31T23:59:59.9999Z a::2001-02-03T04:05:06.123456789+01:00 b::2001-02-03T04:05:06.1234567891+01:00",
+            "\"\" \"abc\" \"\\u00e9\\U0001F600\" '' abc 'a b'",
+            "{{}} {{ \"\" }} {{ aGVsbG8= }} {{ \"hello\" }}",
+            "[] () {} [1, [2, (3 a::4)], { a: b }] (a b::c::d) { a: 1, a: 2, 'b c': { d: [] } }",
+            "a::b::1 a::{ b: c::[d::e] }",
+        ]
+    )
+    fun `elements are equal to loaded elements`(text: String) {
+        val arena = ElementArena.load(text)
+        assertEquals(loadAllElements(text).toList(), arena.elements)
+    }
+
+    @Test
+    fun `random elements are equal to loaded elements`() {
+        val elements = List(100) { randomIonElement() }
+        val out = ByteArrayOutputStream()
+        IonBinaryWriterBuilder.standard().build(out).use { writer -> elements.forEach { it.writeTo(writer) } }
+
+        val arena = IonReaderBuilder.standard().build(out.toByteArray()).use { ElementArena.load(it) }
+        assertEquals(elements, arena.elements) { "seed: $randomSeed" }
+        assertEquals(elements.hashCode(), arena.elements.hashCode()) { "seed: $randomSeed" }
+    }
+
+    @Test
+    fun `containers are read from the arena`() {
+        val struct = ElementArena.load("{ a: [1, 2, 3, 4], b: x::\"y\" }").elements.single().asStruct()
+        val list = struct["a"].asList()
+        assertEquals(loadSingleElement("[2, 3]"), list.subList(1, 3))
+        assertEquals(loadSingleElement("[1, 2, 3, 4, 5]"), list.withAppended(ionInt(5)))
+        assertEquals(ionString("y", annotations = listOf("x")), struct["b"])
+        assertEquals(loadSingleElement("{ b: x::\"y\" }"), struct.withoutField("a"))
+        assertTrue(struct.metas.isEmpty())
+    }
+
+    @Test
+    fun `field names and annotations are shared`() {
+        val arena = ElementArena.load("a::{ name: 1 } a::{ name: 2 }")
+        val (first, second) = arena.elements.map { it.asStruct() }
+        assertSame(first.fields.single().name, second.fields.single().name)
+        assertSame(first.annotations.single(), second.annotations.single())
+        assertSame(first.fields.single().name, first.fields.single().name)
+    }
+
+    @Test
+    fun `deeply nested containers`() {
+        // Elements are encoded without recursion, so the depth is limited only by the IonReader
+        val text = "[".repeat(10_000) + "1" + "]".repeat(10_000)
+        var maxDepth = 0
+        val walker = object : ElementWalker() {
+            override fun visit(fieldName: String?, element: AnyElement) {
+                maxDepth = depth
+            }
+        }
+        walker.walk(ElementArena.load(text).elements.single())
+        assertEquals(10_000, maxDepth)
+    }
+
+    @Test
+    fun `arenas can be read by many threads`() {
+        val text = List(1000) { "{ id: $it, tags: [a, b, \"$it\"] }" }.joinToString(" ")
+        val expected = loadAllElements(text).toList()
+        val arena = ElementArena.load(text)
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            val results = executor.invokeAll(List(8) { Callable { arena.elements == expected } })
+            results.forEach { assertTrue(it.get()) }
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun `empty arena`() {
+        val arena = ElementArena.load("")
+        assertEquals(emptyList<AnyElement>(), arena.elements)
+        assertEquals(4, arena.sizeInBytes)
+    }
+
+    @Test
+    fun `malformed data`() {
+        assertThrows<IonElementLoaderException> { ElementArena.load("[1, 2") }
+    }
+}
@@ -0,0 +1,136 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.util.randomIonElement
+import com.amazon.ionelement.util.randomSeed
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.CsvSource
+
+class ElementDiffTests {
+    private fun field(name: String, occurrence: Int = 0) = PathSegment.Field(name, occurrence)
+    private fun index(i: Int) = PathSegment.Index(i)
+    private fun ion(text: String) = loadSingleElement(text)
+
+    @ParameterizedTest
+    @CsvSource(
+        delimiter = '|',
+        value = [
+            "1                             | 2",
+            "1                             | a::1",
+            "[1, 2, 3]                     | [1, 2, 3]",
+            "[1, 2, 3]                     | [1, 4, 3]",
+            "[1, 2, 3]                     | [1, 2, 3, 4]",
+            "[1, 2, 3]                     | [0, 1, 2, 3]",
+            "[1, 2, 3]                     | [1, 3]",
+            "[1, 2, 3, 4, 5]               | [1, 6, 7, 8, 4, 5]",
+            "[1, 2, 3, 4, 5]               | [1, 5]",
+            "[]                            | (1 2)",
+            "a::[1]                        | b::[1]",
+            "null.list                     | [1]",
+            "{ a: 1, b: 2 }                | { b: 2, a: 1 }",
+            "{ a: 1, b: 2 }                | { a: 1, c: 2 }",
+            "{ a: 1, a: 2 }                | { a: 2, a: 3 }",
+            "{ a: 1, a: 2, a: 3 }          | { a: 3 }",
+            "{ a: 1 }                      | { a: 3, a: 1, a: 2 }",
+            "{ a: 1, a: 2, a: 3, b: 4 }    | { b: 5, a: 4, a: 2 }",
+            "{ a: [{ b: 1 }, { b: 2 }] }   | { a: [{ b: 1 }, { b: 2, c: 3 }] }",
+            "{ a: [{ b: 1 }, { b: 2 }] }   | { a: [{ b: [x, y] }], d: (1) }",
+        ]
+    )
+    fun `applying the diff produces the new element`(old: String, new: String) {
+        val edits = diffElements(ion(old), ion(new))
+        assertEquals(ion(new), ion(old).applyEdits(edits), edits.toString())
+        assertEquals(ion(old) == ion(new), edits.isEmpty())
+    }
+
+    @Test
+    fun `applying the diff of random elements produces the new element`() {
+        repeat(200) {
+            val old = randomIonElement()
+            val new = randomIonElement()
+            assertEquals(new, old.applyEdits(diffElements(old, new))) { "seed: $randomSeed" }
+            assertEquals(emptyList<ElementEdit>(), diffElements(old, old.copy())) { "seed: $randomSeed" }
+        }
+    }
+
+    @Test
+    fun `changes are reported at the deepest possible path`() {
+        val old = ion("{ a: [{ b: 1 }, { b: 2 }], c: 3 }")
+        val new = ion("{ a: [{ b: 1 }, { b: 20 }], c: 3 }")
+        assertEquals(
+            listOf(ElementEdit.Changed(listOf(field("a"), index(1), field("b")), ionInt(2).asAnyElement(), ionInt(20).asAnyElement())),
+            diffElements(old, new)
+        )
+    }
+
+    @Test
+    fun `added and removed sequence elements`() {
+        assertEquals(
+            listOf(ElementEdit.Added(listOf(index(1)), ionInt(5).asAnyElement())),
+            diffElements(ion("[1, 2, 3]"), ion("[1, 5, 2, 3]"))
+        )
+        assertEquals(
+            listOf(
+                ElementEdit.Changed(listOf(index(1)), ionInt(2).asAnyElement(), ionInt(9).asAnyElement()),
+                ElementEdit.Removed(listOf(index(2)), ionInt(3).asAnyElement()),
+                ElementEdit.Removed(listOf(index(2)), ionInt(4).asAnyElement()),
+            ),
+            diffElements(ion("[1, 2, 3, 4, 5]"), ion("[1, 9, 5]"))
+        )
+    }
+
+    @Test
+    fun `repeated field names are matched by value`() {
+        assertEquals(
+            listOf(ElementEdit.Changed(listOf(field("a", 0)), ionInt(1).asAnyElement(), ionInt(3).asAnyElement())),
+            diffElements(ion("{ a: 1, a: 2 }"), ion("{ a: 2, a: 3 }"))
+        )
+        assertEquals(
+            listOf(
+                ElementEdit.Removed(listOf(field("a", 2)), ionInt(3).asAnyElement()),
+                ElementEdit.Removed(listOf(field("a", 0)), ionInt(1).asAnyElement()),
+            ),
+            diffElements(ion("{ a: 1, a: 2, a: 3 }"), ion("{ a: 2 }"))
+        )
+        assertEquals(
+            listOf(ElementEdit.Added(listOf(field("a", 1)), ionInt(1).asAnyElement())),
+            diffElements(ion("{ a: 1 }"), ion("{ a: 1, a: 1 }"))
+        )
+    }
+
+    @Test
+    fun `applyEdits preserves annotations and metas`() {
+        val old = ion("a::{ b: c::[1] }").withMeta("m", 1)
+        val edited = old.applyEdits(diffElements(old, ion("a::{ b: c::[2] }")))
+        assertEquals(ion("a::{ b: c::[2] }"), edited)
+        assertEquals(1, edited.metas["m"])
+    }
+
+    @Test
+    fun `applyEdits rejects edits that do not fit the element`() {
+        val element = ion("{ a: [1] }")
+        val invalid = listOf(
+            ElementEdit.Changed(listOf(field("a"), index(0)), ionInt(2).asAnyElement(), ionInt(3).asAnyElement()),
+            ElementEdit.Changed(listOf(field("b")), ionInt(1).asAnyElement(), ionInt(3).asAnyElement()),
+            ElementEdit.Changed(listOf(field("a", 1)), ionInt(1).asAnyElement(), ionInt(3).asAnyElement()),
+            ElementEdit.Removed(listOf(field("a"), index(1)), ionInt(1).asAnyElement()),
+            ElementEdit.Added(listOf(field("a"), index(2)), ionInt(1).asAnyElement()),
+            ElementEdit.Added(listOf(field("a", 0)), ionInt(1).asAnyElement()),
+            ElementEdit.Added(listOf(index(0)), ionInt(1).asAnyElement()),
+        )
+        invalid.forEach { edit ->
+            assertThrows<IllegalArgumentException> { element.applyEdits(listOf(edit)) }
+        }
+    }
+
+    @Test
+    fun `toString uses path notation`() {
+        val edit = ElementEdit.Removed(listOf(field("a"), index(1), field("b", 2)), ionInt(1).asAnyElement())
+        assertEquals("Removed($.a[1].b(2): 1)", edit.toString())
+    }
+}
@@ -0,0 +1,88 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.util.ION
+import com.amazon.ionelement.util.randomIonElement
+import com.amazon.ionelement.util.randomSeed
+import java.math.BigInteger
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.CsvSource
+
+class ElementFingerprintTests {
+    private fun fingerprint(ionText: String) = fingerprintElement(loadSingleElement(ionText))
+
+    /** These values must never change, since fingerprints may be persisted. */
+    @ParameterizedTest
+    @CsvSource(
+        delimiter = '|',
+        value = [
+            "null                                   | 3304f959519f68026815ef112ae13dee",
+            "true                                   | eac2e951fb55683688975fb56f6140a2",
+            "1                                      | 563379acc18ddb1e2d8df5e11cf03504",
+            "a::b::1                                | bd68d89ce1834d452a77edd9265fbe31",
+            "123456789012345678901234567890         | d04697ccf06a28bc9919903da4c01370",
+            "-0e0                                   | 82d344dffd4f0f1e8a568f85ddca1206",
+            "1.50                                   | fec5edf40493228c3d213d2fbd225905",
+            "2020-01-01T00:00:00.000Z               | cea64b29c7b1cb331f7f2ed0fa3cb92f",
+            "\"h\\u00e9llo \\U0001F600\"            | 23ee0fdfc60172eebdbb522ed79549a4",
+            "hello                                  | a9166cfe6083692fda679bebfb9d9242",
+            "{{ aGVsbG8= }}                         | 14490b1691c41158ef628c40a0d1ff9c",
+            "[1, (2 three), { four: 4.0, five: 5 }] | 66ea3a1a8dff3bdb03e3a897a5f1c5ef",
+        ]
+    )
+    fun `fingerprints are stable`(ionText: String, expected: String) {
+        assertEquals(expected, fingerprint(ionText).toString())
+    }
+
+    @Test
+    fun `equal elements have equal fingerprints`() {
+        repeat(200) {
+            val element = randomIonElement()
+            val copy = ION.singleValue(element.toString()).let { loadSingleElement(it.toString()) }
+            assertEquals(fingerprintElement(element), fingerprintElement(copy)) { "seed: $randomSeed" }
+        }
+    }
+
+    @Test
+    fun `field order and metas are not significant`() {
+        val a = loadSingleElement("{ a: 1, b: [2], a: 3 }")
+        val b = loadSingleElement("{ b: [2], a: 3, a: 1 }").withMeta("foo", "bar")
+        assertEquals(fingerprintElement(a), fingerprintElement(b))
+        assertEquals(fingerprintElement(ionInt(1)), fingerprintElement(ionInt(BigInteger.ONE)))
+    }
+
+    @Test
+    fun `elements that are not equal have different fingerprints`() {
+        val elements = listOf(
+            "null", "null.int", "a::null", "0", "-0e0", "0e0", "nan", "0.", "-0.", "0.0",
+            "2020T", "2020-01-01T", "2020-01-01T00:00Z", "2020-01-01T00:00-00:00", "2020-01-01T00:00:00.0Z",
+            "\"a\"", "a", "'a'::a", "{{ \"a\" }}", "{{ YQ== }}", "[a]", "(a)", "[]", "()", "{}", "{ a: a }",
+            "{ a: a, a: a }", "[[]]", "[[], []]", "[a, b]", "[ab]", "[\"\", \"a\"]", "[\"a\", \"\"]",
+        ).map { loadSingleElement(it) }
+        val fingerprints = elements.map { fingerprintElement(it) }
+        assertEquals(elements.size, fingerprints.toSet().size, fingerprints.zip(elements).toString())
+    }
+
+    @Test
+    fun `fingerprints of modified containers`() {
+        val struct = loadSingleElement("{ a: [1, 2, 3], b: { c: 4 } }").asStruct()
+        val modified = struct.withField("d", ionInt(5))
+        assertEquals(fingerprint("{ a: [1, 2, 3], b: { c: 4 }, d: 5 }"), fingerprintElement(modified))
+        assertNotEquals(fingerprintElement(struct), fingerprintElement(modified))
+    }
+
+    @Test
+    fun `toString and parse`() {
+        val fingerprint = ElementFingerprint(-1, 0x0123456789abcdefL)
+        assertEquals("ffffffffffffffff0123456789abcdef", fingerprint.toString())
+        assertEquals(fingerprint, ElementFingerprint.parse(fingerprint.toString()))
+        assertThrows<IllegalArgumentException> { ElementFingerprint.parse("0123") }
+        assertThrows<IllegalArgumentException> { ElementFingerprint.parse("ffffffffffffffff0123456789abcdeg") }
+    }
+}
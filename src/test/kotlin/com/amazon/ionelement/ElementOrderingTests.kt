@@ -0,0 +1,92 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.util.randomIonElement
+import com.amazon.ionelement.util.randomSeed
+import java.math.BigInteger
+import java.util.TreeMap
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class ElementOrderingTests {
+    /** Every element in this list is strictly less than the elements after it. */
+    private val ordered = loadAllElements(
+        """
+        null
+        a::null
+        null.bool false true
+        null.int -9999999999999999999999 -1 0 a::0 b::0 1 2 9999999999999999999999
+        null.float -inf -1e0 -0e0 0e0 1e0 +inf nan
+        null.decimal -1. -0. -0.0 0. 0.0 1.0 1.00 2.
+        null.timestamp 2020T 2020-01-01T 2020-01-01T00:00-00:00 2020-01-01T00:00Z 2020-01-01T01:00+01:00
+        2020-01-01T00:00:00Z 2020-01-01T00:00:00.0Z 2020-01-01T00:00:00.00Z 2020-01-01T00:00:00.001Z 2021T
+        null.symbol '' a ab b
+        null.string "" "a" "\ue000" "\U0001F600"
+        null.clob {{ "" }} {{ "a" }} {{ "a\x00" }} {{ "b" }}
+        null.blob {{ }} {{ AA== }} {{ /w== }}
+        null.list [] [1] [1, 1] [1, a::1] [2]
+        null.sexp () (1) (a)
+        null.struct {} { a: 1 } { a: 2 } { b: 0 } { a: 1, a: 2 } { a: 1, b: 0 } { a: 2, a: 1, a: 3 }
+        """
+    ).toList()
+
+    @Test
+    fun `elements are ordered`() {
+        for (i in ordered.indices) {
+            for (j in ordered.indices) {
+                val expected = i.compareTo(j)
+                val actual = compareElements(ordered[i], ordered[j])
+                assertEquals(expected, Integer.signum(actual)) { "compareElements(${ordered[i]}, ${ordered[j]})" }
+            }
+        }
+    }
+
+    @Test
+    fun `sorting shuffled elements restores the order`() {
+        val shuffled = ordered.shuffled(kotlin.random.Random(randomSeed))
+        assertEquals(ordered, shuffled.sortedWith(elementComparator())) { "seed: $randomSeed" }
+    }
+
+    @Test
+    fun `ints are compared by value regardless of representation`() {
+        assertEquals(0, compareElements(ionInt(1), ionInt(BigInteger.ONE)))
+        assertTrue(compareElements(ionInt(BigInteger.ONE), ionInt(2)) < 0)
+        assertTrue(compareElements(ionInt(BigInteger.valueOf(Long.MIN_VALUE).dec()), ionInt(Long.MIN_VALUE)) < 0)
+        assertTrue(compareElements(ionInt(Long.MAX_VALUE), ionInt(BigInteger.valueOf(Long.MAX_VALUE).inc())) < 0)
+    }
+
+    @Test
+    fun `the order of struct fields is not significant`() {
+        val a = loadSingleElement("{ a: 1, b: [2], a: 3 }")
+        val b = loadSingleElement("{ b: [2], a: 3, a: 1 }")
+        assertEquals(0, compareElements(a, b))
+        assertTrue(compareElements(a, loadSingleElement("{ b: [2], a: 3, a: 2 }")) < 0)
+    }
+
+    @Test
+    fun `metas are not significant`() {
+        assertEquals(0, compareElements(ionInt(1, metas = metaContainerOf("foo" to 1)), ionInt(1)))
+    }
+
+    @Test
+    fun `order is consistent with equality`() {
+        repeat(200) {
+            val a = randomIonElement()
+            val b = randomIonElement()
+            assertEquals(0, compareElements(a, a.copy())) { "seed: $randomSeed" }
+            assertEquals(a == b, compareElements(a, b) == 0) { "seed: $randomSeed" }
+            assertEquals(Integer.signum(compareElements(a, b)), -Integer.signum(compareElements(b, a))) { "seed: $randomSeed" }
+        }
+    }
+
+    @Test
+    fun `elements can be keys of a TreeMap`() {
+        val map = TreeMap<AnyElement, Int>(elementComparator())
+        ordered.reversed().forEachIndexed { i, element -> map[element] = i }
+        assertEquals(ordered, map.keys.toList())
+        assertEquals(ordered.size - 1, map[loadSingleElement("null")])
+    }
+}
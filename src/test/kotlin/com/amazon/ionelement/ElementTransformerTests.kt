@@ -0,0 +1,167 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.util.INCLUDE_LOCATION_META
+import com.amazon.ionelement.util.randomIonElement
+import com.amazon.ionelement.util.randomSeed
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotSame
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+
+class ElementTransformerTests {
+
+    private val document = loadSingleElement(
+        """
+        a::{
+          id: 1,
+          name: "Alice",
+          contacts: [{ kind: email, value: "alice@example.com" }, { kind: phone, value: "555-0100" }],
+          history: (login (view page) logout),
+        }
+        """
+    )
+
+    @Test
+    fun `identity transform returns the original instance`() {
+        assertSame(document, document.transform { _, element -> element })
+    }
+
+    @Test
+    fun `identity transform of random elements returns the original instance`() {
+        repeat(100) {
+            val element = randomIonElement()
+            assertSame(element, element.transform { _, e -> e }, "Random seed: $randomSeed")
+        }
+    }
+
+    @Test
+    fun `unmodified subtrees are shared`() {
+        val redacted = document.transform { fieldName, element ->
+            if (fieldName == "name") ionString("REDACTED") else element
+        }.asStruct()
+
+        assertEquals(
+            loadSingleElement(
+                """
+                a::{
+                  id: 1,
+                  name: "REDACTED",
+                  contacts: [{ kind: email, value: "alice@example.com" }, { kind: phone, value: "555-0100" }],
+                  history: (login (view page) logout),
+                }
+                """
+            ),
+            redacted
+        )
+        assertNotSame(document, redacted)
+        val original = document.asStruct()
+        assertSame(original["contacts"], redacted["contacts"])
+        assertSame(original["history"], redacted["history"])
+    }
+
+    @Test
+    fun `nested replacements rebuild only the path to the replaced element`() {
+        val redacted = document.transform { fieldName, element ->
+            if (fieldName == "value" && element.type == ElementType.STRING) ionString("***") else element
+        }.asStruct()
+
+        val contacts = redacted["contacts"].asList().values
+        assertEquals(listOf(ionString("***"), ionString("***")), contacts.map { it.asStruct()["value"] })
+        assertEquals(listOf(ionSymbol("email"), ionSymbol("phone")), contacts.map { it.asStruct()["kind"] })
+        assertSame(document.asStruct()["history"], redacted["history"])
+    }
+
+    @Test
+    fun `containers are transformed after their children`() {
+        val visited = mutableListOf<String>()
+        loadSingleElement("[1, (2 3), { a: 4 }]").transform { fieldName, element ->
+            visited.add(fieldName?.let { "$it:$element" } ?: element.toString())
+            element
+        }
+        assertEquals(listOf("1", "2", "3", "(2 3)", "a:4", "{a:4}", "[1,(2 3),{a:4}]"), visited)
+    }
+
+    @Test
+    fun `containers receive their transformed children`() {
+        val sum = loadSingleElement("[1, [2, 3], (4 [5])]").transform { _, element ->
+            if (element.type.isSeq) ionInt(element.seqValues.map { it.longValue }.sum()) else element
+        }
+        assertEquals(ionInt(15), sum)
+    }
+
+    @Test
+    fun `annotations and metas of rebuilt containers are preserved`() {
+        val element = ionListOf(ionInt(1), annotations = listOf("foo"), metas = metaContainerOf("bar" to 2))
+        val transformed = element.transform { _, e -> if (e.type == ElementType.INT) ionInt(e.longValue + 1) else e }
+
+        assertEquals(loadSingleElement("foo::[2]"), transformed)
+        assertEquals(mapOf("bar" to 2), transformed.metas)
+    }
+
+    @Test
+    fun `scalar roots and null containers are transformed directly`() {
+        assertEquals(ionInt(2), ionInt(1).transform { _, _ -> ionInt(2) })
+        assertEquals(ionBool(true), ionNull(ElementType.LIST).transform { _, _ -> ionBool(true) })
+    }
+
+    @Test
+    fun `deeply nested trees do not overflow the stack`() {
+        var element: IonElement = ionInt(0)
+        repeat(100_000) { element = ionListOf(element) }
+
+        val transformed = element.transform { _, e -> if (e.type == ElementType.INT) ionInt(1) else e }
+
+        var innermost = transformed
+        while (innermost.type == ElementType.LIST) innermost = innermost.listValues.single()
+        assertEquals(ionInt(1), innermost)
+    }
+
+    @Test
+    fun `withoutMetasDeep removes metas from every element`() {
+        val element = loadSingleElement("a::{ b: [1, c::(2)], d: 3 }", INCLUDE_LOCATION_META)
+        val stripped = element.withoutMetasDeep()
+
+        assertEquals(element, stripped)
+        stripped.transform { _, e -> e.also { assertEquals(emptyMap<String, Any>(), it.metas) } }
+    }
+
+    @Test
+    fun `withoutMetasDeep reuses subtrees that have no metas`() {
+        val noMetas = loadSingleElement("{ b: [1, (2)] }")
+        val element = ionListOf(noMetas, ionInt(1).withMeta("foo", 1))
+        val stripped = element.withoutMetasDeep()
+
+        assertSame(noMetas, stripped.listValues[0])
+        assertEquals(emptyMap<String, Any>(), stripped.listValues[1].metas)
+        assertSame(noMetas, noMetas.withoutMetasDeep())
+    }
+
+    @Test
+    fun `lists that create their elements on each read are not rebuilt`() {
+        val primitive = loadSingleElement("{ a: [1, 2, 3, 4, 5], b: \"x\" }")
+        val columnar = loadSingleElement("[{ a: 1, b: 2 }, { a: 3, b: 4 }]", IonElementLoaderOptions { useColumnarLists = true })
+        val arena = ElementArena.load("{ a: [1, 2, 3], b: { c: [d, e] } }").elements.single()
+
+        for (element in listOf(primitive, columnar, arena)) {
+            assertSame(element, element.transform { _, e -> e })
+            assertSame(element, element.withoutMetasDeep())
+            assertSame(element, element.withoutAnnotationsDeep())
+        }
+
+        val replaced = primitive.transform { fieldName, e -> if (fieldName == "b") ionString("y") else e }.asStruct()
+        assertSame(primitive.asStruct()["a"], replaced["a"])
+        assertEquals(loadSingleElement("{ a: [1, 2, 3, 4, 5], b: \"y\" }"), replaced)
+    }
+
+    @Test
+    fun `withoutAnnotationsDeep removes annotations from every element`() {
+        val element = loadSingleElement("a::{ b: [1, c::(2)], d: e::f::3, g: [h] }")
+        val stripped = element.withoutAnnotationsDeep().asStruct()
+
+        assertEquals(loadSingleElement("{ b: [1, (2)], d: 3, g: [h] }"), stripped)
+        assertSame(element.asStruct()["g"], stripped["g"])
+    }
+}
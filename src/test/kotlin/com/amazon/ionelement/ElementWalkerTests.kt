@@ -0,0 +1,97 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ionelement.api.*
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+class ElementWalkerTests {
+    /** Records each callback as a string. */
+    private open class RecordingWalker(private val skip: String? = null) : ElementWalker() {
+        val events = mutableListOf<String>()
+
+        override fun visit(fieldName: String?, element: AnyElement) {
+            events.add("$depth ${fieldName ?: "-"} $element")
+        }
+
+        override fun enterContainer(fieldName: String?, container: AnyElement): Boolean {
+            events.add("$depth ${fieldName ?: "-"} enter ${container.type}")
+            return skip == null || fieldName != skip
+        }
+
+        override fun exitContainer(fieldName: String?, container: AnyElement) {
+            events.add("$depth ${fieldName ?: "-"} exit ${container.type}")
+        }
+    }
+
+    @Test
+    fun `callbacks are called in document order`() {
+        val walker = RecordingWalker()
+        walker.walk(loadSingleElement("{ a: 1, b: [2, (3)], c: null.list, d: {} }"))
+        assertEquals(
+            listOf(
+                "0 - enter STRUCT",
+                "1 a 1",
+                "1 b enter LIST",
+                "2 - 2",
+                "2 - enter SEXP",
+                "3 - 3",
+                "2 - exit SEXP",
+                "1 b exit LIST",
+                "1 c null.list",
+                "1 d enter STRUCT",
+                "1 d exit STRUCT",
+                "0 - exit STRUCT",
+            ),
+            walker.events
+        )
+    }
+
+    @Test
+    fun `containers can be skipped`() {
+        val walker = RecordingWalker(skip = "b")
+        walker.walk(loadSingleElement("{ a: 1, b: [2, (3)], c: 4 }"))
+        assertEquals(listOf("0 - enter STRUCT", "1 a 1", "1 b enter LIST", "1 c 4", "0 - exit STRUCT"), walker.events)
+    }
+
+    @Test
+    fun `scalar roots are visited`() {
+        val walker = RecordingWalker()
+        walker.walk(ionInt(1))
+        walker.walk(ionNull(ElementType.STRUCT))
+        assertEquals(listOf("0 - 1", "0 - null.struct"), walker.events)
+    }
+
+    @Test
+    fun `deeply nested trees`() {
+        var element: IonElement = ionStructOf("a" to ionInt(0))
+        repeat(100_000) { element = ionListOf(element) }
+
+        var maxDepth = 0
+        val walker = object : ElementWalker() {
+            override fun visit(fieldName: String?, element: AnyElement) {
+                maxDepth = maxOf(maxDepth, depth)
+            }
+        }
+        walker.walk(element)
+        assertEquals(100_001, maxDepth)
+
+        // The walker can be reused
+        maxDepth = 0
+        walker.walk(ionListOf(ionInt(1)))
+        assertEquals(1, maxDepth)
+    }
+
+    @Test
+    fun `walk cannot be called from a callback`() {
+        val walker = object : RecordingWalker() {
+            override fun visit(fieldName: String?, element: AnyElement) {
+                walk(element)
+            }
+        }
+        assertThrows<IllegalStateException> { walker.walk(ionListOf(ionInt(1))) }
+        assertThrows<IllegalStateException> { walker.walk(ionInt(1)) }
+    }
+}
@@ -25,6 +25,7 @@ import com.amazon.ionelement.util.convertToString
 import java.math.BigInteger
 import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNotEquals
 import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.assertThrows
@@ -182,14 +183,21 @@ class IonElementLoaderTests {
 
         assertTrue(opts.includeLocationMeta)
         assertFalse(opts.useRecursiveLoad)
+        assertFalse(opts.useColumnarLists)
+        assertFalse(opts.retainUtf8Strings)
 
         val copy = opts.copyWith {
             useRecursiveLoad = true
+            useColumnarLists = true
+            retainUtf8Strings = true
         }
 
         // Unchanged
         assertTrue(copy.includeLocationMeta)
         // Changed
         assertTrue(copy.useRecursiveLoad)
+        assertTrue(copy.useColumnarLists)
+        assertTrue(copy.retainUtf8Strings)
+        assertNotEquals(opts.copyWith { useRecursiveLoad = true; useColumnarLists = true }, copy)
     }
 }
@@ -0,0 +1,128 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.util.ION
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.Arguments
+import org.junit.jupiter.params.provider.MethodSource
+import org.junit.jupiter.params.provider.ValueSource
+
+class IonPathTests {
+    companion object {
+        private const val DOCUMENT = """
+            {
+              id: 1,
+              'first name': "Alice",
+              orders: [
+                order::{ sku: a1, items: [{ sku: b1 }, { sku: b2 }] },
+                order::{ sku: a2, items: [] },
+                return::{ sku: a3 },
+              ],
+              tags: (x y z),
+              dup: 1,
+              dup: 2,
+            }
+        """
+
+        @JvmStatic
+        fun paths() = listOf(
+            Arguments.of("", "[$DOCUMENT]"),
+            Arguments.of("$", "[$DOCUMENT]"),
+            Arguments.of("$.id", "[1]"),
+            Arguments.of(".id", "[1]"),
+            Arguments.of("['first name']", "[\"Alice\"]"),
+            Arguments.of("$.orders[0].sku", "[a1]"),
+            Arguments.of("$.orders[*].sku", "[a1, a2, a3]"),
+            Arguments.of("$.orders.*.sku", "[a1, a2, a3]"),
+            Arguments.of("$.orders[*]{order}.sku", "[a1, a2]"),
+            Arguments.of("$.orders[*]{'return'}.sku", "[a3]"),
+            Arguments.of("$..sku", "[a1, b1, b2, a2, a3]"),
+            Arguments.of("$.orders[0]..sku", "[a1, b1, b2]"),
+            Arguments.of("$..items[1]", "[{ sku: b2 }]"),
+            Arguments.of("$..[1].sku", "[a2, b2]"),
+            Arguments.of("$.tags[2]", "[z]"),
+            Arguments.of("$.tags[3]", "[]"),
+            Arguments.of("$.dup", "[1, 2]"),
+            Arguments.of("$.missing", "[]"),
+            Arguments.of("$.id.foo", "[]"),
+            Arguments.of("$.id[0]", "[]"),
+            Arguments.of("$[0]", "[]"),
+            Arguments.of("$.id.*", "[]"),
+            Arguments.of("$.tags..*", "[x, y, z]"),
+        )
+    }
+
+    @ParameterizedTest
+    @MethodSource("paths")
+    fun evaluate(path: String, expected: String) {
+        val results = IonPath.compile(path).evaluate(loadSingleElement(DOCUMENT))
+        assertEquals(loadSingleElement(expected).listValues, results)
+    }
+
+    @ParameterizedTest
+    @MethodSource("paths")
+    fun evaluateCurrent(path: String, expected: String) {
+        ION.newReader(DOCUMENT).use { reader ->
+            reader.next()
+            val results = IonPath.compile(path).evaluateCurrent(reader)
+            assertEquals(loadSingleElement(expected).listValues, results)
+        }
+    }
+
+    @Test
+    fun `evaluateCurrent leaves the reader on the evaluated value`() {
+        val path = IonPath.compile("$.a")
+        ION.newReader("{ a: 1, b: 2 } { a: 3 } [4]").use { reader ->
+            val results = mutableListOf<AnyElement>()
+            while (reader.next() != null) {
+                results.addAll(path.evaluateCurrent(reader))
+            }
+            assertEquals(listOf(ionInt(1), ionInt(3)), results)
+        }
+    }
+
+    @Test
+    fun `evaluateCurrent requires a current value`() {
+        ION.newReader("{ a: 1 }").use { reader ->
+            assertThrows<IllegalArgumentException> { IonPath.compile("$.a").evaluateCurrent(reader) }
+        }
+    }
+
+    @Test
+    fun `recursive descent over deeply nested elements`() {
+        var element: IonElement = ionStructOf("a" to ionInt(0))
+        repeat(100_000) { element = ionListOf(element) }
+
+        assertEquals(listOf(ionInt(0)), IonPath.compile("$..a").evaluate(element))
+    }
+
+    @Test
+    fun `escaped quoted names`() {
+        val element = loadSingleElement("{ 'it\\'s': 1, 'back\\\\slash': 2 }")
+        assertEquals(listOf(ionInt(1)), IonPath.compile("['it\\'s']").evaluate(element))
+        assertEquals(listOf(ionInt(2)), IonPath.compile("['back\\\\slash']").evaluate(element))
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "a", "$$", ".", "..", "$.a.", "[", "[]", "[a]", "[-1]", "[0", "['a]", "['a'", "{", "{}", "{a", "$ .a",
+            "[99999999999]", "$.a b", "$.é", "$.a٣",
+        ]
+    )
+    fun `invalid paths`(path: String) {
+        assertThrows<IllegalArgumentException> { IonPath.compile(path) }
+    }
+
+    @Test
+    fun `equals, hashCode, and toString`() {
+        assertEquals(IonPath.compile("$.a[0]"), IonPath.compile("$.a[0]"))
+        assertEquals(IonPath.compile("$.a[0]").hashCode(), IonPath.compile("$.a[0]").hashCode())
+        assertEquals("$.a[0]", IonPath.compile("$.a[0]").toString())
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ion.IonValue
+import com.amazon.ion.system.IonSystemBuilder
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.util.randomIonElement
+import com.amazon.ionelement.util.randomSeed
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+class IonValueViewTests {
+    private val ion = IonSystemBuilder.standard().build()
+
+    private fun frozenValue(ionText: String): IonValue = ion.singleValue(ionText).apply { makeReadOnly() }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "null", "null.list", "null.struct", "a::null.sexp",
+            "true", "1", "18446744073709551616", "1.5e3", "1.00", "2007-02-23T12:14:33.079-08:00",
+            "\"hello\"", "hello", "{{ aGVsbG8= }}", "{{ \"hello\" }}",
+            "[]", "[1, [2, [3]], a::{ b: c }]", "()", "(+ 1 (- 2 3))",
+            "{}", "{ a: 1, a: 2, b: { c: [d, e] } }", "x::y::{ a: z::1 }",
+        ]
+    )
+    fun `views are equivalent to converted elements`(ionText: String) {
+        val view = frozenValue(ionText).asIonElement()
+        val element = loadSingleElement(ionText)
+
+        assertEquals(element, view)
+        assertEquals(view, element)
+        assertEquals(element.hashCode(), view.hashCode())
+        assertEquals(element.toString(), view.toString())
+    }
+
+    @Test
+    fun `views of random values are equivalent to converted elements`() {
+        repeat(100) {
+            val element = randomIonElement()
+            val ionValue = element.toIonValue(ion).apply { makeReadOnly() }
+            assertEquals(element, ionValue.asIonElement(), "Random seed: $randomSeed")
+        }
+    }
+
+    @Test
+    fun `mutable IonValue instances are rejected`() {
+        assertThrows<IllegalArgumentException> { ion.singleValue("{ a: 1 }").asIonElement() }
+    }
+
+    @Test
+    fun `IonDatagram instances are rejected`() {
+        val datagram = ion.loader.load("1 2").apply { makeReadOnly() }
+        assertThrows<IllegalArgumentException> { datagram.asIonElement() }
+    }
+
+    @Test
+    fun `struct field access`() {
+        val view = frozenValue("{ a: 1, b: [x, y], b: 2 }").asIonElement().asStruct()
+
+        assertEquals(3, view.size)
+        assertEquals(ionInt(1).asAnyElement(), view["a"])
+        assertNull(view.getOptional("c"))
+        assertTrue(view.containsField("b"))
+        assertFalse(view.containsField("c"))
+        assertEquals(setOf(ionListOf(ionSymbol("x"), ionSymbol("y")), ionInt(2)), view.getAll("b").toSet())
+        assertThrows<IonElementConstraintException> { view["c"] }
+    }
+
+    @Test
+    fun `sequence children are only created once`() {
+        val view = frozenValue("[{ a: 1 }, 2]").asIonElement().asList()
+
+        assertSame(view.values[0], view.values[0])
+        assertEquals(listOf(ionInt(2).asAnyElement()), view.values.subList(1, 2))
+    }
+
+    @Test
+    fun `struct children are only created once`() {
+        val view = frozenValue("{ a: { b: 1 }, c: [2], c: 3 }").asIonElement().asStruct()
+
+        assertSame(view["a"], view["a"])
+        assertSame(view["a"], view.getOptional("a"))
+        assertSame(view["a"], view.fields.first().value)
+        assertSame(view.values, view.values)
+        assertSame(view.getAll("c").first(), view.values.elementAt(1))
+    }
+
+    @Test
+    fun `struct update creates a regular element`() {
+        val view = frozenValue("a::{ b: 1, c: 2 }").asIonElement().asStruct()
+        val updated: IonElement = view.update { clearField("b") }
+
+        assertEquals<IonElement>(loadSingleElement("a::{ c: 2 }"), updated)
+    }
+
+    @Test
+    fun `annotations and metas can be replaced`() {
+        val view = frozenValue("a::[1]").asIonElement()
+
+        assertEquals(loadSingleElement("b::[1]"), view.withoutAnnotations().withAnnotations("b"))
+        assertEquals(mapOf("m" to 1), view.withMeta("m", 1).metas)
+        assertEquals(listOf("a"), view.withMeta("m", 1).annotations)
+    }
+}
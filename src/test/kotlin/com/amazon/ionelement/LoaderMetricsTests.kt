@@ -0,0 +1,111 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ion.system.IonReaderBuilder
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.util.ION
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class LoaderMetricsTests {
+    private val reported = mutableListOf<LoadedValueMetrics>()
+    private val options = IonElementLoaderOptions { loaderMetrics = LoaderMetrics { reported.add(it) } }
+
+    @Test
+    fun `metrics of a value`() {
+        loadSingleElement("""a::{ s: "héllo", y: sym, l: [1, 2.5, null.int, {{ AQID }}], n: (x (y)), c: {{ "ab" }} }""", options)
+
+        val metrics = reported.single()
+        assertEquals(13, metrics.elementCount)
+        assertEquals(1, metrics.count(ElementType.STRUCT))
+        assertEquals(2, metrics.count(ElementType.INT))
+        assertEquals(3, metrics.count(ElementType.SYMBOL))
+        assertEquals(2, metrics.count(ElementType.SEXP))
+        assertEquals(0, metrics.count(ElementType.TIMESTAMP))
+        // "héllo" is 6 bytes in UTF-8; the symbols "sym", "x", and "y" are 5 bytes.
+        assertEquals(11, metrics.textBytes)
+        assertEquals(5, metrics.lobBytes)
+        assertEquals(3, metrics.maxDepth)
+        assertEquals(0, metrics.iterativeContainers)
+        assertTrue(metrics.elapsedNanos >= 0)
+    }
+
+    @Test
+    fun `one report for each top-level value`() {
+        val elements = loadAllElements("1 [2] \"three\"", options).toList()
+
+        assertEquals(loadAllElements("1 [2] \"three\"").toList(), elements)
+        assertEquals(listOf(1, 2, 1), reported.map { it.elementCount })
+        assertEquals(listOf(0, 1, 0), reported.map { it.maxDepth })
+        assertEquals(5L, reported[2].textBytes)
+    }
+
+    @Test
+    fun `containers that are loaded iteratively`() {
+        val deep = "[".repeat(150) + "1" + "]".repeat(150)
+        assertEquals(loadSingleElement(deep), loadSingleElement(deep, options))
+        // Only the container at the depth limit is counted; the containers within it are loaded iteratively too.
+        assertEquals(1, reported.single().iterativeContainers)
+        assertEquals(150, reported.single().maxDepth)
+        assertEquals(151, reported.single().elementCount)
+
+        reported.clear()
+        loadSingleElement("[[1], {a: 2}]", options.copyWith { useRecursiveLoad = false })
+        assertEquals(1, reported.single().iterativeContainers)
+        assertEquals(2, reported.single().maxDepth)
+        assertEquals(5, reported.single().elementCount)
+    }
+
+    @Test
+    fun `depth is relative to the value being loaded`() {
+        IonReaderBuilder.standard().build("[[[1, [2]]]]").use { reader ->
+            reader.next()
+            reader.stepIn()
+            reader.next()
+            reader.stepIn()
+            reader.next()
+            loadCurrentElement(reader, options)
+        }
+        assertEquals(2, reported.single().maxDepth)
+        assertEquals(4, reported.single().elementCount)
+    }
+
+    @Test
+    fun `strings that retain their UTF-8 bytes`() {
+        val data = ION.newDatagram(ION.singleValue("[\"héllo\", \"wörld\"]")).getBytes()
+        val utf8Options = options.copyWith { retainUtf8Strings = true }
+        val element = IonReaderBuilder.standard().build(data).use { loadSingleElement(it, utf8Options) }
+
+        assertEquals(12, reported.single().textBytes)
+        assertEquals(loadSingleElement("[\"héllo\", \"wörld\"]"), element)
+    }
+
+    @Test
+    fun `structs that are read using a filter`() {
+        val filter = StructFilter.builder().withFieldEqualTo("a", ionInt(1)).build()
+        val loaded = IonReaderBuilder.standard().build("{a: 1, b: [x]} 2 {a: 2, b: [y]} [{a: 1}]").use {
+            loadAllElements(it, filter, options).toList()
+        }
+
+        assertEquals(1, loaded.size)
+        // The value 2 and the list are skipped without being loaded. The second struct stops at its first field.
+        assertEquals(listOf(4, 2), reported.map { it.elementCount })
+        assertEquals(listOf(1, 0), reported.map { it.count(ElementType.SYMBOL) })
+    }
+
+    @Test
+    fun `options with metrics`() {
+        val listener = LoaderMetrics { }
+        val withListener = IonElementLoaderOptions.builder().withLoaderMetrics(listener).build()
+
+        assertEquals(listener, withListener.loaderMetrics)
+        assertEquals(null, IonElementLoaderOptions {}.loaderMetrics)
+        assertEquals(withListener, withListener.copyWith { })
+        assertEquals(withListener.hashCode(), withListener.copyWith { }.hashCode())
+        assertNotEquals(withListener, withListener.copyWith { loaderMetrics = null })
+        assertNotEquals(withListener, withListener.copyWith { loaderMetrics = LoaderMetrics { } })
+    }
+}
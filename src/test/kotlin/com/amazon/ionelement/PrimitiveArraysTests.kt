@@ -0,0 +1,142 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.BooleanArrayList
+import com.amazon.ionelement.impl.DoubleArrayList
+import com.amazon.ionelement.impl.LongArrayList
+import com.amazon.ionelement.impl.PrimitiveArrayList
+import com.amazon.ionelement.util.INCLUDE_LOCATION_META
+import org.junit.jupiter.api.Assertions.assertArrayEquals
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+class PrimitiveArraysTests {
+    private fun loadList(text: String) = loadSingleElement(text).asList()
+
+    /** Copies [list] into a list that is not backed by a primitive array. */
+    private fun uncompacted(list: ListElement) = ionListOf(list.values.map { it.copy() })
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "[1, -2, 9223372036854775807, -9223372036854775808, 0]",
+            "[1e0, -0e0, 0e0, nan, +inf, -inf, 2.5e0]",
+            "[true, false, false]",
+        ]
+    )
+    fun `loaded lists of primitives are equivalent to lists of elements`(text: String) {
+        val compact = loadList(text)
+        assertTrue(compact.values is PrimitiveArrayList)
+        val expected = uncompacted(compact)
+        assertEquals(expected, compact)
+        assertEquals(compact, expected)
+        assertEquals(expected.hashCode(), compact.hashCode())
+        assertEquals(expected.values, compact.values)
+        assertEquals(expected.toString(), compact.toString())
+        assertEquals(fingerprintElement(expected), fingerprintElement(compact))
+
+        val subList = compact.subList(1, 3)
+        assertTrue(subList.values is PrimitiveArrayList)
+        assertEquals(expected.subList(1, 3), subList)
+        assertEquals(expected.subList(1, 3).hashCode(), subList.hashCode())
+        assertEquals(expected.values.subList(1, 3), subList.values.subList(0, 2))
+    }
+
+    @Test
+    fun `lists of different primitive values are not equal`() {
+        assertNotEquals(loadList("[1, 2, 3]"), loadList("[1, 2, 4]"))
+        assertNotEquals(loadList("[0e0]"), loadList("[-0e0]"))
+        assertNotEquals(loadList("[true]"), loadList("[false]"))
+        assertNotEquals(loadList("[1, 2]"), loadList("[1, 2, 3]"))
+        assertNotEquals(loadList("[1]"), loadList("[1e0]"))
+        assertEquals(loadList("[1, 2, 3]").subList(1, 3), loadList("[2, 3]"))
+        assertEquals(loadList("[nan]"), loadList("[nan]"))
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "[]",
+            "[1, a::2]",
+            "[1, 2e0]",
+            "[1, null.int]",
+            "[1, 99999999999999999999]",
+            "[1.0, 2.0]",
+            "[a, b]",
+            "[1, 2, 3, a]",
+            "[1e0, 2e0, null.float]",
+        ]
+    )
+    fun `other lists are not backed by primitive arrays`(text: String) {
+        assertFalse(loadList(text).values is PrimitiveArrayList)
+    }
+
+    @Test
+    fun `lists that stop being primitive are loaded with all their values`() {
+        assertEquals(ionListOf(ionInt(1), ionInt(2), ionSymbol("a"), ionInt(3)), loadList("[1, 2, a, 3]"))
+        assertEquals(ionListOf(ionFloat(1.0), ionInt(2)), loadList("[1e0, 2]"))
+        assertEquals(ionListOf(ionInt(1), ionInt(2).withAnnotations("b")), loadList("[1, b::2]"))
+
+        val ints = (1L..25L).toList()
+        val longList = loadList(ints.joinToString(", ", "[", "]"))
+        assertArrayEquals(ints.toLongArray(), longList.toLongArray())
+        assertEquals(ionListOf(ints.map { ionInt(it) } + ionString("x")), loadList(ints.joinToString(", ", "[", ", \"x\"]")))
+    }
+
+    @Test
+    fun `values with location metas are not backed by primitive arrays`() {
+        val list = createIonElementLoader(INCLUDE_LOCATION_META).loadSingleElement("[1, 2]").asList()
+        assertFalse(list.values is PrimitiveArrayList)
+        assertTrue(list.values[1].metas.location is IonTextLocation)
+    }
+
+    @Test
+    fun `modified copies of loaded lists`() {
+        val list = loadList("[1, 2, 3]")
+        assertEquals(loadList("[1, 2, 3, a]"), list.withAppended(ionSymbol("a")))
+        assertEquals(loadList("[1, 5e0, 3]"), list.withSet(1, ionFloat(5.0)))
+        assertEquals(loadList("a::[1, 2, 3]"), list.withAnnotations("a"))
+        assertEquals(loadList("[1, 2, 3]"), list)
+    }
+
+    @Test
+    fun `primitive arrays are copied from loaded lists`() {
+        val list = loadList("[1, 2, 3]")
+        assertTrue(list.values is LongArrayList)
+        val array = list.toLongArray()
+        assertArrayEquals(longArrayOf(1, 2, 3), array)
+        array[0] = 10
+        assertEquals(ionInt(1), list.values[0])
+        assertArrayEquals(longArrayOf(2, 3), list.subList(1, 3).toLongArray())
+
+        assertTrue(loadList("[1e0, -0e0]").values is DoubleArrayList)
+        assertArrayEquals(doubleArrayOf(1.0, -0.0), loadList("[1e0, -0e0]").toDoubleArray())
+        assertTrue(loadList("[true, false]").values is BooleanArrayList)
+        assertArrayEquals(booleanArrayOf(true, false), loadList("[true, false]").toBooleanArray())
+    }
+
+    @Test
+    fun `primitive arrays are created from other sequences`() {
+        assertArrayEquals(longArrayOf(1, 2), loadSingleElement("(1 a::2)").asSexp().toLongArray())
+        assertArrayEquals(doubleArrayOf(1.0), ionListOf(ionFloat(1.0)).toDoubleArray())
+        assertArrayEquals(booleanArrayOf(), ionSexpOf().toBooleanArray())
+        assertArrayEquals(longArrayOf(Long.MAX_VALUE), ionListOf(ionInt(Long.MAX_VALUE.toBigInteger())).toLongArray())
+    }
+
+    @Test
+    fun `primitive arrays cannot be created from other values`() {
+        assertThrows<IonElementConstraintException> { loadList("[1, 2e0]").toLongArray() }
+        assertThrows<IonElementConstraintException> { loadList("[1, null.int]").toLongArray() }
+        assertThrows<IonElementConstraintException> { loadList("[99999999999999999999]").toLongArray() }
+        assertThrows<IonElementConstraintException> { loadList("[1, 2]").toDoubleArray() }
+        assertThrows<IonElementConstraintException> { loadList("[1e0]").toBooleanArray() }
+    }
+}
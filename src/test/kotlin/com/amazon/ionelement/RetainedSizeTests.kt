@@ -0,0 +1,63 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ion.Decimal
+import com.amazon.ionelement.api.*
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class RetainedSizeTests {
+
+    @Test
+    fun `shared instances are not counted`() {
+        ElementType.values().forEach { assertEquals(0, estimateRetainedSize(ionNull(it))) }
+        assertEquals(0, estimateRetainedSize(emptyIonList()))
+        assertEquals(0, estimateRetainedSize(emptyIonStruct()))
+        assertEquals(0, estimateRetainedSize(emptyBlob()))
+    }
+
+    @Test
+    fun `annotations and metas are counted`() {
+        val element = ionInt(1)
+        val size = estimateRetainedSize(element)
+        assertTrue(size > 0)
+        assertTrue(estimateRetainedSize(element.withAnnotations("a")) > size)
+        assertTrue(estimateRetainedSize(element.withMeta("m", "value")) > size)
+        assertEquals(size, estimateRetainedSize(element.withAnnotations("a").withoutAnnotations()))
+    }
+
+    @Test
+    fun `objects that are reachable more than once are counted once`() {
+        val element = ionListOf(ionString("a".repeat(100)))
+        val size = estimateRetainedSize(element)
+        assertEquals(size, estimateRetainedSize(listOf(element, element)))
+
+        val sharedName = "name".repeat(25)
+        val shared = ionStructOf(List(10) { field(sharedName, ionInt(it.toLong())) })
+        val distinct = ionStructOf(List(10) { field(String(sharedName.toCharArray()), ionInt(it.toLong())) })
+        assertTrue(estimateRetainedSize(shared) < estimateRetainedSize(distinct))
+    }
+
+    @Test
+    fun `compact representations are smaller`() {
+        val compact = loadSingleElement("19.99")
+        val decimal = ionDecimal(Decimal.valueOf("19.99"))
+        assertTrue(estimateRetainedSize(compact) < estimateRetainedSize(decimal))
+        // Comparing them creates the compact element's cached Decimal, which it then retains
+        assertEquals(decimal, compact)
+        assertTrue(estimateRetainedSize(compact) > estimateRetainedSize(decimal))
+
+        val slim = loadSingleElement("\"abc\"")
+        val full = loadSingleElement("\"abc\"", IonElementLoaderOptions { includeLocationMeta = true })
+        assertTrue(estimateRetainedSize(slim) < estimateRetainedSize(full))
+    }
+
+    @Test
+    fun `deeply nested elements`() {
+        var element: IonElement = ionInt(1)
+        repeat(100_000) { element = ionListOf(element) }
+        assertTrue(estimateRetainedSize(element) > 100_000L * 16)
+    }
+}
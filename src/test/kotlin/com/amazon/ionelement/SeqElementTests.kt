@@ -0,0 +1,74 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ionelement.api.*
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+class SeqElementTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = ["a::[1, 2, 3]", "a::(1 2 3)"])
+    fun withAppended(ionText: String) {
+        val seq = loadSingleElement(ionText).withMeta("foo", 1).asSeq()
+        val appended = seq.withAppended(ionInt(4))
+
+        assertEquals(seq.type, appended.type)
+        assertEquals(listOf(1L, 2L, 3L, 4L), appended.values.map { it.longValue })
+        assertEquals(listOf("a"), appended.annotations)
+        assertEquals(mapOf("foo" to 1), appended.metas)
+        assertEquals(3, seq.size, "original sequence must not be modified")
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["a::[1, 2, 3]", "a::(1 2 3)"])
+    fun withSet(ionText: String) {
+        val seq = loadSingleElement(ionText).withMeta("foo", 1).asSeq()
+        val updated = seq.withSet(1, ionString("two"))
+
+        assertEquals(seq.type, updated.type)
+        assertEquals(listOf(ionInt(1), ionString("two"), ionInt(3)), updated.values)
+        assertEquals(listOf("a"), updated.annotations)
+        assertEquals(mapOf("foo" to 1), updated.metas)
+        assertEquals(ionInt(2).asAnyElement(), seq.values[1], "original sequence must not be modified")
+        assertThrows<IndexOutOfBoundsException> { seq.withSet(3, ionInt(4)) }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["a::[1, 2, 3]", "a::(1 2 3)"])
+    fun subList(ionText: String) {
+        val seq = loadSingleElement(ionText).withMeta("foo", 1).asSeq()
+        val slice = seq.subList(1, 3)
+
+        assertEquals(seq.type, slice.type)
+        assertEquals(listOf(2L, 3L), slice.values.map { it.longValue })
+        assertEquals(listOf("a"), slice.annotations)
+        assertEquals(mapOf("foo" to 1), slice.metas)
+        assertTrue(seq.subList(1, 1).values.isEmpty())
+        assertThrows<IndexOutOfBoundsException> { seq.subList(2, 4) }
+    }
+
+    @Test
+    fun `covariant return types`() {
+        val list: ListElement = ionListOf(ionInt(1)).withAppended(ionInt(2)).withSet(0, ionInt(0)).subList(0, 1)
+        val sexp: SexpElement = ionSexpOf(ionInt(1)).withAppended(ionInt(2)).withSet(0, ionInt(0)).subList(0, 1)
+
+        assertEquals(ionListOf(ionInt(0)), list)
+        assertEquals(ionSexpOf(ionInt(0)), sexp)
+    }
+
+    @Test
+    fun `repeated appends`() {
+        var list = emptyIonList()
+        repeat(10_000) { list = list.withAppended(ionInt(it.toLong())) }
+
+        assertEquals(10_000, list.size)
+        assertEquals(ionListOf((0 until 10_000).map { ionInt(it.toLong()) }), list)
+        assertEquals(ionListOf(ionInt(5000), ionInt(5001)), list.withSet(5001, ionInt(5001)).subList(5000, 5002))
+    }
+}
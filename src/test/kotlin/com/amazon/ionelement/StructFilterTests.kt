@@ -0,0 +1,115 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.util.INCLUDE_LOCATION_META
+import com.amazon.ionelement.util.ION
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class StructFilterTests {
+    private val records = """
+        { id: 1, status: "FAILED", attempts: 4 }
+        { id: 2, status: "OK", attempts: 1 }
+        { id: 3, attempts: 5 }
+        [not, a, struct]
+        null.struct
+        { id: 4, attempts: 5, status: "FAILED" }
+        { id: 5, status: "FAILED", status: "OK", attempts: 2 }
+        { id: 6, status: "OK", status: "FAILED", attempts: 7 }
+    """
+
+    private val failed = StructFilter.builder()
+        .withFieldEqualTo("status", ionString("FAILED"))
+        .build()
+
+    private fun ids(elements: Iterable<StructElement>) = elements.map { it["id"].longValue }
+
+    @Test
+    fun `loadAllElements only loads matching structs`() {
+        ION.newReader(records).use { reader ->
+            assertEquals(listOf(1L, 4L, 5L), ids(loadAllElements(reader, failed)))
+        }
+    }
+
+    @Test
+    fun `all conditions must be satisfied`() {
+        val filter = StructFilter.builder()
+            .withFieldEqualTo("status", ionString("FAILED"))
+            .withField("attempts") { it.longValue > 3 }
+            .build()
+
+        ION.newReader(records).use { reader ->
+            assertEquals(listOf(1L, 4L), ids(loadAllElements(reader, filter)))
+        }
+    }
+
+    @Test
+    fun `multiple conditions for the same field are combined`() {
+        val filter = StructFilter.builder()
+            .withField("attempts") { it.longValue > 1 }
+            .withField("attempts") { it.longValue < 5 }
+            .build()
+
+        ION.newReader(records).use { reader ->
+            assertEquals(listOf(1L, 5L), ids(loadAllElements(reader, filter)))
+        }
+    }
+
+    @Test
+    fun `an empty filter matches all structs`() {
+        ION.newReader(records).use { reader ->
+            assertEquals(listOf(1L, 2L, 3L, 4L, 5L, 6L), ids(loadAllElements(reader, StructFilter.builder().build())))
+        }
+    }
+
+    @Test
+    fun `remaining fields are skipped once a condition fails`() {
+        var tested = 0
+        val filter = StructFilter.builder().withField("a") { tested++; it.longValue == 1L }.build()
+
+        ION.newReader("{ a: 2, a: 1, b: 3 } { b: 4, a: 1 }").use { reader ->
+            val loaded = loadAllElements(reader, filter).toList()
+            assertEquals(listOf(loadSingleElement("{ b: 4, a: 1 }")), loaded)
+        }
+        assertEquals(2, tested)
+    }
+
+    @Test
+    fun `loaded structs are the same as those loaded without a filter`() {
+        ION.newReader(records).use { reader ->
+            val expected = loadAllElements(records, INCLUDE_LOCATION_META).filter { failed.matches(it) }
+            val actual = loadAllElements(reader, failed, INCLUDE_LOCATION_META).toList()
+            assertEquals(expected, actual)
+            assertEquals(expected.map { it.metas }, actual.map { it.metas })
+        }
+    }
+
+    @Test
+    fun `loadCurrentElement leaves the reader on the current value`() {
+        val loader = createIonElementLoader()
+        ION.newReader("a::{ status: \"FAILED\", x: [1] } { status: \"OK\", x: [2] } 3").use { reader ->
+            reader.next()
+            assertEquals(loadSingleElement("a::{ status: \"FAILED\", x: [1] }"), loader.loadCurrentElement(reader, failed))
+            reader.next()
+            assertNull(loader.loadCurrentElement(reader, failed))
+            reader.next()
+            assertNull(loader.loadCurrentElement(reader, failed))
+            assertNull(reader.next())
+        }
+    }
+
+    @Test
+    fun matches() {
+        assertTrue(failed.matches(loadSingleElement("{ status: \"FAILED\" }")))
+        assertTrue(failed.matches(loadSingleElement("{ status: \"FAILED\", status: \"OK\" }")))
+        assertFalse(failed.matches(loadSingleElement("{ status: \"OK\", status: \"FAILED\" }")))
+        assertFalse(failed.matches(loadSingleElement("{ }")))
+        assertFalse(failed.matches(loadSingleElement("null.struct")))
+        assertFalse(failed.matches(loadSingleElement("[status, \"FAILED\"]")))
+    }
+}
@@ -0,0 +1,147 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement
+
+import com.amazon.ion.Timestamp
+import com.amazon.ionelement.api.*
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class StructIndexTests {
+    private val records = loadAllElements(
+        """
+        { id: 1, n: 10, t: 2020-01-01T00:00:00.000Z, tags: [a, b, a], name: "x" }
+        { id: 2, n: -5, t: 2020-01-01T00:00:00.0005Z, tags: [b], name: "y" }
+        { id: 3, n: 10, t: 2020-01-01T00:00:00.001Z, name: "x" }
+        { id: 4, n: 123456789012345678901234567890, t: 2020-01-01T00:00Z, name: x }
+        { id: 5, n: a::10, t: 2019T, name: null.string }
+        { id: 6 }
+        """
+    ).map { it.asStruct() }
+
+    private fun ids(elements: Iterable<StructElement>) = elements.map { it["id"].longValue }
+
+    @Test
+    fun `get by int key`() {
+        val index = StructIndex.build(records, "$.n")
+        assertEquals(listOf(1L, 3L), ids(index[ionInt(10)]))
+        assertEquals(listOf(2L), ids(index[ionInt(-5)]))
+        assertEquals(listOf(4L), ids(index[loadSingleElement("123456789012345678901234567890")]))
+        assertEquals(listOf(5L), ids(index[ionInt(10).withAnnotations("a")]))
+        assertEquals(emptyList<Long>(), ids(index[ionInt(11)]))
+        assertEquals(5, index.size)
+    }
+
+    @Test
+    fun `get by other keys`() {
+        val index = StructIndex.build(records, "$.name")
+        assertEquals(listOf(1L, 3L), ids(index[ionString("x")]))
+        assertEquals(listOf(4L), ids(index[ionSymbol("x")]))
+        assertEquals(listOf(5L), ids(index[ionNull(ElementType.STRING)]))
+    }
+
+    @Test
+    fun `get by timestamp key distinguishes equal instants`() {
+        val index = StructIndex.build(records, "$.t")
+        assertEquals(listOf(1L), ids(index[loadSingleElement("2020-01-01T00:00:00.000Z")]))
+        assertEquals(listOf(4L), ids(index[loadSingleElement("2020-01-01T00:00Z")]))
+        assertEquals(listOf(2L), ids(index[loadSingleElement("2020-01-01T00:00:00.0005Z")]))
+    }
+
+    @Test
+    fun `structs are indexed under each distinct key`() {
+        val index = StructIndex.build(records, "$.tags[*]")
+        assertEquals(listOf(1L), ids(index[ionSymbol("a")]))
+        assertEquals(listOf(1L, 2L), ids(index[ionSymbol("b")]))
+        assertEquals(2, index.size)
+    }
+
+    @Test
+    fun `range of int keys`() {
+        val index = StructIndex.build(records.filter { it["id"].longValue != 5L }, "$.n")
+        assertEquals(listOf(2L, 1L, 3L), ids(index.range(ionInt(-5), ionInt(11))))
+        assertEquals(listOf(2L), ids(index.range(ionInt(-5), ionInt(10))))
+        assertEquals(emptyList<Long>(), ids(index.range(ionInt(11), ionInt(Long.MAX_VALUE))))
+    }
+
+    @Test
+    fun `range of timestamp keys`() {
+        val index = StructIndex.build(records, "$.t")
+        val from = loadSingleElement("2020-01-01T00:00:00.0001Z")
+        val to = loadSingleElement("2020-01-01T00:00:00.001Z")
+        assertEquals(listOf(2L), ids(index.range(from, to)))
+
+        val all = index.range(loadSingleElement("2019T"), loadSingleElement("2021T"))
+        assertEquals(listOf(5L, 4L, 1L, 2L, 3L), ids(all))
+    }
+
+    @Test
+    fun `range of keys of any type`() {
+        val index = StructIndex.build(records, "$.name")
+        assertEquals(listOf(4L, 5L, 1L, 3L, 2L), ids(index.range(ionNull(ElementType.SYMBOL), ionNull(ElementType.CLOB))))
+        assertEquals(listOf(1L, 3L), ids(index.range(ionString("x"), ionString("y"))))
+        assertEquals(emptyList<Long>(), ids(index.range(ionString("y"), ionString("x"))))
+    }
+
+    @Test
+    fun `range of int keys includes non-primitive keys`() {
+        val index = StructIndex.build(records, "$.n")
+        assertEquals(listOf(2L, 1L, 3L, 5L), ids(index.range(ionInt(-5), ionInt(11))))
+        assertEquals(listOf(1L, 3L, 5L, 4L), ids(index.range(ionInt(0), ionNull(ElementType.FLOAT))))
+    }
+
+    @Test
+    fun `add and remove`() {
+        val index = StructIndex.build(records.filter { it["id"].longValue != 5L }, "$.n")
+        assertEquals(listOf(2L, 1L, 3L), ids(index.range(ionInt(-10), ionInt(20))))
+
+        val added = ionStructOf("id" to ionInt(7), "n" to ionInt(0))
+        index.add(added)
+        assertEquals(listOf(2L, 7L, 1L, 3L), ids(index.range(ionInt(-10), ionInt(20))))
+        assertEquals(5, index.size)
+
+        assertTrue(index.remove(ionStructOf("id" to ionInt(7), "n" to ionInt(0))))
+        assertTrue(index.remove(records[0]))
+        assertFalse(index.remove(records[0]))
+        assertFalse(index.remove(records[5]))
+        assertEquals(listOf(2L, 3L), ids(index.range(ionInt(-10), ionInt(20))))
+        assertEquals(listOf(3L), ids(index[ionInt(10)]))
+        assertEquals(3, index.size)
+    }
+
+    @Test
+    fun `keys are removed with their last struct`() {
+        val index = StructIndex.build(emptyList(), "$.k")
+        val timestamp = Timestamp.valueOf("2020-01-01T00:00:00.000Z")
+        // Each round adds structs with new keys of every kind, and then removes them again.
+        for (round in 0L until 1_000L) {
+            val structs = listOf(
+                ionStructOf("k" to ionInt(round)),
+                ionStructOf("k" to ionTimestamp(timestamp.addMillis(round))),
+                ionStructOf("k" to ionTimestamp(timestamp.addMillis(round).withLocalOffset(60))),
+                ionStructOf("k" to ionString("s$round")),
+            )
+            structs.forEach { index.add(it) }
+            assertEquals(structs.take(1), index.range(ionInt(round), ionInt(round + 1)))
+            structs.forEach { assertTrue(index.remove(it)) }
+        }
+        assertEquals(0, index.size)
+        assertEquals(emptyList<StructElement>(), index.range(ionInt(0), ionInt(1000)))
+        assertEquals(emptyList<StructElement>(), index.range(ionNull(ElementType.INT), ionNull(ElementType.BLOB)))
+
+        val struct = ionStructOf("k" to ionInt(5))
+        index.add(struct)
+        assertEquals(listOf(struct), index.range(ionNull(ElementType.INT), ionNull(ElementType.BLOB)))
+        assertEquals(listOf(struct), index.range(ionInt(0), ionInt(1000)))
+    }
+
+    @Test
+    fun `many int keys`() {
+        val elements = (0 until 10_000).map { ionStructOf("id" to ionInt(it.toLong()), "n" to ionInt(it * 7L % 10_000)) }
+        val index = StructIndex.build(elements, IonPath.compile("$.n"))
+        assertEquals(listOf(0L), ids(index[ionInt(0)]))
+        assertEquals((100L until 200L).toList(), index.range(ionInt(100), ionInt(200)).map { it["n"].longValue })
+    }
+}
@@ -18,6 +18,7 @@ package com.amazon.ionelement
 import com.amazon.ionelement.api.IonElement
 import com.amazon.ionelement.api.IonElementException
 import com.amazon.ionelement.api.StructField
+import com.amazon.ionelement.api.field
 import com.amazon.ionelement.api.ionInt
 import com.amazon.ionelement.api.loadSingleElement
 import org.junit.jupiter.api.Assertions.assertEquals
@@ -102,6 +103,59 @@ class StructIonElementTests {
         assertFalse(struct.containsField("z"))
     }
 
+    @Test
+    fun withField() {
+        val updated = struct.withField("b", ionInt(4)).withField("c", ionInt(5))
+        assertEquals(loadSingleElement("{ a: 1, b: 4, c: 5 }"), updated)
+        assertEquals(3, updated.size)
+        assertEquals(loadSingleElement("{ a: 1, b: 2, b: 3 }"), struct, "original struct must not be modified")
+    }
+
+    @Test
+    fun withoutField() {
+        val updated = struct.withoutField("b")
+        assertEquals(loadSingleElement("{ a: 1 }"), updated)
+        assertEquals(1, updated.size)
+        assertFalse(updated.containsField("b"))
+        assertEquals(loadSingleElement("{}"), updated.withoutField("a").withoutField("z"))
+    }
+
+    @Test
+    fun withFieldPreservesAnnotationsAndMetas() {
+        val annotated = struct.withAnnotations("foo").withMeta("bar", 1)
+        val updated = annotated.withField("a", ionInt(0)).withoutField("b")
+        assertEquals(listOf("foo"), updated.annotations)
+        assertEquals(mapOf("bar" to 1), updated.metas)
+    }
+
+    @Test
+    fun repeatedUpdates() {
+        var updated = loadSingleElement("{}").asStruct()
+        for (i in 0 until 500) {
+            updated = updated.update { add("f$i", ionInt(i.toLong())) }
+        }
+        for (i in 0 until 500 step 2) {
+            updated = updated.withoutField("f$i")
+        }
+        assertEquals(250, updated.size)
+        assertEquals(ionInt(499), updated["f499"])
+        assertNull(updated.getOptional("f498"))
+        assertEquals(
+            loadSingleElement((1 until 500 step 2).joinToString(prefix = "{", postfix = "}") { "f$it: $it" }),
+            updated
+        )
+    }
+
+    @Test
+    fun updateAfterUpdate() {
+        val updated = struct
+            .update { clearField("a"); add("b", ionInt(4)) }
+            .update { remove(field("b", ionInt(2))); set("c", ionInt(5)) }
+        assertEquals(loadSingleElement("{ b: 3, b: 4, c: 5 }"), updated)
+        assertEquals(3, updated.size)
+        assertEquals(updated.fields.toSet(), updated.mutableFields().toSet())
+    }
+
     private fun Iterable<StructField>.assertHasField(expectedName: String, expectedValue: IonElement) {
         assertTrue(this.any { (name, value) -> name == expectedName && value == expectedValue }, "Must have field '$expectedName'")
     }
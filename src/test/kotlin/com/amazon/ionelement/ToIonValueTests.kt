@@ -1,10 +1,29 @@
 package com.amazon.ionelement
 
+import com.amazon.ion.IonContainer
+import com.amazon.ion.IonInt
+import com.amazon.ion.IonValue
 import com.amazon.ion.system.IonSystemBuilder
+import com.amazon.ionelement.api.AnyElement
+import com.amazon.ionelement.api.ElementType
+import com.amazon.ionelement.api.IonElement
+import com.amazon.ionelement.api.ionInt
+import com.amazon.ionelement.api.ionListOf
+import com.amazon.ionelement.api.ionSexpOf
+import com.amazon.ionelement.api.ionStructOf
+import com.amazon.ionelement.api.loadAllElements
+import com.amazon.ionelement.api.loadSingleElement
 import com.amazon.ionelement.api.toIonElement
+import com.amazon.ionelement.api.toIonElements
 import com.amazon.ionelement.api.toIonValue
+import com.amazon.ionelement.util.randomIonElement
+import com.amazon.ionelement.util.randomSeed
 import kotlin.test.assertEquals
+import kotlin.test.assertNull
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
 
 class ToIonValueTests {
 
@@ -21,4 +40,100 @@ class ToIonValueTests {
 
         assertEquals(ion.singleValue("[1]"), ionList)
     }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "null", "null.bool", "null.int", "null.struct", "a::b::null.list",
+            "true", "foo::false",
+            "0", "-1", "9223372036854775807", "-9223372036854775808", "18446744073709551616", "-18446744073709551617",
+            "0e0", "-0e0", "nan", "+inf", "-inf", "1.5e3",
+            "0d0", "-0d0", "1.00", "-123.456d-42",
+            "2007T", "2007-02-23T12:14:33.079-08:00", "2007-02-23T20:14:33.079+00:00", "2007-02-23T20:14-00:00",
+            "\"hello\"", "\"\"", "hello", "'with space'", "a::b::c::'d'",
+            "{{ aGVsbG8= }}", "{{ \"hello\" }}", "{{ }}",
+            "[]", "[1, [2, [3]], a::{ b: c }]", "()", "(+ 1 (- 2 3))",
+            "{}", "{ a: 1, a: 2, b: { c: [d, e] } }", "x::y::{ a: z::1 }",
+        ]
+    )
+    fun `direct conversions are equivalent to the reader and writer round trip`(ionText: String) {
+        val ion = IonSystemBuilder.standard().build()
+        val ionValue = ion.singleValue(ionText)
+        val element = loadSingleElement(ionText)
+
+        assertEquals(element, ionValue.toIonElement())
+        assertEquals(ionValue, element.toIonValue(ion))
+        assertEquals(element, element.toIonValue(ion).toIonElement())
+    }
+
+    @Test
+    fun `converted IonValue instances are detached`() {
+        val ion = IonSystemBuilder.standard().build()
+        val ionValue = loadSingleElement("{ a: [1, 2] }").toIonValue(ion)
+
+        assertNull(ionValue.container)
+        assertEquals(ionValue, ion.newList(ionValue)[0])
+    }
+
+    @Test
+    fun `random elements survive a round trip through IonValue`() {
+        val ion = IonSystemBuilder.standard().build()
+        repeat(100) {
+            val element = randomIonElement()
+            assertEquals(element, element.toIonValue(ion).toIonElement(), "seed: $randomSeed")
+        }
+    }
+
+    @Test
+    fun `IonDatagram can be converted to a list of elements`() {
+        val ion = IonSystemBuilder.standard().build()
+        val ionText = "1 a::2 { b: [c] } null.string"
+        val datagram = ion.loader.load(ionText)
+
+        assertEquals(loadAllElements(ionText).toList(), datagram.toIonElements())
+        assertEquals(emptyList(), ion.newDatagram().toIonElements())
+    }
+
+    @Test
+    fun `IonDatagram with a single value can be converted to an element`() {
+        val ion = IonSystemBuilder.standard().build()
+        assertEquals(loadSingleElement("a::{ b: 1 }"), ion.loader.load("a::{ b: 1 }").toIonElement())
+    }
+
+    @Test
+    fun `IonDatagram without exactly one value cannot be converted to an element`() {
+        val ion = IonSystemBuilder.standard().build()
+        assertThrows<IllegalArgumentException> { ion.newDatagram().toIonElement() }
+        assertThrows<IllegalArgumentException> { ion.loader.load("1 2").toIonElement() }
+    }
+
+    @Test
+    fun `deeply nested values are converted in both directions`() {
+        val ion = IonSystemBuilder.standard().build()
+        val depth = 20_000
+        var element: IonElement = ionInt(42).withAnnotations("innermost")
+        for (level in 0 until depth) {
+            element = when (level % 3) {
+                0 -> ionListOf(element)
+                1 -> ionStructOf("f" to element)
+                else -> ionSexpOf(element)
+            }
+        }
+
+        val ionValue = element.toIonValue(ion)
+        var currentValue: IonValue = ionValue
+        repeat(depth) { currentValue = (currentValue as IonContainer).single() }
+        // Checked field by field, because IonValue equality looks up the symbol table through every parent.
+        assertEquals(listOf("innermost"), currentValue.typeAnnotations.toList())
+        assertEquals(42L, (currentValue as IonInt).longValue())
+
+        val converted = ionValue.toIonElement()
+        var currentElement: AnyElement = converted
+        repeat(depth) { level ->
+            // The outermost container was created last, so the levels are visited in reverse.
+            assertEquals(listOf(ElementType.LIST, ElementType.STRUCT, ElementType.SEXP)[(depth - 1 - level) % 3], currentElement.type)
+            currentElement = currentElement.containerValues.single()
+        }
+        assertEquals<IonElement>(ionInt(42).withAnnotations("innermost"), currentElement)
+    }
 }
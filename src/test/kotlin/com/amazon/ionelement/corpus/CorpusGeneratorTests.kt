@@ -0,0 +1,80 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.corpus
+
+import com.amazon.ionelement.api.*
+import java.util.Random
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+import org.junit.jupiter.params.provider.ValueSource
+
+class CorpusGeneratorTests {
+    companion object {
+        @JvmStatic
+        fun profiles() = CorpusOptions.PROFILES.keys.toList()
+    }
+
+    @ParameterizedTest
+    @MethodSource("profiles")
+    fun `the same seed generates the same corpus`(profile: String) {
+        val options = CorpusOptions.PROFILES.getValue(profile)
+        val first = CorpusGenerator(options, 42)
+        val second = CorpusGenerator(options, 42)
+        repeat(20) {
+            val element = first.next()
+            assertEquals(element, second.next())
+            // Generated values can be written and loaded
+            assertEquals(element, loadSingleElement(element.toString()))
+        }
+        assertNotEquals(List(20) { CorpusGenerator(options, 1).next() }, List(20) { CorpusGenerator(options, 2).next() })
+    }
+
+    @Test
+    fun `records have a limited number of shapes`() {
+        val generator = CorpusGenerator(CorpusOptions.RECORDS.copy(recordShapes = 3, containerChance = 0.0), 1)
+        val shapes = List(100) { generator.next().asStruct().fields.map { it.name } }.toSet()
+        assertTrue(shapes.size <= 3) { "$shapes" }
+    }
+
+    @Test
+    fun `options are respected`() {
+        val options = CorpusOptions(
+            recordFields = Distribution.fixed(4),
+            containerChance = 0.0,
+            scalarWeights = mapOf(ElementType.STRING to 1),
+            stringLength = Distribution.fixed(7),
+            annotationChance = 1.0,
+            annotationCount = Distribution.fixed(2),
+        )
+        val generator = CorpusGenerator(options, 1)
+        repeat(20) {
+            val record = generator.next().asStruct()
+            assertEquals(2, record.annotations.size)
+            assertEquals(4, record.fields.size)
+            record.values.filter { !it.isNull }.forEach {
+                assertEquals(7, it.stringValue.length)
+                assertEquals(2, it.annotations.size)
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["0", "10", "1..20", "geometric:8.0:100", "lognormal:1024:1.5:1000000"])
+    fun `distributions can be parsed`(text: String) {
+        val distribution = Distribution.parse(text)
+        assertEquals(text, distribution.toString())
+        val random = Random(1)
+        repeat(1000) { assertTrue(distribution.sample(random) >= 0) }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["", "-1", "5..1", "geometric", "lognormal:10", "normal:1:2", "x"])
+    fun `invalid distributions`(text: String) {
+        assertThrows<IllegalArgumentException> { Distribution.parse(text) }
+    }
+}
@@ -0,0 +1,98 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.Decimal
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+import com.amazon.ionelement.util.randomSeed
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.util.Random
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+@OptIn(IonOperators::class)
+class CompactDecimalElementImplTests {
+    private fun decimal(unscaled: Long, scale: Int) = Decimal.valueOf(BigDecimal.valueOf(unscaled, scale))
+
+    private fun compact(decimal: Decimal) =
+        CompactDecimalElementImpl.compactDecimalOrNull(decimal, EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
+
+    private fun assertEquivalent(decimal: Decimal) {
+        val expected = ionDecimal(decimal)
+        val actual = compact(decimal)!!
+        assertTrue(Decimal.equals(decimal, actual.decimalValue))
+        assertEquals(expected, actual)
+        assertEquals(expected.hashCode(), actual.hashCode())
+        assertEquals(0, compareElements(expected, actual))
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "0.", "0.00", "0d5", "1.", "-1.", "19.99", "-19.99", "1.50", "1d-400", "1d400",
+            "9223372036854775807.", "-9223372036854775807.", "0.9223372036854775807", "-922337203685477580.7",
+        ]
+    )
+    fun `compact decimals are equivalent to decimals`(text: String) {
+        assertEquivalent(loadSingleElement(text).decimalValue)
+    }
+
+    @Test
+    fun `random compact decimals are equivalent to decimals`() {
+        val random = Random(randomSeed)
+        repeat(1000) {
+            val unscaled = random.nextLong() shr random.nextInt(64)
+            if (unscaled != Long.MIN_VALUE) {
+                assertEquivalent(decimal(unscaled, random.nextInt(41) - 20))
+            }
+        }
+    }
+
+    @Test
+    fun `decimals that cannot be compacted`() {
+        assertNull(compact(Decimal.negativeZero(2)))
+        assertNull(compact(decimal(Long.MIN_VALUE, 2)))
+        assertNull(compact(Decimal.valueOf(BigInteger.valueOf(Long.MAX_VALUE).inc(), 2)))
+        assertTrue(loadSingleElement("-0.00") is DecimalElementImpl)
+        assertTrue(loadSingleElement("123456789012345678901234567890.5") is DecimalElementImpl)
+        assertTrue(loadSingleElement("19.99") is CompactDecimalElementImpl)
+    }
+
+    @Test
+    fun `operators on compact decimals`() {
+        val random = Random(randomSeed)
+        val values = List(200) {
+            val unscaled = random.nextLong() shr (40 + random.nextInt(24))
+            decimal(unscaled, random.nextInt(7) - 2)
+        } + listOf(decimal(Long.MAX_VALUE, 0), decimal(Long.MAX_VALUE, 18), decimal(-Long.MAX_VALUE, -3))
+        for (x in values) {
+            val cx = compact(x)!!.withAnnotations("a")
+            val dx = DecimalElementImpl(x, EMPTY_IMMUTABLE_LIST, EMPTY_METAS).withAnnotations("a")
+            assertEquals(-dx, -cx)
+            assertEquals(dx.inc(), cx.inc())
+            assertEquals(dx.dec(), cx.dec())
+            for (y in values) {
+                val cy = compact(y)!!
+                val dy = DecimalElementImpl(y, EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
+                assertEquals(dx eq dy, cx eq cy)
+                assertEquals(dx lt dy, cx lt cy)
+                assertEquals(dx gt dy, cx gt cy)
+                assertEquals(dx lte dy, cx lte cy)
+                assertEquals(dx gte dy, cx gte cy)
+                assertEquals(Integer.signum(compareElements(dx, dy)), Integer.signum(compareElements(cx, cy)))
+            }
+        }
+    }
+
+    @Test
+    fun `negating compact zero is positive zero`() {
+        val zero = -loadSingleElement("0.00").asDecimal()
+        assertEquals(ionDecimal(Decimal.valueOf(BigDecimal("0.00"))), zero)
+    }
+}
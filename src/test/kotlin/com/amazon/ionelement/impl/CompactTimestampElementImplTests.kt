@@ -0,0 +1,110 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.Timestamp
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+import com.amazon.ionelement.util.randomSeed
+import java.math.BigDecimal
+import java.math.RoundingMode
+import java.util.Random
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+class CompactTimestampElementImplTests {
+    private fun compact(timestamp: Timestamp) =
+        CompactTimestampElementImpl.compactTimestampOrNull(timestamp, EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
+
+    private fun assertEquivalent(timestamp: Timestamp) {
+        val expected = ionTimestamp(timestamp)
+        val actual = compact(timestamp)!!
+        assertEquals(timestamp, actual.timestampValue)
+        assertEquals(timestamp.toString(), actual.timestampValue.toString())
+        assertEquals(timestamp.millis, actual.epochMillis)
+        assertEquals(expected, actual)
+        assertEquals(expected.hashCode(), actual.hashCode())
+        assertEquals(fingerprintElement(expected), fingerprintElement(actual))
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "0001T", "9999T", "2001-02T", "2001-02-03", "2001-02-03T04:05Z", "2001-02-03T04:05-00:00",
+            "2001-02-03T04:05:06+23:59", "2001-02-03T04:05:06.7-23:59", "2001-02-03T04:05:06.000000000Z",
+            "2001-02-03T04:05:06.123456789-08:00", "1969-12-31T23:59:59.9999Z", "1969-12-31T23:59:59.000001Z",
+            "0001-01-01T00:00:00.5Z", "9999-12-31T23:59:59.999999999Z", "2000-01-01T00:00:00.1+14:00",
+        ]
+    )
+    fun `compact timestamps are equivalent to timestamps`(text: String) {
+        assertEquivalent(Timestamp.valueOf(text))
+    }
+
+    @Test
+    fun `random compact timestamps are equivalent to timestamps`() {
+        val random = Random(randomSeed)
+        repeat(1000) {
+            val precision = Timestamp.Precision.values()[random.nextInt(Timestamp.Precision.values().size)]
+            val fractionDigits = random.nextInt(10)
+            val fraction = if (precision == Timestamp.Precision.FRACTION && fractionDigits > 0) {
+                BigDecimal.valueOf(random.nextInt(1_000_000_000).toLong(), 9).setScale(fractionDigits, RoundingMode.DOWN)
+            } else {
+                null
+            }
+            val offset = if (random.nextBoolean()) null else random.nextInt(24 * 60 * 2 - 1) - (24 * 60 - 1)
+            val year = 2 + random.nextInt(9997)
+            val month = 1 + random.nextInt(12)
+            val day = 1 + random.nextInt(28)
+            val hour = random.nextInt(24)
+            val minute = random.nextInt(60)
+            val second = random.nextInt(60)
+            val timestamp = when (precision) {
+                Timestamp.Precision.YEAR -> Timestamp.forYear(year)
+                Timestamp.Precision.MONTH -> Timestamp.forMonth(year, month)
+                Timestamp.Precision.DAY -> Timestamp.forDay(year, month, day)
+                Timestamp.Precision.MINUTE -> Timestamp.forMinute(year, month, day, hour, minute, offset)
+                else -> if (fraction == null) {
+                    Timestamp.forSecond(year, month, day, hour, minute, second, offset)
+                } else {
+                    Timestamp.forSecond(year, month, day, hour, minute, fraction.add(BigDecimal.valueOf(second.toLong())), offset)
+                }
+            }
+            assertEquivalent(timestamp)
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "2001-02-03T04:05Z 2001-02-03T04:05:00Z", "2001-02-03T04:05:06Z 2001-02-03T04:05:06.0Z",
+            "2001-02-03T04:05:06.0Z 2001-02-03T04:05:06.00Z", "2001-02-03T04:05:06Z 2001-02-03T05:05:06+01:00",
+            "2001-02-03T04:05Z 2001-02-03T04:05-00:00", "2001-02-03T00:00Z 2001-02-03",
+        ]
+    )
+    fun `timestamps at the same instant are not equivalent`(texts: String) {
+        val (first, second) = texts.split(" ").map { compact(Timestamp.valueOf(it))!! }
+        assertEquals(first.epochMillis, second.epochMillis)
+        assertNotEquals(first, second)
+        assertNotEquals(first.hashCode(), second.hashCode())
+        assertNotEquals(fingerprintElement(first), fingerprintElement(second))
+    }
+
+    @Test
+    fun `timestamps with more than 9 digits of fractional seconds are not compacted`() {
+        assertNull(compact(Timestamp.valueOf("2001-02-03T04:05:06.1234567891Z")))
+        assertTrue(loadSingleElement("2001-02-03T04:05:06.1234567891Z") is TimestampElementImpl)
+        assertTrue(loadSingleElement("2001-02-03T04:05:06.123456789Z") is CompactTimestampElementImpl)
+    }
+
+    @Test
+    fun `epochMillis of other timestamp elements`() {
+        val timestamp = Timestamp.valueOf("1969-12-31T23:59:59.9999Z")
+        assertEquals(timestamp.millis, ionTimestamp(timestamp).epochMillis)
+        assertEquals(timestamp.millis, loadSingleElement("a::1969-12-31T23:59:59.9999Z").asTimestamp().epochMillis)
+    }
+}
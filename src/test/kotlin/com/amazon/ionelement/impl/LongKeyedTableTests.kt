@@ -0,0 +1,52 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ionelement.util.randomSeed
+import kotlin.random.Random
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Test
+
+class LongKeyedTableTests {
+    @Test
+    fun `put, get, and remove`() {
+        val table = LongKeyedTable<String>()
+        table.put(1, "a")
+        table.put(2, "b")
+        table.put(1, "c")
+        assertEquals(2, table.size)
+        assertEquals("c", table[1])
+
+        assertEquals("c", table.remove(1))
+        assertNull(table.remove(1))
+        assertNull(table[1])
+        assertEquals("b", table[2])
+        assertEquals(1, table.size)
+    }
+
+    @Test
+    fun `random adds and removes are the same as a HashMap`() {
+        val random = Random(randomSeed)
+        val table = LongKeyedTable<Long>()
+        val expected = HashMap<Long, Long>()
+        repeat(100_000) {
+            // A small range of keys, so that there are many collisions and removes of present keys.
+            val key = random.nextLong(-500, 500) * 64
+            if (random.nextBoolean()) {
+                table.put(key, it.toLong())
+                expected[key] = it.toLong()
+            } else {
+                assertEquals(expected.remove(key), table.remove(key)) { "seed: $randomSeed" }
+            }
+            assertEquals(expected.size, table.size)
+        }
+        expected.forEach { (key, value) -> assertEquals(value, table[key]) { "seed: $randomSeed" } }
+        var count = 0
+        table.forEach { key, value ->
+            assertEquals(expected[key], value)
+            count++
+        }
+        assertEquals(expected.size, count)
+    }
+}
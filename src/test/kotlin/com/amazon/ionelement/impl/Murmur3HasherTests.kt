@@ -0,0 +1,37 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ionelement.api.ElementFingerprint
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+
+class Murmur3HasherTests {
+    private fun hash(bytes: ByteArray): ElementFingerprint {
+        val hasher = Murmur3Hasher()
+        bytes.forEach { hasher.putByte(it.toInt()) }
+        return hasher.finish()
+    }
+
+    @Test
+    fun `empty input`() {
+        assertEquals(ElementFingerprint(0, 0), hash(ByteArray(0)))
+    }
+
+    @Test
+    fun `reference vector`() {
+        // From the reference implementation (and e.g. Guava's Murmur3_128HashFunction), with a seed of 0.
+        val expected = ElementFingerprint(-0x1cb4438443f8e494L, 0x7a433ca9c49a9347L)
+        assertEquals(expected, hash("The quick brown fox jumps over the lazy dog".toByteArray()))
+    }
+
+    @Test
+    fun `putString is UTF-8 preceded by the number of chars`() {
+        val text = "aé€😀"
+        val expected = Murmur3Hasher().apply {
+            putInt(text.length)
+            text.toByteArray(Charsets.UTF_8).forEach { putByte(it.toInt()) }
+        }.finish()
+        assertEquals(expected, Murmur3Hasher().apply { putString(text) }.finish())
+    }
+}
@@ -0,0 +1,75 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.Decimal
+import com.amazon.ion.Timestamp
+import com.amazon.ion.system.IonBinaryWriterBuilder
+import com.amazon.ion.system.IonReaderBuilder
+import com.amazon.ionelement.api.*
+import java.io.ByteArrayOutputStream
+import java.math.BigInteger
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+
+class SlimElementsTests {
+    companion object {
+        @JvmStatic
+        fun elements(): List<AnyElement> {
+            val loaded = loadAllElements(
+                "true 1 99999999999999999999 1e0 1.5 1.0000000000000000000000000001 2001T " +
+                    "2001-02-03T04:05:06.1234567891Z \"a\" b {{}} {{\"c\"}} [] () {}"
+            ).toList()
+            val out = ByteArrayOutputStream()
+            IonBinaryWriterBuilder.standard().build(out).use { writer -> ionString("utf8").writeTo(writer) }
+            val utf8 = IonReaderBuilder.standard().build(out.toByteArray())
+                .use { loadSingleElement(it, IonElementLoaderOptions { retainUtf8Strings = true }) }
+            val created = listOf(
+                ionBool(true), ionInt(1), ionInt(BigInteger.TEN.pow(20)), ionFloat(1.0),
+                ionDecimal(Decimal.valueOf(1.5)), ionTimestamp(Timestamp.valueOf("2001T")), ionString("a"),
+                ionSymbol("b"), ionBlob(ByteArray(0)), ionClob(ByteArray(0)), ionListOf(emptyList()),
+                ionSexpOf(emptyList()), ionStructOf(emptyList<StructField>())
+            ).map { it.asAnyElement() }
+            return loaded + utf8 + created
+        }
+
+        private fun AnyElement.isSlim(): Boolean = javaClass.simpleName == "Slim"
+    }
+
+    @ParameterizedTest
+    @MethodSource("elements")
+    fun `elements without annotations or metas are slim`(element: AnyElement) {
+        assertEquals(true, element.isSlim()) { "${element.javaClass.name}: $element" }
+    }
+
+    @ParameterizedTest
+    @MethodSource("elements")
+    fun `slim elements are promoted and demoted`(element: AnyElement) {
+        val annotated = element.withAnnotations("a")
+        assertEquals(false, annotated.isSlim())
+        assertEquals(listOf("a"), annotated.annotations)
+        assertNotEquals(element, annotated)
+        assertEquals(element.javaClass.superclass, annotated.javaClass.superclass)
+
+        val withMetas = element.withMeta("m", 1)
+        assertEquals(false, withMetas.isSlim())
+        assertEquals(1, withMetas.metas["m"])
+        assertEquals(element, withMetas)
+        assertEquals(element.hashCode(), withMetas.hashCode())
+
+        val demoted = annotated.withMeta("m", 1).withoutAnnotations().withoutMetas()
+        assertEquals(true, demoted.isSlim())
+        assertEquals(element, demoted)
+    }
+
+    @Test
+    fun `loaded elements with annotations or metas are not slim`() {
+        assertEquals(false, loadSingleElement("a::1").isSlim())
+        val withLocation = loadSingleElement("1", IonElementLoaderOptions { includeLocationMeta = true })
+        assertEquals(false, withLocation.isSlim())
+        assertEquals(true, withLocation.asAnyElement().metas.isNotEmpty())
+    }
+}
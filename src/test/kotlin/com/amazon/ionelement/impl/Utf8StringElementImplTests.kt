@@ -0,0 +1,105 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.impl
+
+import com.amazon.ion.system.IonBinaryWriterBuilder
+import com.amazon.ion.system.IonReaderBuilder
+import com.amazon.ionelement.api.*
+import com.amazon.ionelement.impl.collections.*
+import com.amazon.ionelement.util.randomSeed
+import java.io.ByteArrayOutputStream
+import java.util.Random
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+class Utf8StringElementImplTests {
+    private val options = IonElementLoaderOptions { retainUtf8Strings = true }
+
+    private fun utf8(text: String) =
+        Utf8StringElementImpl.fromUtf8OrNull(text.toByteArray(Charsets.UTF_8), EMPTY_IMMUTABLE_LIST, EMPTY_METAS)
+
+    private fun toBinary(elements: List<AnyElement>): ByteArray {
+        val out = ByteArrayOutputStream()
+        IonBinaryWriterBuilder.standard().build(out).use { writer -> elements.forEach { it.writeTo(writer) } }
+        return out.toByteArray()
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["", "abc", "\u0000", "\u007f\u0080", "café", "߿ࠀ￿", "𐀀", "􏿿 😀"])
+    fun `utf8 strings are equivalent to strings`(text: String) {
+        val expected = ionString(text)
+        val actual = utf8(text)!!
+        assertEquals(expected, actual)
+        assertEquals(expected.hashCode(), actual.hashCode())
+        assertEquals(text.hashCode(), actual.textHashCode)
+        assertEquals(text, actual.textValue)
+        assertEquals(utf8(text), actual)
+    }
+
+    @Test
+    fun `random utf8 strings are equivalent to strings`() {
+        val random = Random(randomSeed)
+        repeat(1000) {
+            val text = List(random.nextInt(20)) { randomCodePoint(random) }.joinToString("")
+            assertEquals(text.hashCode(), utf8(text)!!.textHashCode) { "seed: $randomSeed, text: $text" }
+        }
+    }
+
+    @OptIn(ExperimentalStdlibApi::class)
+    private fun randomCodePoint(random: Random): String {
+        while (true) {
+            val codePoint = when (random.nextInt(4)) {
+                0 -> random.nextInt(0x80)
+                1 -> random.nextInt(0x800)
+                2 -> random.nextInt(0x10000)
+                else -> random.nextInt(Character.MAX_CODE_POINT + 1)
+            }
+            if (codePoint !in Character.MIN_SURROGATE.code..Character.MAX_SURROGATE.code) {
+                return String(Character.toChars(codePoint))
+            }
+        }
+    }
+
+    @Test
+    fun `invalid utf8 is not retained`() {
+        val invalid = listOf(
+            byteArrayOf(0x80.toByte()),
+            byteArrayOf(0xC0.toByte(), 0x80.toByte()),
+            byteArrayOf(0xE0.toByte(), 0x80.toByte(), 0x80.toByte()),
+            byteArrayOf(0xED.toByte(), 0xA0.toByte(), 0x80.toByte()),
+            byteArrayOf(0xF4.toByte(), 0x90.toByte(), 0x80.toByte(), 0x80.toByte()),
+            byteArrayOf(0xE2.toByte(), 0x82.toByte()),
+        )
+        for (bytes in invalid) {
+            assertNull(Utf8StringElementImpl.fromUtf8OrNull(bytes, EMPTY_IMMUTABLE_LIST, EMPTY_METAS))
+            assertTrue(utf8StringElement(bytes, EMPTY_IMMUTABLE_LIST, EMPTY_METAS) is StringElementImpl)
+        }
+    }
+
+    @Test
+    fun `strings loaded from binary ion retain their utf8 bytes`() {
+        val elements = loadAllElements("\"café\" a::\"\" [\"x\", { y: \"z\" }] sym").toList()
+        val loaded = IonReaderBuilder.standard().build(toBinary(elements)).use { loadAllElements(it, options) }.toList()
+
+        assertEquals(elements, loaded)
+        assertEquals(elements.hashCode(), loaded.hashCode())
+        assertTrue(loaded[0] is Utf8StringElementImpl)
+        assertTrue(loaded[1] is Utf8StringElementImpl)
+        assertTrue(loaded[2].asList().values[0] is Utf8StringElementImpl)
+        assertTrue(loaded[2].asList().values[1].asStruct()["y"] is Utf8StringElementImpl)
+        assertTrue(loaded[3] is SymbolElementImpl)
+        assertEquals(listOf("a"), loaded[1].annotations)
+        // Writing the loaded strings produces the same data
+        assertTrue(toBinary(elements).contentEquals(toBinary(loaded)))
+    }
+
+    @Test
+    fun `strings loaded from other readers are decoded`() {
+        assertTrue(loadSingleElement("\"abc\"", options) is StringElementImpl)
+        assertTrue(loadSingleElement("\"abc\"") is StringElementImpl)
+    }
+}
@@ -0,0 +1,32 @@
+// Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+// SPDX-License-Identifier: Apache-2.0
+package com.amazon.ionelement.util
+
+import java.lang.management.ManagementFactory
+import org.junit.jupiter.api.Assumptions.assumeTrue
+
+private val threadMXBean = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+
+/**
+ * Returns the average number of bytes that the current thread allocates in each call of [block], measured over
+ * [iterations] calls after the same number of warm-up calls (so that the JIT compiler has had a chance to compile
+ * [block]). The cost of measuring is subtracted.
+ *
+ * If the JVM cannot measure the memory allocated by a thread, the calling test is skipped.
+ */
+fun allocatedBytesPerCall(iterations: Int = 10_000, block: () -> Unit): Double {
+    val bean = threadMXBean
+    assumeTrue(bean != null && bean.isThreadAllocatedMemorySupported) { "Thread allocation measurement is not supported" }
+    bean!!.isThreadAllocatedMemoryEnabled = true
+    val threadId = Thread.currentThread().id
+
+    fun measure(): Long {
+        repeat(iterations) { block() }
+        val before = bean.getThreadAllocatedBytes(threadId)
+        repeat(iterations) { block() }
+        return bean.getThreadAllocatedBytes(threadId) - before
+    }
+
+    val overhead = bean.getThreadAllocatedBytes(threadId).let { bean.getThreadAllocatedBytes(threadId) - it }
+    return maxOf(0L, measure() - overhead).toDouble() / iterations
+}